@@ -0,0 +1,153 @@
+package com.elpais.automation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for HeadlineArchiveAnalyzer scaling over a synthetic headline file
+ * The file has a Zipf-like vocabulary and is written once per trial. lineByLine feeds it
+ * to WordFrequencyAnalyzer one line at a time; analyzeArchive runs the sharded analyzer
+ * with each worker count, which is a parameter of its own state so lineByLine runs once.
+ * Every worker count is checked against the line-by-line result before it is measured.
+ * Run with -prof gc to see that allocation follows the vocabulary, not the file size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ArchiveAnalysisBenchmark {
+    
+    private static final String[] FILLER = {
+        "the", "of", "in", "and", "to", "a", "for", "with", "on", "is"
+    };
+    
+    private static final String[] SYLLABLES = {
+        "ca", "ta", "lo", "mer", "vin", "so", "tri", "pal", "den", "ro", "quel", "sta", "mi", "bor", "gen", "ñu"
+    };
+    
+    @Param({"2000000"})
+    int lines;
+    
+    @Param({"100000"})
+    int vocabulary;
+    
+    private Path file;
+    private String expected;
+    
+    /**
+     * Sharded analyzer with a fixed number of workers
+     */
+    @State(Scope.Benchmark)
+    public static class Workers {
+        @Param({"1", "2", "4", "8"})
+        int threads;
+        
+        HeadlineArchiveAnalyzer analyzer;
+        
+        @Setup(Level.Trial)
+        public void start(ArchiveAnalysisBenchmark archive) throws IOException {
+            analyzer = new HeadlineArchiveAnalyzer(threads, ConfigManager.getArchiveAnalysisChunkKb() * 1024);
+            if (!archive.expected.equals(summary(analyzer.analyze(archive.file)))) {
+                throw new IllegalStateException(threads + " workers disagree with the line-by-line counts");
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            analyzer.shutdown();
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void writeArchive() throws IOException {
+        file = Files.createTempFile("headlines", ".txt");
+        writeHeadlines(file, lines, vocabulary);
+        expected = summary(lineByLine());
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteArchive() throws IOException {
+        Files.deleteIfExists(file);
+    }
+    
+    @Benchmark
+    public WordFrequencyAnalyzer lineByLine() throws IOException {
+        WordFrequencyAnalyzer analyzer = new WordFrequencyAnalyzer();
+        try (Stream<String> headlines = Files.lines(file, StandardCharsets.UTF_8)) {
+            headlines.filter(line -> !line.isEmpty()).forEach(analyzer::add);
+        }
+        return analyzer;
+    }
+    
+    @Benchmark
+    public WordFrequencyAnalyzer analyzeArchive(Workers workers) throws IOException {
+        return workers.analyzer.analyze(file);
+    }
+    
+    static void writeHeadlines(Path file, int lines, int vocabulary) throws IOException {
+        // Word ranks follow roughly 1/rank, like real headline vocabularies
+        Random random = new Random(42);
+        double logVocabulary = Math.log(vocabulary);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                int words = 6 + random.nextInt(10);
+                for (int w = 0; w < words; w++) {
+                    if (w > 0) {
+                        writer.write(' ');
+                    }
+                    if (random.nextInt(3) == 0) {
+                        writer.write(FILLER[random.nextInt(FILLER.length)]);
+                    } else {
+                        int rank = (int) Math.exp(random.nextDouble() * logVocabulary);
+                        writer.write(word(Math.min(rank, vocabulary - 1), w == 0));
+                    }
+                }
+                writer.write(random.nextInt(4) == 0 ? "?\n" : ".\n");
+            }
+        }
+    }
+    
+    // Rank spelled as syllables, capitalized at the start of a headline
+    static String word(int rank, boolean capitalize) {
+        StringBuilder word = new StringBuilder();
+        int value = rank;
+        do {
+            word.append(SYLLABLES[value & 0xF]);
+            value >>>= 4;
+        } while (value > 0);
+        if (word.length() < 4) {
+            word.append("ra");
+        }
+        if (capitalize) {
+            word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+        }
+        return word.toString();
+    }
+    
+    private static String summary(WordFrequencyAnalyzer analyzer) {
+        return analyzer.getHeadlineCount() + "/" + analyzer.getTotalWords() + "/" + analyzer.getUniqueWords()
+            + "/" + analyzer.repeatedWords().hashCode() + "/" + analyzer.topK(20);
+    }
+}
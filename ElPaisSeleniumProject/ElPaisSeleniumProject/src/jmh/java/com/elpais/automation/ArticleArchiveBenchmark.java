@@ -0,0 +1,276 @@
+package com.elpais.automation;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for ArticleArchive against JSON lines holding the same articles
+ * Both formats are written once per trial. The scans count the words of every translated
+ * title: scanArchiveWords straight from the mapped bytes, scanArchiveDecoded after decoding
+ * every field (like for like with Gson), scanJsonLines after parsing each line. The trial
+ * fails if the archive and JSON word counts differ. Writes go to a fresh directory on every
+ * invocation; reopenArchive rebuilds the index of a separate copy, so the archive the
+ * reads use is never reopened under them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ArticleArchiveBenchmark {
+    
+    private static final String[] SECTIONS = {
+        "/opinion/", "/internacional/", "/espana/", "/economia/", "/sociedad/", "/cultura/"
+    };
+    
+    private static final long START = 1_700_000_000_000L;
+    private static final int SEGMENT_BYTES = 64 << 20;
+    
+    @Param({"200000"})
+    int articles;
+    
+    private final Gson gson = new Gson();
+    private List<Article> generated;
+    private Path directory;
+    private Path jsonFile;
+    private Path reopenDir;
+    private ArticleArchive archive;
+    private SplittableRandom random;
+    
+    /**
+     * One JSON line, with the fields the archive stores
+     */
+    private static class JsonArticle {
+        long timestamp;
+        String section;
+        String url;
+        String title;
+        String translatedTitle;
+        String content;
+        String imageUrl;
+        String imagePath;
+    }
+    
+    /**
+     * Empty directory for one write, deleted afterwards
+     */
+    @State(Scope.Thread)
+    public static class WriteTarget {
+        Path directory;
+        
+        @Setup(Level.Invocation)
+        public void create() throws IOException {
+            directory = Files.createTempDirectory("article-archive-write");
+        }
+        
+        @TearDown(Level.Invocation)
+        public void delete() throws IOException {
+            deleteDirectory(directory.resolve("archive"));
+            Files.deleteIfExists(directory.resolve("articles.jsonl"));
+            Files.deleteIfExists(directory);
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void writeBothFormats() throws IOException {
+        generated = generateArticles(articles);
+        directory = Files.createTempDirectory("article-archive");
+        jsonFile = directory.resolve("articles.jsonl");
+        reopenDir = directory.resolve("reopen");
+        
+        writeArchive(generated, reopenDir);
+        writeJsonLines(generated, jsonFile);
+        
+        Path archiveDir = directory.resolve("archive");
+        writeArchive(generated, archiveDir);
+        archive = new ArticleArchive(archiveDir, SEGMENT_BYTES);
+        random = new SplittableRandom(7);
+        
+        WordCounts fromArchive = scanArchiveWords();
+        WordCounts fromJson = scanJsonLines();
+        if (!sameCounts(fromArchive, fromJson)) {
+            throw new IllegalStateException("Archive and JSON lines word counts differ");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void deleteBothFormats() throws IOException {
+        archive.close();
+        deleteDirectory(directory.resolve("archive"));
+        deleteDirectory(reopenDir);
+        Files.deleteIfExists(jsonFile);
+        Files.deleteIfExists(directory);
+    }
+    
+    @Benchmark
+    public int writeArchive(WriteTarget target) throws IOException {
+        return writeArchive(generated, target.directory.resolve("archive"));
+    }
+    
+    @Benchmark
+    public long writeJsonLines(WriteTarget target) throws IOException {
+        Path file = target.directory.resolve("articles.jsonl");
+        writeJsonLines(generated, file);
+        return Files.size(file);
+    }
+    
+    @Benchmark
+    public WordCounts scanArchiveWords() {
+        WordCounts counts = new WordCounts();
+        archive.scan(record -> record.countWords(ArticleArchive.Field.TRANSLATED_TITLE, counts));
+        return counts;
+    }
+    
+    @Benchmark
+    public WordCounts scanArchiveDecoded() {
+        WordCounts counts = new WordCounts();
+        archive.scan(record -> TextAnalyzer.processHeader(record.toArticle().getTranslatedTitle(), counts));
+        return counts;
+    }
+    
+    @Benchmark
+    public WordCounts scanJsonLines() throws IOException {
+        WordCounts counts = new WordCounts();
+        try (BufferedReader reader = Files.newBufferedReader(jsonFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                TextAnalyzer.processHeader(gson.fromJson(line, JsonArticle.class).translatedTitle, counts);
+            }
+        }
+        return counts;
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Article readById() {
+        return archive.get(random.nextInt(articles));
+    }
+    
+    /**
+     * One section over the middle tenth of the archive's time span
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int scanSectionRange() {
+        long from = START + articles / 2 * 1000L;
+        long to = from + articles / 10 * 1000L;
+        int[] matches = new int[1];
+        archive.scan(SECTIONS[0], from, to, record -> matches[0]++);
+        return matches[0];
+    }
+    
+    @Benchmark
+    public int reopenArchive() throws IOException {
+        try (ArticleArchive reopened = new ArticleArchive(reopenDir, SEGMENT_BYTES)) {
+            return reopened.size();
+        }
+    }
+    
+    private static int writeArchive(List<Article> articles, Path archiveDir) throws IOException {
+        try (ArticleArchive archive = new ArticleArchive(archiveDir, SEGMENT_BYTES)) {
+            for (int i = 0; i < articles.size(); i++) {
+                archive.append(articles.get(i), START + i * 1000L);
+            }
+            return archive.size();
+        }
+    }
+    
+    private void writeJsonLines(List<Article> articles, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < articles.size(); i++) {
+                gson.toJson(toJson(articles.get(i), START + i * 1000L), writer);
+                writer.write('\n');
+            }
+        }
+    }
+    
+    private static List<Article> generateArticles(int count) {
+        Random random = new Random(42);
+        List<Article> articles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String section = SECTIONS[random.nextInt(SECTIONS.length)];
+            Article article = new Article(sentence(random, 8, true), sentence(random, 40, false),
+                "https://imagenes.elpais.com/resizer/" + i + ".jpg");
+            article.setSection(section);
+            article.setUrl("https://elpais.com" + section + "2024-01-01/articulo-" + i + ".html");
+            article.setTranslatedTitle(sentence(random, 8, true));
+            article.setImagePath("downloads/article_" + i + ".jpg");
+            articles.add(article);
+        }
+        return articles;
+    }
+    
+    // Words with ranks drawn roughly 1/rank, as in ArchiveAnalysisBenchmark
+    private static String sentence(Random random, int words, boolean title) {
+        StringBuilder sentence = new StringBuilder();
+        int length = words / 2 + random.nextInt(words);
+        double logVocabulary = Math.log(50_000);
+        for (int w = 0; w < length; w++) {
+            if (w > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(ArchiveAnalysisBenchmark.word((int) Math.exp(random.nextDouble() * logVocabulary), w == 0));
+        }
+        return sentence.append(title ? "" : ".").toString();
+    }
+    
+    private static JsonArticle toJson(Article article, long timestamp) {
+        JsonArticle json = new JsonArticle();
+        json.timestamp = timestamp;
+        json.section = article.getSection();
+        json.url = article.getUrl();
+        json.title = article.getTitle();
+        json.translatedTitle = article.getTranslatedTitle();
+        json.content = article.getContent();
+        json.imageUrl = article.getImageUrl();
+        json.imagePath = article.getImagePath();
+        return json;
+    }
+    
+    private static boolean sameCounts(WordCounts a, WordCounts b) {
+        if (a.size() != b.size() || a.total() != b.total()) {
+            return false;
+        }
+        boolean[] same = { true };
+        a.forEach((word, count) -> same[0] &= b.get(word) == count);
+        return same[0];
+    }
+    
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
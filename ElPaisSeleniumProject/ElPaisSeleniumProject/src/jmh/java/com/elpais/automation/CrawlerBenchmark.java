@@ -0,0 +1,186 @@
+package com.elpais.automation;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for SectionCrawler and ArticleBodyFetcher against a local fixture site
+ * The site serves generated multi-page sections and long article pages with a fixed
+ * response latency. crawl scales the HTTP fetchers with no politeness delay, politeCrawl
+ * holds 8 fetchers to two requests per host and a 20 ms gap, and fetchBodies follows every
+ * crawled article link with a varying number of threads. The crawler gets a fixed selector
+ * registry and no image pipeline or article index, so runs never touch cache/.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CrawlerBenchmark {
+    
+    @Param({"8"})
+    int sections;
+    
+    @Param({"5"})
+    int pagesPerSection;
+    
+    @Param({"20"})
+    int articlesPerPage;
+    
+    @Param({"50"})
+    long latencyMs;
+    
+    private ExecutorService serverThreads;
+    private HttpServer server;
+    private List<String> seedUrls;
+    
+    /**
+     * HTTP fetchers crawling without a politeness delay
+     */
+    @State(Scope.Benchmark)
+    public static class Fetchers {
+        @Param({"1", "2", "4", "8", "16"})
+        int fetchers;
+    }
+    
+    /**
+     * Crawled articles and a body fetcher with a fixed number of threads
+     */
+    @State(Scope.Benchmark)
+    public static class Bodies {
+        @Param({"1", "8", "32"})
+        int threads;
+        
+        List<Article> articles;
+        ArticleBodyFetcher fetcher;
+        
+        @Setup(Level.Trial)
+        public void crawl(CrawlerBenchmark site) {
+            articles = site.newCrawler(8, new HostThrottle(8, 0)).crawl();
+            fetcher = new ArticleBodyFetcher(threads, new HostThrottle(threads, 0),
+                ConfigManager.getBodyMaxChars(), ConfigManager.getBodyParagraphSelector());
+        }
+        
+        // A body left from the previous call would be counted as reused instead of fetched
+        @Setup(Level.Invocation)
+        public void clearBodies() {
+            for (Article article : articles) {
+                article.setBody(null);
+            }
+        }
+        
+        @TearDown(Level.Trial)
+        public void stop() {
+            fetcher.shutdown();
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void startSite() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = startFixtureSite(pagesPerSection, articlesPerPage, latencyMs, serverThreads);
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        
+        seedUrls = new ArrayList<>();
+        for (int s = 1; s <= sections; s++) {
+            seedUrls.add(baseUrl + "/section" + s + "/");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopSite() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+    
+    @Benchmark
+    public int crawl(Fetchers fetchers) {
+        return newCrawler(fetchers.fetchers, new HostThrottle(fetchers.fetchers, 0)).crawl(article -> { });
+    }
+    
+    @Benchmark
+    public int politeCrawl() {
+        return newCrawler(8, new HostThrottle(2, 20)).crawl(article -> { });
+    }
+    
+    @Benchmark
+    public int fetchBodies(Bodies bodies) {
+        return bodies.fetcher.fetchAll(bodies.articles);
+    }
+    
+    private SectionCrawler newCrawler(int fetchers, HostThrottle throttle) {
+        return new SectionCrawler(seedUrls, fetchers, throttle, pagesPerSection, articlesPerPage, false,
+            SelectorRegistry.fixed(), null, null);
+    }
+    
+    /**
+     * Serve /sectionN/ and /sectionN/?page=P, each page linking to the next with rel=next
+     */
+    private static HttpServer startFixtureSite(int pagesPerSection, int articlesPerPage, long latencyMs,
+                                               ExecutorService executor) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            String query = exchange.getRequestURI().getQuery();
+            int page = query != null && query.startsWith("page=") ? Integer.parseInt(query.substring(5)) : 1;
+            
+            StringBuilder html = new StringBuilder("<html><head><meta charset=\"utf-8\"></head><body>");
+            if (path.contains("articulo-")) {
+                html.append("<article><h1>").append(path).append("</h1>");
+                for (int p = 1; p <= 200; p++) {
+                    html.append("<p>Párrafo ").append(p).append(" de ").append(path)
+                        .append(": el Gobierno y la oposición debaten la reforma mientras los ciudadanos esperan una respuesta clara.</p>");
+                }
+                html.append("</article>");
+            }
+            for (int a = 1; a <= articlesPerPage && !path.contains("articulo-"); a++) {
+                html.append("<article><h2><a href=\"").append(path).append("articulo-").append(page).append('-').append(a)
+                    .append("/\">Titular número ").append(a).append(" de la página ").append(page).append(" en ").append(path)
+                    .append("</a></h2><p>Texto del artículo con suficiente contenido para superar el mínimo.</p></article>");
+            }
+            if (page < pagesPerSection && !path.contains("articulo-")) {
+                html.append("<a rel=\"next\" href=\"").append(path).append("?page=").append(page + 1).append("\">Siguiente</a>");
+            }
+            html.append("</body></html>");
+            
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            
+            byte[] body = html.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,171 @@
+package com.elpais.automation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmark comparing platform thread pools with virtual threads for blocking HTTP calls
+ * Every operation makes all requests to a local server that answers after a fixed latency,
+ * the same shape as a batch of translation requests or image downloads. Besides the time
+ * per batch, JMH reports the peak number of extra JVM threads and the failed requests as
+ * secondary results. Virtual thread trials fail their setup on runtimes older than Java 21;
+ * JMH reports that and carries on with the platform ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExecutionModeBenchmark {
+    
+    @Param({IoExecutors.MODE_PLATFORM, IoExecutors.MODE_VIRTUAL})
+    String mode;
+    
+    @Param({"16", "64", "256", "1024"})
+    int limit;
+    
+    @Param({"2000"})
+    int requests;
+    
+    @Param({"100"})
+    long latencyMs;
+    
+    private ScheduledExecutorService responder;
+    private HttpServer server;
+    private String url;
+    
+    /**
+     * Secondary results: most extra threads alive during one batch, and requests that failed
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long peakThreads;
+        public long failed;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            peakThreads = 0;
+            failed = 0;
+        }
+    }
+    
+    @Setup(Level.Trial)
+    public void startServer() throws IOException {
+        if (IoExecutors.MODE_VIRTUAL.equals(mode) && !IoExecutors.isVirtualThreadsSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21+, running on " + System.getProperty("java.version"));
+        }
+        
+        // Responses are delayed by a scheduler, so the server needs no thread per open request
+        responder = Executors.newScheduledThreadPool(2);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.createContext("/", exchange -> responder.schedule(() -> respond(exchange), latencyMs, TimeUnit.MILLISECONDS));
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/translate";
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopServer() {
+        if (server != null) {
+            server.stop(0);
+            responder.shutdownNow();
+        }
+    }
+    
+    @Benchmark
+    public int requestBatch(Counters counters) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        
+        int failed = run(mode, limit, requests, url);
+        
+        counters.peakThreads = Math.max(counters.peakThreads, threads.getPeakThreadCount() - baseline);
+        counters.failed += failed;
+        return failed;
+    }
+    
+    /**
+     * Make all requests through an executor of the given mode and wait for them
+     * @return number of failed requests
+     */
+    private static int run(String mode, int limit, int requests, String url) {
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = IoExecutors.newExecutor(mode, "bench-" + mode, limit);
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                String requestUrl = url + "?q=" + i;
+                futures.add(CompletableFuture.runAsync(() -> {
+                    if (!get(requestUrl)) {
+                        failed.incrementAndGet();
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } finally {
+            executor.shutdown();
+        }
+        return failed.get();
+    }
+    
+    private static boolean get(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(10000);
+            connection.setReadTimeout(30000);
+            try (InputStream in = connection.getInputStream()) {
+                in.readAllBytes();
+            }
+            return connection.getResponseCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static void respond(HttpExchange exchange) {
+        byte[] body = "{\"responseData\":{\"translatedText\":\"ok\"}}".getBytes(StandardCharsets.UTF_8);
+        try (OutputStream out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            out.write(body);
+        } catch (IOException e) {
+            // Client went away
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.elpais.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * HeadlineCorpus builds repeatable synthetic corpora of translated headlines for benchmarks
+ * Headlines mix frequent words, a long tail of generated ones and the things TextAnalyzer
+ * filters out: stop words, numbers, short acronyms, punctuation and accented letters.
+ * The same size and seed always give the same corpus, so results from different commits
+ * compare directly.
+ */
+final class HeadlineCorpus {
+    
+    static final long SEED = 20240611L;
+    
+    private static final String[] STOP_WORDS = {
+        "the", "a", "of", "in", "and", "to", "for", "with", "on", "is", "are", "by"
+    };
+    
+    private static final String[] COMMON_WORDS = {
+        "government", "spain", "europe", "crisis", "election", "housing", "climate",
+        "economy", "reform", "president", "budget", "democracy", "future", "war",
+        "opinion", "justice", "minister", "congress", "madrid", "catalonia", "energy"
+    };
+    
+    private static final String[] RARE_WORDS = {
+        "amnesty", "drought", "pensions", "tourism", "inflation", "migration", "judiciary",
+        "monarchy", "coalition", "referendum", "strike", "feminism", "tariffs", "vaccines",
+        "regional", "parliament", "literature", "football", "memory", "technology", "teachers",
+        "rental", "wildfires", "heatwave", "farmers", "artificial", "intelligence", "censorship"
+    };
+    
+    private static final String[] NOISE = {
+        "PSOE", "PP", "EU", "NATO", "2024", "G7", "COVID-19", "5%", "año", "Sánchez",
+        "¿why?", "—", "\"truth\"", "(again)", "it's", "U.S."
+    };
+    
+    private static final String[] SYLLABLES = {
+        "ca", "ta", "lo", "mer", "vin", "so", "tri", "pal", "den", "ro", "quel", "sta", "mi", "bor", "gen", "ux"
+    };
+    
+    // Distinct long-tail words, so the frequency map keeps growing with the corpus
+    private static final int TAIL_WORDS = 50_000;
+    
+    private HeadlineCorpus() {
+    }
+    
+    /**
+     * Generate a corpus of the given number of headlines
+     */
+    static List<String> headlines(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<String> headlines = new ArrayList<>(size);
+        StringBuilder headline = new StringBuilder(128);
+        for (int i = 0; i < size; i++) {
+            headline.setLength(0);
+            int words = 6 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    headline.append(' ');
+                }
+                headline.append(pickWord(random, w == 0));
+            }
+            headline.append(random.nextInt(4) == 0 ? "?" : ".");
+            headlines.add(headline.toString());
+        }
+        return headlines;
+    }
+    
+    /**
+     * Read a UTF-8 fixture from src/jmh/resources
+     */
+    static String resource(String path) {
+        try (InputStream in = HeadlineCorpus.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark fixture " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read benchmark fixture " + path, e);
+        }
+    }
+    
+    // Roughly: 30% stop words, 30% frequent words, 20% rare words, 10% noise, 10% long tail
+    private static String pickWord(SplittableRandom random, boolean first) {
+        int roll = random.nextInt(100);
+        String word;
+        if (roll < 30) {
+            word = STOP_WORDS[random.nextInt(STOP_WORDS.length)];
+        } else if (roll < 60) {
+            word = COMMON_WORDS[random.nextInt(COMMON_WORDS.length)];
+        } else if (roll < 80) {
+            word = RARE_WORDS[random.nextInt(RARE_WORDS.length)];
+        } else if (roll < 90) {
+            word = NOISE[random.nextInt(NOISE.length)];
+        } else {
+            word = tailWord(random.nextInt(TAIL_WORDS));
+        }
+        if (first || random.nextInt(10) == 0) {
+            word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        }
+        if (random.nextInt(12) == 0) {
+            word = word + ",";
+        }
+        return word;
+    }
+    
+    // Four base-16 digits of the id spelled as syllables, e.g. 0 -> "cacacaca"
+    private static String tailWord(int id) {
+        StringBuilder word = new StringBuilder(16);
+        for (int shift = 12; shift >= 0; shift -= 4) {
+            word.append(SYLLABLES[(id >>> shift) & 0xF]);
+        }
+        return word.toString();
+    }
+}
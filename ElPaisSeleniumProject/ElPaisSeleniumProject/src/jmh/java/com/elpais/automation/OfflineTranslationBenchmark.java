@@ -0,0 +1,91 @@
+package com.elpais.automation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for translating headlines with the shipped phrase table on one thread
+ * Headlines are built from the table's own keys, so "full" is covered word for word;
+ * "partial" replaces about one word in five with a name the table lacks, which costs a
+ * failed lookup for every phrase length tried at that word. Each operation is one headline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Thread)
+public class OfflineTranslationBenchmark {
+    
+    private static final int HEADLINES = 1000;
+    
+    private static final String[] UNKNOWN = {"Sánchez", "Feijóo", "Ayuso", "Puigdemont", "Bruselas", "Illa"};
+    
+    @Param({"full", "partial"})
+    String coverage;
+    
+    private OfflineTranslationProvider provider;
+    private String[] headlines;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void buildHeadlines() {
+        provider = new OfflineTranslationProvider(PhraseTable.getDefault(), 0);
+        
+        List<String> keys = new ArrayList<>();
+        for (String line : HeadlineCorpus.resource("/" + ConfigManager.getTranslationOfflineDictionary()).split("\n")) {
+            int tab = line.indexOf('\t');
+            if (tab > 0 && !line.startsWith("#")) {
+                keys.add(line.substring(0, tab));
+            }
+        }
+        
+        SplittableRandom random = new SplittableRandom(HeadlineCorpus.SEED);
+        headlines = new String[HEADLINES];
+        StringBuilder headline = new StringBuilder(128);
+        for (int i = 0; i < HEADLINES; i++) {
+            headline.setLength(0);
+            int words = 6 + random.nextInt(9);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    headline.append(' ');
+                }
+                if ("partial".equals(coverage) && random.nextInt(5) == 0) {
+                    headline.append(UNKNOWN[random.nextInt(UNKNOWN.length)]);
+                } else {
+                    headline.append(keys.get(random.nextInt(keys.size())));
+                }
+            }
+            headline.setCharAt(0, Character.toUpperCase(headline.charAt(0)));
+            headlines[i] = headline.append('.').toString();
+        }
+        
+        if (provider.translate(headlines[0], "es|en") == null) {
+            throw new IllegalStateException("Phrase table translated nothing");
+        }
+    }
+    
+    @Benchmark
+    public String translateHeadline() {
+        String headline = headlines[next];
+        next = next + 1 == headlines.length ? 0 : next + 1;
+        return provider.translate(headline, "es|en");
+    }
+}
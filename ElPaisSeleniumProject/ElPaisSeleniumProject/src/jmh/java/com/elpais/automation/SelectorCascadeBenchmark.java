@@ -0,0 +1,68 @@
+package com.elpais.automation;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for parsing saved Opinion pages and running the selector cascade over them
+ * "opinion" uses the current markup, where the first selector of each role matches;
+ * "legacy" uses the older articulo-item markup, which sends every role further down its
+ * cascade. Extraction runs without the image pipeline or article index, so only parsing
+ * and selector work is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SelectorCascadeBenchmark {
+    
+    private static final String PAGE_URL = "https://elpais.com/opinion/";
+    
+    @Param({"opinion", "legacy"})
+    String page;
+    
+    private String html;
+    private Document document;
+    
+    @Setup(Level.Trial)
+    public void loadPage() {
+        html = HeadlineCorpus.resource("/pages/" + page + ".html");
+        document = Jsoup.parse(html, PAGE_URL);
+        if (extract().isEmpty()) {
+            throw new IllegalStateException("No articles extracted from saved page " + page);
+        }
+    }
+    
+    @Benchmark
+    public Document parsePage() {
+        return Jsoup.parse(html, PAGE_URL);
+    }
+    
+    @Benchmark
+    public List<Article> extractArticles() {
+        return extract();
+    }
+    
+    private List<Article> extract() {
+        // Fixed order, so every run walks the same cascade whatever the stats file holds
+        return new HttpArticleScraper(PAGE_URL, document, SelectorRegistry.fixed(), null, null)
+            .extractArticles(Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,70 @@
+package com.elpais.automation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for TextAnalyzer over synthetic headline corpora of 10 to 1,000,000 entries
+ * analyzeRepeatedWords and countWords are measured per corpus; processHeader per headline,
+ * walking the corpus so larger sizes also show the cost of a working set that no longer fits
+ * in cache.
+ * Run with -prof gc to see bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class TextAnalyzerBenchmark {
+    
+    @Param({"10", "1000", "100000", "1000000"})
+    int corpusSize;
+    
+    private List<String> headlines;
+    private final WordCounts headerWords = new WordCounts();
+    private int nextHeadline;
+    
+    @Setup(Level.Trial)
+    public void buildCorpus() {
+        headlines = HeadlineCorpus.headlines(corpusSize);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, Integer> analyzeRepeatedWords() {
+        return TextAnalyzer.countRepeatedWords(headlines);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public WordCounts countWords() {
+        return TextAnalyzer.countWords(headlines);
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long processHeader() {
+        String headline = headlines.get(nextHeadline);
+        nextHeadline = nextHeadline + 1 == headlines.size() ? 0 : nextHeadline + 1;
+        
+        // Per-headline table, cleared after each one as the streaming analyzers do
+        TextAnalyzer.processHeader(headline, headerWords);
+        long words = headerWords.total();
+        headerWords.clear();
+        return words;
+    }
+}
@@ -0,0 +1,49 @@
+package com.elpais.automation;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for parsing MyMemory responses saved in the shape the live API returns
+ * "short" is a single headline, "long" a full opinion headline with its standfirst, and
+ * "matches" the same headline with the translation-memory matches the API adds when it
+ * has them, which is most of the bytes the parser walks past.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TranslationParseBenchmark {
+    
+    @Param({"short", "long", "matches"})
+    String payload;
+    
+    private String response;
+    
+    @Setup(Level.Trial)
+    public void loadPayload() {
+        response = HeadlineCorpus.resource("/payloads/mymemory-" + payload + ".json");
+        if (MyMemoryTranslationProvider.parseTranslationResponse(response) == null) {
+            throw new IllegalStateException("Payload " + payload + " has no translatedText");
+        }
+    }
+    
+    @Benchmark
+    public String parseTranslationResponse() {
+        return MyMemoryTranslationProvider.parseTranslationResponse(response);
+    }
+}
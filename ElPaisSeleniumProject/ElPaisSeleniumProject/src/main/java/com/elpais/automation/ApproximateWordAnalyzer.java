@@ -0,0 +1,205 @@
+package com.elpais.automation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ApproximateWordAnalyzer counts words from an unbounded headline stream in fixed memory
+ * Word frequencies go into a Count-Min Sketch and distinct words into a HyperLogLog.
+ * The number of repeated words comes from a distinct sample: exact counts for the words
+ * whose hash ends in sampleLevel zero bits, with the level raised (halving the sample)
+ * whenever the sample outgrows its capacity. Sketch overcounts never reach the sample, so
+ * words seen once or twice are not pushed over the threshold. The repeated-words list is
+ * a bounded set of heavy hitters: candidates are kept by estimated count and pruned back
+ * to topWords whenever the set doubles. Memory is set by epsilon, delta, the unique-word
+ * error and topWords, never by the size of the stream.
+ */
+public class ApproximateWordAnalyzer implements WordStatistics {
+    
+    private static final ThreadLocal<WordCounts> HEADER_WORDS = ThreadLocal.withInitial(WordCounts::new);
+    
+    private final CountMinSketch frequencies;
+    private final HyperLogLog uniqueWords;
+    private final Map<String, Integer> sample = new HashMap<>();
+    private final int sampleCapacity;
+    private int sampleLevel;
+    private final int topWords;
+    private final Map<String, Long> heavyHitters = new HashMap<>();
+    private long admissionFloor = WordFrequencyAnalyzer.REPEATED_THRESHOLD;
+    private long headlines;
+    
+    /**
+     * @param epsilon word counts overestimate by at most epsilon x total words...
+     * @param delta ...with probability 1 - delta
+     * @param uniqueError relative standard error of the unique word count; the repeated
+     *                    word count samples up to 1 / uniqueError^2 words
+     * @param topWords number of repeated words reported
+     */
+    public ApproximateWordAnalyzer(double epsilon, double delta, double uniqueError, int topWords) {
+        this.frequencies = new CountMinSketch(epsilon, delta);
+        this.uniqueWords = new HyperLogLog(HyperLogLog.precisionFor(uniqueError));
+        this.sampleCapacity = (int) Math.min(1 << 20, Math.ceil(1 / Math.pow(Math.max(1e-3, uniqueError), 2)));
+        this.topWords = Math.max(1, topWords);
+    }
+    
+    @Override
+    public void add(String headline) {
+        if (headline == null) {
+            return;
+        }
+        // Tokenize outside the lock; only the sketch updates are serialized
+        WordCounts headerWords = HEADER_WORDS.get();
+        TextAnalyzer.processHeader(headline, headerWords);
+        synchronized (this) {
+            headerWords.forEach(this::count);
+            headlines++;
+        }
+        headerWords.clear();
+    }
+    
+    @Override
+    public synchronized long getHeadlineCount() {
+        return headlines;
+    }
+    
+    @Override
+    public synchronized long getTotalWords() {
+        return frequencies.getTotal();
+    }
+    
+    @Override
+    public synchronized long getUniqueWords() {
+        return uniqueWords.estimate();
+    }
+    
+    /**
+     * Repeated words in the sample, scaled up by the sampling rate
+     */
+    @Override
+    public synchronized long getRepeatedWordCount() {
+        return sampledRepeatedWords() << sampleLevel;
+    }
+    
+    /**
+     * Relative standard error of getRepeatedWordCount(); 0 while every word is sampled
+     */
+    public synchronized double getRepeatedWordsError() {
+        if (sampleLevel == 0) {
+            return 0;
+        }
+        double rate = 1.0 / (1L << sampleLevel);
+        return Math.sqrt((1 - rate) / Math.max(1, sampledRepeatedWords()));
+    }
+    
+    /**
+     * Estimated count of one word; never lower than the true count
+     */
+    public synchronized long estimate(String word) {
+        return frequencies.estimate(CountMinSketch.hash(word));
+    }
+    
+    /**
+     * The topWords most frequent repeated words, with estimated counts
+     */
+    @Override
+    public synchronized Map<String, Integer> repeatedWords() {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : rankHeavyHitters()) {
+            if (result.size() == topWords) {
+                break;
+            }
+            result.put(entry.getKey(), (int) Math.min(Integer.MAX_VALUE, entry.getValue()));
+        }
+        return result;
+    }
+    
+    /**
+     * Sketch sizes plus an estimate of the sampled words' heap footprint
+     */
+    public synchronized long getMemoryBytes() {
+        long sampleBytes = 0;
+        for (String word : sample.keySet()) {
+            // String, its byte array, the map node and the boxed count
+            sampleBytes += 88 + word.length();
+        }
+        return frequencies.getMemoryBytes() + uniqueWords.getMemoryBytes() + sampleBytes;
+    }
+    
+    public double getUniqueWordsError() {
+        return uniqueWords.getStandardError();
+    }
+    
+    private void count(String word, int count) {
+        long hash = CountMinSketch.hash(word);
+        long estimate = frequencies.add(hash, count);
+        uniqueWords.add(hash);
+        if ((hash & sampleMask()) == 0) {
+            sample.merge(word, count, Integer::sum);
+            if (sample.size() > sampleCapacity) {
+                raiseSampleLevel();
+            }
+        }
+        if (estimate <= WordFrequencyAnalyzer.REPEATED_THRESHOLD) {
+            return;
+        }
+        
+        if (heavyHitters.containsKey(word) || estimate > admissionFloor) {
+            heavyHitters.put(word, estimate);
+            if (heavyHitters.size() >= topWords * 2) {
+                prune();
+            }
+        }
+    }
+    
+    // Halve the sampling rate until the sample fits; kept words still have exact counts
+    private void raiseSampleLevel() {
+        while (sample.size() > sampleCapacity && sampleLevel < 63) {
+            sampleLevel++;
+            long mask = sampleMask();
+            for (Iterator<String> words = sample.keySet().iterator(); words.hasNext(); ) {
+                if ((CountMinSketch.hash(words.next()) & mask) != 0) {
+                    words.remove();
+                }
+            }
+        }
+    }
+    
+    private long sampleMask() {
+        return (1L << sampleLevel) - 1;
+    }
+    
+    private long sampledRepeatedWords() {
+        long repeated = 0;
+        for (int count : sample.values()) {
+            if (count > WordFrequencyAnalyzer.REPEATED_THRESHOLD) {
+                repeated++;
+            }
+        }
+        return repeated;
+    }
+    
+    // Keep the best topWords candidates; newcomers must then beat the weakest of them
+    private void prune() {
+        List<Map.Entry<String, Long>> ranked = rankHeavyHitters();
+        heavyHitters.clear();
+        for (Map.Entry<String, Long> entry : ranked.subList(0, Math.min(topWords, ranked.size()))) {
+            heavyHitters.put(entry.getKey(), entry.getValue());
+        }
+        admissionFloor = Math.max(WordFrequencyAnalyzer.REPEATED_THRESHOLD, ranked.get(heavyHitters.size() - 1).getValue());
+    }
+    
+    // Candidates with fresh estimates, most frequent first and alphabetical among equals
+    private List<Map.Entry<String, Long>> rankHeavyHitters() {
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(heavyHitters.size());
+        for (String word : heavyHitters.keySet()) {
+            ranked.add(Map.entry(word, frequencies.estimate(CountMinSketch.hash(word))));
+        }
+        ranked.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        return ranked;
+    }
+}
@@ -1,5 +1,7 @@
 package com.elpais.automation;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Article class represents a news article from El Pais
  */
@@ -10,7 +12,11 @@ public class Article {
     private String content;         // Article content in Spanish
     private String translatedTitle; // Article title translated to English
     private String imageUrl;        // URL of the article's cover image
+    private String url;             // Link to the full article
+    private CompressedText body;    // Full article text, compressed and size-bounded
     private String imagePath;       // Local path where image is saved
+    private String section;         // Section the article was listed in, e.g. "/opinion/"
+    private CompletableFuture<String> imageDownload; // Completes with imagePath when the download finishes
     
     // Default constructor (creates empty article)
     public Article() {
@@ -40,10 +46,31 @@ public class Article {
         return imageUrl;
     }
     
+    public String getUrl() {
+        return url;
+    }
+    
+    public CompressedText getBody() {
+        return body;
+    }
+    
+    // Full article text, or the content preview if the body was not fetched
+    public String getBodyText() {
+        return body != null ? body.toString() : content;
+    }
+    
     public String getImagePath() {
         return imagePath;
     }
     
+    public String getSection() {
+        return section;
+    }
+    
+    public CompletableFuture<String> getImageDownload() {
+        return imageDownload;
+    }
+    
     // Setter methods (to set values)
     public void setTitle(String title) {
         this.title = title;
@@ -61,10 +88,26 @@ public class Article {
         this.imageUrl = imageUrl;
     }
     
+    public void setUrl(String url) {
+        this.url = url;
+    }
+    
+    public void setBody(CompressedText body) {
+        this.body = body;
+    }
+    
     public void setImagePath(String imagePath) {
         this.imagePath = imagePath;
     }
     
+    public void setSection(String section) {
+        this.section = section;
+    }
+    
+    public void setImageDownload(CompletableFuture<String> imageDownload) {
+        this.imageDownload = imageDownload;
+    }
+    
     // toString method for easy printing
     @Override
     public String toString() {
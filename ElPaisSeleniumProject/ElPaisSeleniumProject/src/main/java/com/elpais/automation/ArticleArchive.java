@@ -0,0 +1,454 @@
+package com.elpais.automation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * ArticleArchive keeps processed articles in append-only, memory-mapped segment files
+ * A record holds the time it was archived plus the section, URL, title, translation,
+ * content and image URL/path as length-prefixed UTF-8. The record length is written
+ * after the fields, so a record cut short by a crash reads as the end of its segment.
+ * Record offsets are indexed in memory by id, time and section; the index is rebuilt
+ * from the record headers when the archive is opened. Scans hand out a Record view over
+ * the mapped bytes, so fields are only decoded when asked for and words can be counted
+ * straight from the mapping.
+ */
+public class ArticleArchive implements Closeable {
+    
+    /**
+     * Variable-length fields, in the order they are stored
+     */
+    public enum Field { SECTION, URL, TITLE, TRANSLATED_TITLE, CONTENT, IMAGE_URL, IMAGE_PATH }
+    
+    private static final Field[] FIELDS = Field.values();
+    private static final int SEGMENT_MAGIC = 0x41524348; // "ARCH"
+    private static final int SEGMENT_VERSION = 1;
+    private static final int SEGMENT_HEADER_BYTES = 2 * Integer.BYTES;
+    // Length prefix and timestamp, followed by the fields
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES;
+    private static final int NULL_LENGTH = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+    
+    private final Path directory;
+    private final int segmentBytes;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+    private int writeOffset;
+    private boolean closed;
+    
+    // Segment index << 32 | offset, and archive time, by record id
+    private long[] positions = new long[1024];
+    private long[] timestamps = new long[1024];
+    private int count;
+    private final IdList byTime = new IdList();
+    private final Map<String, IdList> bySection = new HashMap<>();
+    
+    public ArticleArchive() throws IOException {
+        this(Paths.get(ConfigManager.getArticleArchiveDirectory()), ConfigManager.getArticleArchiveSegmentMb() << 20);
+    }
+    
+    /**
+     * Open the archive in this directory, creating it if needed
+     * @param segmentBytes size of each segment file; a record must fit in one segment
+     */
+    public ArticleArchive(Path directory, int segmentBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        Files.createDirectories(directory);
+        
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        for (int i = 0; i < files.size() - 1; i++) {
+            try (FileChannel channel = FileChannel.open(files.get(i), StandardOpenOption.READ)) {
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                segments.add(segment);
+                indexSegment(segments.size() - 1, segment, segment.limit());
+            }
+        }
+        if (files.isEmpty()) {
+            openSegment(0);
+        } else {
+            Path last = files.get(files.size() - 1);
+            activeChannel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long capacity = Math.max(activeChannel.size(), this.segmentBytes);
+            active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            if (active.getInt(0) == 0) {
+                // Created but never written to before the last run stopped
+                active.putInt(0, SEGMENT_MAGIC);
+                active.putInt(Integer.BYTES, SEGMENT_VERSION);
+            }
+            segments.add(active);
+            writeOffset = indexSegment(segments.size() - 1, active, active.capacity());
+        }
+    }
+    
+    /**
+     * Append an article, stamped with the current time
+     * @return the id of the new record
+     */
+    public int append(Article article) throws IOException {
+        return append(article, System.currentTimeMillis());
+    }
+    
+    public synchronized int append(Article article, long timestamp) throws IOException {
+        checkOpen();
+        byte[][] fields = new byte[FIELDS.length][];
+        fields[Field.SECTION.ordinal()] = utf8(article.getSection());
+        fields[Field.URL.ordinal()] = utf8(article.getUrl());
+        fields[Field.TITLE.ordinal()] = utf8(article.getTitle());
+        fields[Field.TRANSLATED_TITLE.ordinal()] = utf8(article.getTranslatedTitle());
+        fields[Field.CONTENT.ordinal()] = utf8(article.getContent());
+        fields[Field.IMAGE_URL.ordinal()] = utf8(article.getImageUrl());
+        fields[Field.IMAGE_PATH.ordinal()] = utf8(article.getImagePath());
+        
+        int length = Long.BYTES;
+        for (byte[] field : fields) {
+            length += Integer.BYTES + (field != null ? field.length : 0);
+        }
+        if (SEGMENT_HEADER_BYTES + Integer.BYTES + length > segmentBytes) {
+            throw new IllegalArgumentException("Article of " + length + " bytes does not fit in a "
+                + segmentBytes + "-byte archive segment");
+        }
+        if (writeOffset + Integer.BYTES + length > active.capacity()) {
+            sealActiveSegment();
+            openSegment(segments.size());
+        }
+        
+        int offset = writeOffset;
+        int position = offset + Integer.BYTES;
+        active.putLong(position, timestamp);
+        position += Long.BYTES;
+        for (byte[] field : fields) {
+            active.putInt(position, field != null ? field.length : NULL_LENGTH);
+            position += Integer.BYTES;
+            if (field != null) {
+                active.position(position);
+                active.put(field);
+                position += field.length;
+            }
+        }
+        // The length goes in last: until then the record reads as the end of the segment
+        active.putInt(offset, length);
+        writeOffset = position;
+        
+        return index(segments.size() - 1, offset, timestamp, article.getSection());
+    }
+    
+    /**
+     * Append every article with the same timestamp
+     */
+    public void appendAll(List<Article> articles) {
+        long now = System.currentTimeMillis();
+        int written = 0;
+        for (Article article : articles) {
+            try {
+                append(article, now);
+                written++;
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Error archiving article: " + e.getMessage());
+            }
+        }
+        System.out.println("✓ Article archive updated (" + written + " articles appended, "
+            + size() + " archived)");
+    }
+    
+    public synchronized int size() {
+        return count;
+    }
+    
+    /**
+     * Bytes used by records and segment headers
+     */
+    public synchronized long getDataBytes() {
+        long bytes = writeOffset;
+        for (int i = 0; i < segments.size() - 1; i++) {
+            bytes += segments.get(i).limit();
+        }
+        return bytes;
+    }
+    
+    public synchronized List<String> getSections() {
+        List<String> sections = new ArrayList<>(bySection.keySet());
+        Collections.sort(sections);
+        return sections;
+    }
+    
+    /**
+     * Decode one record, or null if there is no record with this id
+     */
+    public Article get(int id) {
+        Record record = new Record(snapshotSegments());
+        synchronized (this) {
+            if (id < 0 || id >= count) {
+                return null;
+            }
+            record.moveTo(id, positions[id]);
+        }
+        return record.toArticle();
+    }
+    
+    /**
+     * Visit every record in id order
+     * The Record is reused and only valid during the call; copy out what you keep.
+     */
+    public void scan(Consumer<Record> visitor) {
+        long[] snapshot;
+        int size;
+        Record record;
+        synchronized (this) {
+            snapshot = positions;
+            size = count;
+            record = new Record(snapshotSegments());
+        }
+        for (int id = 0; id < size; id++) {
+            record.moveTo(id, snapshot[id]);
+            visitor.accept(record);
+        }
+    }
+    
+    /**
+     * Visit records archived in [from, to), in time order, optionally from one section only
+     * @param section section to match, or null for every section
+     */
+    public void scan(String section, long from, long to, Consumer<Record> visitor) {
+        int[] ids;
+        long[] snapshot;
+        Record record;
+        synchronized (this) {
+            if (section != null) {
+                IdList sectionIds = bySection.get(section);
+                ids = sectionIds != null ? sectionIds.inRange(timestamps, from, to) : new int[0];
+            } else {
+                ids = byTime.inRange(timestamps, from, to);
+            }
+            snapshot = positions;
+            record = new Record(snapshotSegments());
+        }
+        for (int id : ids) {
+            record.moveTo(id, snapshot[id]);
+            visitor.accept(record);
+        }
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            sealActiveSegment();
+        }
+    }
+    
+    /**
+     * A view of one record in a mapped segment
+     */
+    public static final class Record {
+        
+        private final ByteBuffer[] segments;
+        private ByteBuffer buffer;
+        private int offset;
+        private int id;
+        
+        private Record(ByteBuffer[] segments) {
+            this.segments = segments;
+        }
+        
+        private void moveTo(int id, long position) {
+            this.id = id;
+            this.buffer = segments[(int) (position >>> 32)];
+            this.offset = (int) position;
+        }
+        
+        public int getId() {
+            return id;
+        }
+        
+        public long getTimestamp() {
+            return buffer.getLong(offset + Integer.BYTES);
+        }
+        
+        public String get(Field field) {
+            int position = fieldPosition(field);
+            int length = buffer.getInt(position);
+            if (length == NULL_LENGTH) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + Integer.BYTES);
+            view.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        
+        /**
+         * Count the words of a field straight from the mapped bytes
+         */
+        public void countWords(Field field, WordCounts wordCounts) {
+            int position = fieldPosition(field);
+            int length = buffer.getInt(position);
+            if (length > 0) {
+                TextAnalyzer.processBytes(buffer, position + Integer.BYTES, position + Integer.BYTES + length, wordCounts);
+            }
+        }
+        
+        public Article toArticle() {
+            Article article = new Article(get(Field.TITLE), get(Field.CONTENT), get(Field.IMAGE_URL));
+            article.setSection(get(Field.SECTION));
+            article.setUrl(get(Field.URL));
+            article.setTranslatedTitle(get(Field.TRANSLATED_TITLE));
+            article.setImagePath(get(Field.IMAGE_PATH));
+            return article;
+        }
+        
+        // Skip the length-prefixed fields stored before this one
+        private int fieldPosition(Field field) {
+            int position = offset + RECORD_HEADER_BYTES;
+            for (int i = 0; i < field.ordinal(); i++) {
+                position += Integer.BYTES + Math.max(0, buffer.getInt(position));
+            }
+            return position;
+        }
+    }
+    
+    /**
+     * Record ids in a growable array, kept sorted by timestamp
+     */
+    private static class IdList {
+        
+        private int[] ids = new int[16];
+        private int size;
+        
+        // Archive times rarely go backwards, so the insertion point is almost always the end
+        void insert(int id, long[] timestamps) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int index = size;
+            while (index > 0 && timestamps[ids[index - 1]] > timestamps[id]) {
+                index--;
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+        
+        int[] inRange(long[] timestamps, long from, long to) {
+            int start = firstAtOrAfter(timestamps, from);
+            int end = Math.max(start, firstAtOrAfter(timestamps, to));
+            return Arrays.copyOfRange(ids, start, end);
+        }
+        
+        private int firstAtOrAfter(long[] timestamps, long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (timestamps[ids[mid]] < time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+    
+    /**
+     * Index every complete record of a segment
+     * @return offset just past the last complete record
+     */
+    private int indexSegment(int segmentIndex, ByteBuffer segment, int limit) throws IOException {
+        if (limit < SEGMENT_HEADER_BYTES || segment.getInt(0) != SEGMENT_MAGIC) {
+            throw new IOException("Not an article archive segment: " + segmentPath(segmentIndex));
+        }
+        if (segment.getInt(Integer.BYTES) != SEGMENT_VERSION) {
+            throw new IOException("Unsupported archive segment version " + segment.getInt(Integer.BYTES));
+        }
+        
+        Record record = new Record(new ByteBuffer[] { segment });
+        int offset = SEGMENT_HEADER_BYTES;
+        while (offset + Integer.BYTES <= limit) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + Integer.BYTES + length > limit) {
+                break;
+            }
+            record.moveTo(count, offset);
+            index(segmentIndex, offset, record.getTimestamp(), record.get(Field.SECTION));
+            offset += Integer.BYTES + length;
+        }
+        return offset;
+    }
+    
+    private int index(int segmentIndex, int offset, long timestamp, String section) {
+        if (count == positions.length) {
+            positions = Arrays.copyOf(positions, count * 2);
+            timestamps = Arrays.copyOf(timestamps, count * 2);
+        }
+        int id = count;
+        positions[id] = (long) segmentIndex << 32 | offset;
+        timestamps[id] = timestamp;
+        count++;
+        byTime.insert(id, timestamps);
+        bySection.computeIfAbsent(section != null ? section : "", key -> new IdList()).insert(id, timestamps);
+        return id;
+    }
+    
+    private void openSegment(int segmentIndex) throws IOException {
+        activeChannel = FileChannel.open(segmentPath(segmentIndex), StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        active.putInt(0, SEGMENT_MAGIC);
+        active.putInt(Integer.BYTES, SEGMENT_VERSION);
+        segments.add(active);
+        writeOffset = SEGMENT_HEADER_BYTES;
+    }
+    
+    // Trim the file to its records and swap in a read-only mapping of just those bytes
+    private void sealActiveSegment() throws IOException {
+        int segmentIndex = segments.size() - 1;
+        activeChannel.truncate(writeOffset);
+        segments.set(segmentIndex, activeChannel.map(FileChannel.MapMode.READ_ONLY, 0, writeOffset));
+        activeChannel.close();
+    }
+    
+    private ByteBuffer[] snapshotSegments() {
+        synchronized (this) {
+            checkOpen();
+            return segments.toArray(new ByteBuffer[0]);
+        }
+    }
+    
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Article archive is closed");
+        }
+    }
+    
+    private Path segmentPath(int segmentIndex) {
+        return directory.resolve(String.format("%s%05d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+    }
+    
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
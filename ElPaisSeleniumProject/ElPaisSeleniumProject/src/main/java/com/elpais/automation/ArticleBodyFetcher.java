@@ -0,0 +1,191 @@
+package com.elpais.automation;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ArticleBodyFetcher follows each article's link and stores its full text
+ * Pages are fetched in parallel over the pooled HTTP client and streamed through
+ * jsoup's StreamParser, so paragraphs are read as they arrive and dropped from the
+ * tree right away. Once body.max.chars characters have been collected the rest of the
+ * download is aborted, and the text is kept compressed on the article.
+ */
+public class ArticleBodyFetcher {
+    
+    private final ExecutorService executor;
+    private final HostThrottle throttle;
+    private final int maxChars;
+    private final String paragraphSelector;
+    
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger reused = new AtomicInteger();
+    private final AtomicInteger truncated = new AtomicInteger();
+    private final AtomicLong storedChars = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    
+    public ArticleBodyFetcher() {
+        this(ConfigManager.getBodyFetchThreads(),
+            new HostThrottle(ConfigManager.getCrawlerMaxPerHost(), ConfigManager.getCrawlerHostDelayMs()),
+            ConfigManager.getBodyMaxChars(),
+            ConfigManager.getBodyParagraphSelector());
+    }
+    
+    public ArticleBodyFetcher(int threads, HostThrottle throttle, int maxChars, String paragraphSelector) {
+        this.executor = IoExecutors.newExecutor("body-fetch", threads);
+        this.throttle = throttle;
+        this.maxChars = maxChars;
+        this.paragraphSelector = paragraphSelector;
+    }
+    
+    /**
+     * Fetch the article's body in the background
+     * The future completes with true once the body is set, or false if the article
+     * has no link or the fetch failed.
+     */
+    public CompletableFuture<Boolean> submit(Article article) {
+        if (article.getUrl() == null || article.getUrl().isEmpty()) {
+            return CompletableFuture.completedFuture(false);
+        }
+        if (article.getBody() != null) {
+            // Restored from the article index
+            reused.incrementAndGet();
+            return CompletableFuture.completedFuture(true);
+        }
+        
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                CompressedText body = fetchBody(article.getUrl());
+                if (body.length() == 0) {
+                    failed.incrementAndGet();
+                    return false;
+                }
+                article.setBody(body);
+                fetched.incrementAndGet();
+                storedChars.addAndGet(body.length());
+                storedBytes.addAndGet(body.compressedSize());
+                return true;
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                System.out.println("Error fetching article body from " + article.getUrl() + ": " + e.getMessage());
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }, executor);
+    }
+    
+    /**
+     * Fetch the bodies of all articles and wait for them
+     * @return number of bodies fetched
+     */
+    public int fetchAll(List<Article> articles) {
+        long startTime = System.currentTimeMillis();
+        int before = fetched.get();
+        int reusedBefore = reused.get();
+        
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>();
+        for (Article article : articles) {
+            futures.add(submit(article));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        
+        int count = fetched.get() - before;
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        System.out.printf("✓ Fetched %d of %d article bodies in %d ms (%.1f bodies/sec, %d already stored)%n",
+            count, articles.size(), elapsed, count * 1000.0 / elapsed, reused.get() - reusedBefore);
+        return count;
+    }
+    
+    /**
+     * Download the page and collect paragraph text until maxChars is reached
+     */
+    CompressedText fetchBody(String url) throws IOException, InterruptedException {
+        HttpGet request = new HttpGet(url);
+        request.setHeader("User-Agent", HttpArticleScraper.USER_AGENT);
+        request.setHeader("Accept-Language", "es-ES,es");
+        
+        throttle.acquire(url);
+        try (CloseableHttpResponse response = HttpArticleScraper.getHttpClient().execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (status >= 400 || entity == null) {
+                throw new IOException("HTTP " + status);
+            }
+            
+            Charset charset = ContentType.getOrDefault(entity).getCharset();
+            StringBuilder text = new StringBuilder();
+            try (Reader reader = new InputStreamReader(entity.getContent(),
+                    charset != null ? charset : StandardCharsets.UTF_8);
+                 StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(reader, url)) {
+                
+                Element paragraph;
+                while (text.length() < maxChars && (paragraph = streamer.selectNext(paragraphSelector)) != null) {
+                    String paragraphText = paragraph.text().trim();
+                    if (!paragraphText.isEmpty()) {
+                        if (text.length() > 0) {
+                            text.append('\n');
+                        }
+                        text.append(paragraphText);
+                    }
+                    // Drop the parsed paragraph so the tree never holds the whole page
+                    paragraph.remove();
+                }
+                
+                // Closing the stream would read the rest of the page to reuse the connection;
+                // aborting drops the connection instead, so the download stops here
+                if (text.length() >= maxChars) {
+                    request.abort();
+                    truncated.incrementAndGet();
+                }
+            } catch (IOException e) {
+                // Closing a stream whose request was aborted may fail; the text is already read
+                if (!request.isAborted()) {
+                    throw e;
+                }
+            }
+            return CompressedText.of(text.toString(), maxChars);
+        } finally {
+            throttle.release(url);
+        }
+    }
+    
+    /**
+     * Print how many bodies were fetched and how much heap they occupy
+     */
+    public void printStatistics() {
+        long chars = storedChars.get();
+        long bytes = storedBytes.get();
+        System.out.println("\n=== ARTICLE BODY STATISTICS ===");
+        System.out.println("Bodies fetched: " + fetched.get() + " (" + failed.get() + " failed, "
+            + reused.get() + " reused, " + truncated.get() + " cut off at " + maxChars + " chars)");
+        System.out.printf("Stored text: %d chars in %d compressed bytes (%.1f%% of UTF-16 size)%n",
+            chars, bytes, chars == 0 ? 0.0 : bytes * 100.0 / (chars * 2));
+        System.out.println("================================");
+    }
+    
+    /**
+     * Release the worker threads
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,357 @@
+package com.elpais.automation;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ArticleIndex remembers articles processed by earlier runs
+ * Articles are keyed by canonical URL (or by title when they have no link) and stored
+ * as one JSON file each, with a Bloom filter in front so new articles never touch disk.
+ * Unchanged articles get their stored translation, image path and body back, so only
+ * new or changed ones are downloaded and translated again.
+ */
+public class ArticleIndex {
+    
+    /**
+     * How a scraped article compares with the index
+     */
+    public enum Status { NEW, UNCHANGED, CHANGED }
+    
+    /**
+     * Stored form of one processed article
+     */
+    static class Entry {
+        String url;
+        String section;
+        String titleHash;
+        String title;
+        String content;
+        String translatedTitle;
+        String imageUrl;
+        String imagePath;
+        String body;
+        long firstSeen;
+        long lastSeen;
+    }
+    
+    private static final String BLOOM_FILE = "index.bloom";
+    
+    private static ArticleIndex instance;
+    
+    private final Path indexDir;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Gson gson = new Gson();
+    private final Map<String, Status> runStatus = new ConcurrentHashMap<>();
+    private final Set<String> incomplete = ConcurrentHashMap.newKeySet();
+    private final BloomFilter bloom;
+    
+    private final AtomicLong newCount = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
+    private final AtomicLong changedCount = new AtomicLong();
+    private final AtomicLong diskReadsSkipped = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    
+    public ArticleIndex(String indexDir, long expectedEntries, double falsePositiveRate) {
+        this.indexDir = Paths.get(indexDir);
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        
+        try {
+            Files.createDirectories(this.indexDir);
+        } catch (IOException e) {
+            System.out.println("Error creating article index directory: " + e.getMessage());
+        }
+        this.bloom = loadBloom();
+    }
+    
+    /**
+     * Shared index configured from config.properties
+     */
+    public static synchronized ArticleIndex getInstance() {
+        if (instance == null) {
+            instance = new ArticleIndex(
+                ConfigManager.getArticleIndexDirectory(),
+                ConfigManager.getArticleIndexExpectedEntries(),
+                ConfigManager.getArticleIndexFalsePositiveRate());
+        }
+        return instance;
+    }
+    
+    /**
+     * Compare a freshly scraped article with the index
+     * For unchanged articles the stored translation, body and image path (if the file
+     * still exists) are copied onto the article so later stages can skip them.
+     */
+    public Status classify(Article article) {
+        String key = keyOf(article);
+        Entry entry = null;
+        if (bloom.mightContain(key)) {
+            entry = readEntry(key);
+            if (entry == null) {
+                falsePositives.incrementAndGet();
+            }
+        } else {
+            diskReadsSkipped.incrementAndGet();
+        }
+        
+        Status status;
+        if (entry == null) {
+            status = Status.NEW;
+            newCount.incrementAndGet();
+        } else if (!titleHashOf(article.getTitle()).equals(entry.titleHash)) {
+            status = Status.CHANGED;
+            changedCount.incrementAndGet();
+        } else {
+            status = Status.UNCHANGED;
+            unchangedCount.incrementAndGet();
+            if (!restore(article, entry)) {
+                incomplete.add(key);
+            }
+        }
+        
+        runStatus.put(key, status);
+        return status;
+    }
+    
+    /**
+     * How classify found this article in this run, or null if it was not classified
+     */
+    public Status statusOf(Article article) {
+        return runStatus.get(keyOf(article));
+    }
+    
+    /**
+     * Store every new or changed article from this run and save the Bloom filter
+     * Unchanged articles are rewritten only if their stored entry was missing data.
+     */
+    public void record(List<Article> articles) {
+        long now = System.currentTimeMillis();
+        int written = 0;
+        
+        for (Article article : articles) {
+            String key = keyOf(article);
+            Status status = runStatus.get(key);
+            if (status == Status.UNCHANGED && !incomplete.contains(key)) {
+                continue;
+            }
+            
+            Entry entry = new Entry();
+            entry.url = canonicalUrl(article.getUrl());
+            entry.section = article.getSection();
+            entry.titleHash = titleHashOf(article.getTitle());
+            entry.title = article.getTitle();
+            entry.content = article.getContent();
+            // A failed translation comes back as the Spanish title; keep it out so the next run retries
+            entry.translatedTitle = isTranslated(article.getTitle(), article.getTranslatedTitle())
+                ? article.getTranslatedTitle() : null;
+            entry.imageUrl = article.getImageUrl();
+            entry.imagePath = article.getImagePath();
+            entry.body = article.getBody() != null ? article.getBody().toString() : null;
+            entry.firstSeen = status == Status.NEW || status == null ? now : firstSeenOf(key, now);
+            entry.lastSeen = now;
+            
+            writeEntry(key, entry);
+            bloom.add(key);
+            written++;
+        }
+        
+        if (written > 0) {
+            try {
+                bloom.writeTo(indexDir.resolve(BLOOM_FILE));
+            } catch (IOException e) {
+                System.out.println("Error saving article index filter: " + e.getMessage());
+            }
+        }
+        System.out.println("✓ Article index updated (" + written + " entries written)");
+    }
+    
+    public void printStatistics() {
+        System.out.println("\n=== ARTICLE INDEX STATISTICS ===");
+        System.out.println("New: " + newCount.get() + ", unchanged: " + unchangedCount.get()
+            + ", changed: " + changedCount.get());
+        System.out.println("Disk lookups skipped by filter: " + diskReadsSkipped.get()
+            + " (false positives: " + falsePositives.get() + ")");
+        System.out.println("================================");
+    }
+    
+    /**
+     * Copy stored data onto the article
+     * @return false if something later stages will have to redo was missing
+     */
+    private boolean restore(Article article, Entry entry) {
+        boolean complete = true;
+        if (article.getContent() == null || ArticleSelectors.CONTENT_NOT_AVAILABLE.equals(article.getContent())) {
+            article.setContent(entry.content);
+        }
+        
+        // Entries written before failed translations were filtered may hold the Spanish title
+        if (isTranslated(entry.title, entry.translatedTitle)) {
+            article.setTranslatedTitle(entry.translatedTitle);
+        } else {
+            complete = false;
+        }
+        
+        if (entry.body != null) {
+            article.setBody(CompressedText.of(entry.body, ConfigManager.getBodyMaxChars()));
+        } else if (ConfigManager.isBodyFetchEnabled() && article.getUrl() != null) {
+            complete = false;
+        }
+        
+        // Only reuse the image if it was for the same URL and is still on disk
+        if (entry.imagePath != null && entry.imageUrl != null && entry.imageUrl.equals(article.getImageUrl())
+                && Files.exists(Paths.get(entry.imagePath))) {
+            article.setImagePath(entry.imagePath);
+        } else if (article.getImageUrl() != null) {
+            complete = false;
+        }
+        return complete;
+    }
+    
+    /**
+     * Whether translatedTitle is a real translation rather than a failure fallback
+     * Titles that translate to themselves (names, for example) are retried each run,
+     * which the translation cache answers without an API call.
+     */
+    static boolean isTranslated(String title, String translatedTitle) {
+        if (translatedTitle == null || translatedTitle.trim().isEmpty()
+                || TranslationService.NOT_AVAILABLE.equals(translatedTitle)) {
+            return false;
+        }
+        return !normalize(translatedTitle).equals(normalize(title));
+    }
+    
+    private long firstSeenOf(String key, long fallback) {
+        Entry previous = readEntry(key);
+        return previous != null && previous.firstSeen > 0 ? previous.firstSeen : fallback;
+    }
+    
+    private Entry readEntry(String key) {
+        Path file = indexDir.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Entry.class);
+        } catch (Exception e) {
+            System.out.println("Error reading article index entry: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeEntry(String key, Entry entry) {
+        try {
+            Path tempFile = Files.createTempFile(indexDir, key, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            Files.move(tempFile, indexDir.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Error writing article index entry: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Load the saved filter, or rebuild it from the entry files if it is missing or sized differently
+     */
+    private BloomFilter loadBloom() {
+        BloomFilter empty = new BloomFilter(expectedEntries, falsePositiveRate);
+        Path file = indexDir.resolve(BLOOM_FILE);
+        if (Files.exists(file)) {
+            try {
+                BloomFilter saved = BloomFilter.readFrom(file);
+                if (saved.hasSameShape(empty)) {
+                    return saved;
+                }
+            } catch (IOException e) {
+                System.out.println("Error reading article index filter, rebuilding: " + e.getMessage());
+            }
+        }
+        
+        int entries = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(indexDir, "*.json")) {
+            for (Path entryFile : stream) {
+                String name = entryFile.getFileName().toString();
+                empty.add(name.substring(0, name.length() - ".json".length()));
+                entries++;
+            }
+        } catch (IOException e) {
+            System.out.println("Error listing article index: " + e.getMessage());
+        }
+        if (entries > 0) {
+            System.out.println("Rebuilt article index filter from " + entries + " entries");
+        }
+        return empty;
+    }
+    
+    /**
+     * Canonical URL plus a title fallback for articles without a link
+     */
+    static String keyOf(Article article) {
+        String url = canonicalUrl(article.getUrl());
+        return sha256Hex(url != null ? "url:" + url : "title:" + normalize(article.getTitle()));
+    }
+    
+    /**
+     * Lower-case scheme and host, no query string, fragment or trailing slash
+     */
+    static String canonicalUrl(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return null;
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            return uri.getScheme().toLowerCase() + "://" + uri.getRawAuthority().toLowerCase() + path;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+    
+    private static String titleHashOf(String title) {
+        return sha256Hex(normalize(title)).substring(0, 16);
+    }
+    
+    private static String normalize(String text) {
+        return text == null ? "" : Normalizer.normalize(text, Normalizer.Form.NFC).trim().replaceAll("\\s+", " ");
+    }
+    
+    private static String sha256Hex(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
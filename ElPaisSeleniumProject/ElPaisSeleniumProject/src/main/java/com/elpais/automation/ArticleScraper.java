@@ -0,0 +1,36 @@
+package com.elpais.automation;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * ArticleScraper is the common interface for the scraping backends
+ * Implemented by the Selenium browser scraper and the driverless HTTP scraper
+ */
+public interface ArticleScraper {
+    
+    /**
+     * Prepare the backend and load the Opinion section
+     */
+    void openOpinionSection();
+    
+    /**
+     * Scrape up to maxArticles articles from the loaded page
+     */
+    List<Article> scrapeArticles(int maxArticles);
+    
+    /**
+     * Scrape up to maxArticles articles, passing each to the sink
+     * Backends that extract the whole page at once hand the articles over when it is done.
+     */
+    default void scrapeArticles(int maxArticles, Consumer<Article> sink) {
+        for (Article article : scrapeArticles(maxArticles)) {
+            sink.accept(article);
+        }
+    }
+    
+    /**
+     * Release any resources held by the backend
+     */
+    void close();
+}
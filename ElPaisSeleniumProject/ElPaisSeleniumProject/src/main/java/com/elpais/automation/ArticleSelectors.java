@@ -0,0 +1,65 @@
+package com.elpais.automation;
+
+/**
+ * ArticleSelectors holds the CSS selector cascades used to locate articles
+ * Shared by the browser and HTTP scraping backends so both read the page the same way
+ */
+public final class ArticleSelectors {
+    
+    // Selectors for article containers, tried in order until one matches
+    public static final String[] ARTICLE = {
+        "article",
+        ".c_t",
+        ".articulo-item",
+        ".story",
+        "[data-dtm-region='articulo_portada']",
+        ".elemento-multimedia"
+    };
+    
+    // Selectors for the title inside an article
+    public static final String[] TITLE = {
+        "h2", "h1", "h3", ".titulo", ".headline", ".title",
+        ".c_t_a", ".story-title", "a[title]"
+    };
+    
+    // Selectors for the content preview inside an article
+    public static final String[] CONTENT = {
+        ".entradilla", ".summary", ".excerpt",
+        ".description", ".c_e", ".story-excerpt", "p"
+    };
+    
+    // Selectors for the cover image inside an article
+    public static final String[] IMAGE = {
+        ".imagen img", ".photo img", ".c_m_e img", "img"
+    };
+    
+    // Selectors for the link to the full article
+    public static final String[] LINK = {
+        "h2 a[href]", "h1 a[href]", "h3 a[href]", ".headline a[href]", "a[href]"
+    };
+    
+    // Match almost any card, often on the wrong element (a section link, an author photo),
+    // so they stay last in every cascade however often they hit
+    private static final String[] CATCH_ALL = {"a[href]", "a[title]", "p", "img"};
+    
+    // Minimum length for text to count as a content preview
+    public static final int MIN_CONTENT_LENGTH = 20;
+    
+    public static final String TITLE_NOT_FOUND = "Title not found";
+    public static final String CONTENT_NOT_AVAILABLE = "Content preview not available";
+    
+    private ArticleSelectors() {
+    }
+    
+    /**
+     * True for selectors that are only a last resort and must not be reordered ahead of specific ones
+     */
+    public static boolean isCatchAll(String selector) {
+        for (String catchAll : CATCH_ALL) {
+            if (catchAll.equals(selector)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,114 @@
+package com.elpais.automation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * BloomFilter answers "definitely not seen" without touching disk
+ * A fixed bit array sized for the expected number of keys and false positive rate.
+ * Each key sets numHashes bits picked by double hashing a 64-bit FNV-1a hash.
+ */
+public class BloomFilter {
+    
+    private static final int FILE_MAGIC = 0x424c4f4d; // "BLOM"
+    
+    private final long[] words;
+    private final long numBits;
+    private final int numHashes;
+    
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long n = Math.max(1, expectedEntries);
+        double p = Math.min(0.5, Math.max(1e-9, falsePositiveRate));
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        this.numBits = Math.max(64, bits);
+        this.numHashes = Math.max(1, (int) Math.round((double) numBits / n * Math.log(2)));
+        this.words = new long[(int) ((numBits + 63) / 64)];
+    }
+    
+    private BloomFilter(long[] words, long numBits, int numHashes) {
+        this.words = words;
+        this.numBits = numBits;
+        this.numHashes = numHashes;
+    }
+    
+    public synchronized void add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+    
+    public synchronized boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1);
+        for (int i = 0; i < numHashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, numBits);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * True if this filter was built with the same size as one for these settings
+     */
+    public boolean hasSameShape(BloomFilter other) {
+        return numBits == other.numBits && numHashes == other.numHashes;
+    }
+    
+    public synchronized void writeTo(Path file) throws IOException {
+        Path tempFile = Files.createTempFile(file.toAbsolutePath().getParent(), "bloom", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeLong(numBits);
+            out.writeInt(numHashes);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+    
+    public static BloomFilter readFrom(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a bloom filter file: " + file);
+            }
+            long numBits = in.readLong();
+            int numHashes = in.readInt();
+            long[] words = new long[(int) ((numBits + 63) / 64)];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = in.readLong();
+            }
+            return new BloomFilter(words, numBits, numHashes);
+        }
+    }
+    
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    // Murmur3 finalizer, gives the second hash for double hashing
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h | 1;
+    }
+}
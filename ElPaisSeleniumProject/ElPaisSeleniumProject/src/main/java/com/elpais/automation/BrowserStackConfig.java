@@ -142,6 +142,25 @@ public class BrowserStackConfig {
         return options;
     }
 
+    /**
+     * Session name from the capabilities, for logs and the summary
+     */
+    public static String sessionNameOf(MutableCapabilities capabilities) {
+        Object explicitName = capabilities.getCapability("name");
+        if (explicitName != null) {
+            return explicitName.toString();
+        }
+        Object bstack = capabilities.getCapability("bstack:options");
+        if (bstack instanceof MutableCapabilities) {
+            Object sessionName = ((MutableCapabilities) bstack).getCapability("sessionName");
+            if (sessionName != null) {
+                return sessionName.toString();
+            }
+        }
+        Object topBrowser = capabilities.getCapability("browserName");
+        return topBrowser != null ? topBrowser.toString() : "BrowserStack Session";
+    }
+    
     public static MutableCapabilities getSimpleConfig() {
         return getChromeDesktopConfig();
     }
@@ -0,0 +1,69 @@
+package com.elpais.automation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ChainedTranslationProvider tries a local provider first and a remote one on a miss
+ * Multi-line text is split so only the lines the local provider can't translate
+ * are sent to the remote provider, still in a single call.
+ */
+public class ChainedTranslationProvider implements TranslationProvider {
+    
+    private final TranslationProvider primary;
+    private final TranslationProvider fallback;
+    
+    public ChainedTranslationProvider(TranslationProvider primary, TranslationProvider fallback) {
+        this.primary = primary;
+        this.fallback = fallback;
+    }
+    
+    @Override
+    public String getName() {
+        return primary.getName() + "+" + fallback.getName();
+    }
+    
+    @Override
+    public boolean isNetworkBound() {
+        return primary.isNetworkBound() || fallback.isNetworkBound();
+    }
+    
+    @Override
+    public String translate(String text, String langPair) throws Exception {
+        String[] lines = text.split(TranslationService.PACK_DELIMITER, -1);
+        String[] results = new String[lines.length];
+        List<Integer> misses = new ArrayList<>();
+        
+        for (int i = 0; i < lines.length; i++) {
+            results[i] = primary.translate(lines[i], langPair);
+            if (results[i] == null) {
+                misses.add(i);
+            }
+        }
+        
+        if (misses.isEmpty()) {
+            return String.join(TranslationService.PACK_DELIMITER, results);
+        }
+        
+        List<String> missedLines = new ArrayList<>();
+        for (int index : misses) {
+            missedLines.add(lines[index]);
+        }
+        
+        String translated = fallback.translate(String.join(TranslationService.PACK_DELIMITER, missedLines), langPair);
+        if (translated == null) {
+            return null;
+        }
+        
+        String[] parts = translated.split("\\s*" + TranslationService.PACK_DELIMITER + "\\s*", -1);
+        if (parts.length != misses.size()) {
+            // Let the caller re-send the lines individually
+            return null;
+        }
+        
+        for (int i = 0; i < parts.length; i++) {
+            results[misses.get(i)] = parts[i].trim();
+        }
+        return String.join(TranslationService.PACK_DELIMITER, results);
+    }
+}
@@ -0,0 +1,84 @@
+package com.elpais.automation;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * CompressedText keeps a long text deflated in memory
+ * Used for article bodies, which are read rarely but can be many kilobytes each.
+ * The text is inflated again on every call to toString.
+ */
+public final class CompressedText {
+    
+    private final byte[] data;
+    private final int byteLength;
+    private final int charLength;
+    
+    private CompressedText(byte[] data, int byteLength, int charLength) {
+        this.data = data;
+        this.byteLength = byteLength;
+        this.charLength = charLength;
+    }
+    
+    /**
+     * Compress text, keeping at most maxChars characters of it
+     */
+    public static CompressedText of(String text, int maxChars) {
+        String bounded = text;
+        if (text.length() > maxChars) {
+            // Don't cut a surrogate pair in half
+            int end = maxChars > 0 && Character.isHighSurrogate(text.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+            bounded = text.substring(0, end);
+        }
+        byte[] raw = bounded.getBytes(StandardCharsets.UTF_8);
+        
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 3));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new CompressedText(out.toByteArray(), raw.length, bounded.length());
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    /**
+     * Number of characters stored
+     */
+    public int length() {
+        return charLength;
+    }
+    
+    /**
+     * Bytes held on the heap for the compressed text
+     */
+    public int compressedSize() {
+        return data.length;
+    }
+    
+    @Override
+    public String toString() {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            byte[] raw = new byte[byteLength];
+            int offset = 0;
+            while (offset < byteLength && !inflater.finished()) {
+                offset += inflater.inflate(raw, offset, byteLength - offset);
+            }
+            return new String(raw, 0, offset, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -36,11 +36,11 @@ public class ConfigManager {
             System.out.println("Error loading configuration: " + e.getMessage());
         }
     }
-
+    
     public static String getProperty(String key) {
         return properties.getProperty(key);
     }
-
+    
     public static String getProperty(String key, String defaultValue) {
         return properties.getProperty(key, defaultValue);
     }
@@ -70,10 +70,102 @@ public class ConfigManager {
         return getProperty("translation.api.url");
     }
     
+    public static String getTranslationProvider() {
+        return getProperty("translation.provider", "mymemory");
+    }
+    
+    public static String getTranslationOfflineDictionary() {
+        return getProperty("translation.offline.dictionary", "es-en-phrases.tsv");
+    }
+    
+    public static double getTranslationOfflineMinCoverage() {
+        return Double.parseDouble(getProperty("translation.offline.min.coverage", "0"));
+    }
+    
+    public static double getTranslationChainMinCoverage() {
+        return Double.parseDouble(getProperty("translation.chain.min.coverage", "1.0"));
+    }
+    
+    public static int getTranslationConcurrency() {
+        return Integer.parseInt(getProperty("translation.concurrency", "4"));
+    }
+    
+    public static double getTranslationRatePerSecond() {
+        return Double.parseDouble(getProperty("translation.rate.per.second", "5"));
+    }
+    
+    public static int getTranslationRateBurst() {
+        return Integer.parseInt(getProperty("translation.rate.burst", "5"));
+    }
+    
+    public static int getTranslationTimeoutSeconds() {
+        return Integer.parseInt(getProperty("translation.timeout.seconds", "15"));
+    }
+    
+    public static int getTranslationBatchTimeoutSeconds() {
+        return Integer.parseInt(getProperty("translation.batch.timeout.seconds", "120"));
+    }
+    
+    public static boolean isTranslationPackingEnabled() {
+        return Boolean.parseBoolean(getProperty("translation.pack.enabled", "true"));
+    }
+    
+    public static int getTranslationPackMaxLength() {
+        return Integer.parseInt(getProperty("translation.pack.max.length", "500"));
+    }
+    
+    public static String getTranslationCacheDirectory() {
+        return getProperty("translation.cache.directory", "cache/translations");
+    }
+    
+    public static int getTranslationCacheMemorySize() {
+        return Integer.parseInt(getProperty("translation.cache.memory.size", "1000"));
+    }
+    
+    public static int getTranslationCacheDiskSize() {
+        return Integer.parseInt(getProperty("translation.cache.disk.size", "20000"));
+    }
+    
+    public static long getTranslationCacheTtlHours() {
+        return Long.parseLong(getProperty("translation.cache.ttl.hours", "720"));
+    }
+    
+    public static String getSelectorStatsFile() {
+        return getProperty("selectors.stats.file", "cache/selector-stats.json");
+    }
+    
+    public static double getSelectorDecay() {
+        return Double.parseDouble(getProperty("selectors.decay", "0.98"));
+    }
+    
     public static String getDownloadDirectory() {
         return getProperty("download.directory", "downloads");
     }
     
+    public static int getDownloadTimeout() {
+        return Integer.parseInt(getProperty("download.timeout", "30"));
+    }
+    
+    public static int getDownloadThreads() {
+        return Integer.parseInt(getProperty("download.threads", "4"));
+    }
+    
+    public static int getDownloadQueueCapacity() {
+        return Integer.parseInt(getProperty("download.queue.capacity", "50"));
+    }
+    
+    public static int getDownloadMaxPerHost() {
+        return Integer.parseInt(getProperty("download.max.per.host", "2"));
+    }
+    
+    public static int getDownloadRetries() {
+        return Integer.parseInt(getProperty("download.retries", "2"));
+    }
+    
+    public static long getDownloadRetryBackoffMs() {
+        return Long.parseLong(getProperty("download.retry.backoff.ms", "500"));
+    }
+    
     public static int getMaxArticles() {
         return Integer.parseInt(getProperty("max.articles", "5"));
     }
@@ -82,11 +174,243 @@ public class ConfigManager {
         return Integer.parseInt(getProperty("parallel.threads", "5"));
     }
     
-    public static int getImplicitWait() {
-        return Integer.parseInt(getProperty("implicit.wait", "10"));
+    public static String getPageLoadStrategy() {
+        return getProperty("page.load.strategy", "eager");
+    }
+    
+    public static long getWaitTimeoutMillis() {
+        return Long.parseLong(getProperty("wait.timeout.ms", "15000"));
+    }
+    
+    public static int getWaitMinArticles() {
+        return Integer.parseInt(getProperty("wait.min.articles", "3"));
+    }
+    
+    public static long getWaitDomStableMillis() {
+        return Long.parseLong(getProperty("wait.dom.stable.ms", "300"));
     }
     
     public static int getPageLoadTimeout() {
         return Integer.parseInt(getProperty("page.load.timeout", "30"));
     }
-} 
\ No newline at end of file
+    
+    public static boolean isBatchExtractionEnabled() {
+        return !"element".equalsIgnoreCase(getProperty("extraction.mode", "batch"));
+    }
+    
+    public static String getScraperBackend() {
+        return getProperty("scraper.backend", "browser");
+    }
+    
+    public static boolean isCrawlerEnabled() {
+        return Boolean.parseBoolean(getProperty("crawler.enabled", "false"));
+    }
+    
+    public static String getCrawlerSections() {
+        return getProperty("crawler.sections", "/opinion/");
+    }
+    
+    public static int getCrawlerFetchers() {
+        return Integer.parseInt(getProperty("crawler.fetchers", "4"));
+    }
+    
+    public static int getCrawlerMaxPerHost() {
+        return Integer.parseInt(getProperty("crawler.max.per.host", "2"));
+    }
+    
+    public static long getCrawlerHostDelayMs() {
+        return Long.parseLong(getProperty("crawler.host.delay.ms", "250"));
+    }
+    
+    public static int getCrawlerMaxPagesPerSection() {
+        return Integer.parseInt(getProperty("crawler.max.pages.per.section", "1"));
+    }
+    
+    public static int getCrawlerMaxArticlesPerPage() {
+        return Integer.parseInt(getProperty("crawler.max.articles.per.page", "20"));
+    }
+    
+    public static String getCrawlerNextPageSelector() {
+        return getProperty("crawler.next.page.selector", "a[rel=next]");
+    }
+    
+    public static boolean isBodyFetchEnabled() {
+        return Boolean.parseBoolean(getProperty("body.fetch.enabled", "false"));
+    }
+    
+    public static int getBodyFetchThreads() {
+        return Integer.parseInt(getProperty("body.fetch.threads", "8"));
+    }
+    
+    public static int getBodyMaxChars() {
+        return Integer.parseInt(getProperty("body.max.chars", "20000"));
+    }
+    
+    public static String getBodyParagraphSelector() {
+        return getProperty("body.paragraph.selector", "article p");
+    }
+    
+    public static boolean isArticleIndexEnabled() {
+        return Boolean.parseBoolean(getProperty("article.index.enabled", "true"));
+    }
+    
+    public static String getArticleIndexDirectory() {
+        return getProperty("article.index.directory", "cache/articles");
+    }
+    
+    public static long getArticleIndexExpectedEntries() {
+        return Long.parseLong(getProperty("article.index.expected.entries", "100000"));
+    }
+    
+    public static double getArticleIndexFalsePositiveRate() {
+        return Double.parseDouble(getProperty("article.index.false.positive.rate", "0.01"));
+    }
+    
+    public static boolean isArticleArchiveEnabled() {
+        return Boolean.parseBoolean(getProperty("article.archive.enabled", "true"));
+    }
+    
+    public static String getArticleArchiveDirectory() {
+        return getProperty("article.archive.directory", "archive/articles");
+    }
+    
+    public static int getArticleArchiveSegmentMb() {
+        return Integer.parseInt(getProperty("article.archive.segment.mb", "64"));
+    }
+    
+    public static boolean isPipelineEnabled() {
+        return Boolean.parseBoolean(getProperty("pipeline.enabled", "true"));
+    }
+    
+    public static int getPipelineQueueCapacity() {
+        return Integer.parseInt(getProperty("pipeline.queue.capacity", "16"));
+    }
+    
+    public static int getPipelineImageWorkers() {
+        return Integer.parseInt(getProperty("pipeline.image.workers", "2"));
+    }
+    
+    public static int getPipelineBodyWorkers() {
+        return Integer.parseInt(getProperty("pipeline.body.workers", "4"));
+    }
+    
+    public static int getPipelineTranslateWorkers() {
+        return Integer.parseInt(getProperty("pipeline.translate.workers", "2"));
+    }
+    
+    public static int getPipelineTranslateBatch() {
+        return Integer.parseInt(getProperty("pipeline.translate.batch", "10"));
+    }
+    
+    public static int getBrowserStackSessionTimeoutSeconds() {
+        return Integer.parseInt(getProperty("browserstack.session.timeout.seconds", "300"));
+    }
+    
+    public static int getBrowserStackRetries() {
+        return Integer.parseInt(getProperty("browserstack.retries", "2"));
+    }
+    
+    public static long getBrowserStackRetryBackoffMs() {
+        return Long.parseLong(getProperty("browserstack.retry.backoff.ms", "5000"));
+    }
+    
+    public static int getBrowserStackHedgeAfterSeconds() {
+        return Integer.parseInt(getProperty("browserstack.hedge.after.seconds", "60"));
+    }
+    
+    public static int getBrowserStackBuildTimeoutSeconds() {
+        return Integer.parseInt(getProperty("browserstack.build.timeout.seconds", "1800"));
+    }
+    
+    public static boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("metrics.enabled", "true"));
+    }
+    
+    public static String getMetricsJsonFile() {
+        return getProperty("metrics.json.file", "metrics/metrics.json");
+    }
+    
+    public static String getMetricsPrometheusFile() {
+        return getProperty("metrics.prometheus.file", "metrics/metrics.prom");
+    }
+    
+    public static int getMetricsHttpPort() {
+        return Integer.parseInt(getProperty("metrics.http.port", "0"));
+    }
+    
+    public static String getMetricsHttpHost() {
+        return getProperty("metrics.http.host", "").trim();
+    }
+    
+    public static String getAnalysisMode() {
+        return getProperty("analysis.mode", "exact");
+    }
+    
+    public static double getApproximateEpsilon() {
+        return Double.parseDouble(getProperty("analysis.approximate.epsilon", "0.0001"));
+    }
+    
+    public static double getApproximateDelta() {
+        return Double.parseDouble(getProperty("analysis.approximate.delta", "0.001"));
+    }
+    
+    public static double getApproximateUniqueError() {
+        return Double.parseDouble(getProperty("analysis.approximate.unique.error", "0.01"));
+    }
+    
+    public static int getApproximateTopWords() {
+        return Integer.parseInt(getProperty("analysis.approximate.top.words", "100"));
+    }
+    
+    public static int getArchiveAnalysisThreads() {
+        return Integer.parseInt(getProperty("analysis.archive.threads", "0"));
+    }
+    
+    public static int getArchiveAnalysisChunkKb() {
+        return Integer.parseInt(getProperty("analysis.archive.chunk.kb", "1024"));
+    }
+    
+    public static int getArchiveAnalysisTopWords() {
+        return Integer.parseInt(getProperty("analysis.archive.top.words", "50"));
+    }
+    
+    public static String getExecutionMode() {
+        return getProperty("execution.mode", "platform");
+    }
+    
+    public static boolean isDriverPoolEnabled() {
+        return Boolean.parseBoolean(getProperty("driver.pool.enabled", "true"));
+    }
+    
+    public static int getDriverPoolSize() {
+        return Integer.parseInt(getProperty("driver.pool.size", "2"));
+    }
+    
+    public static int getDriverPoolPrewarm() {
+        return Integer.parseInt(getProperty("driver.pool.prewarm", "1"));
+    }
+    
+    public static int getDriverPoolMaxAgeMinutes() {
+        return Integer.parseInt(getProperty("driver.pool.max.age.minutes", "30"));
+    }
+    
+    public static int getDriverPoolLeaseTimeoutSeconds() {
+        return Integer.parseInt(getProperty("driver.pool.lease.timeout.seconds", "120"));
+    }
+    
+    public static boolean isNetworkBlockingEnabled() {
+        return Boolean.parseBoolean(getProperty("network.block.enabled", "true"));
+    }
+    
+    public static boolean isNetworkBlockingMeasured() {
+        return Boolean.parseBoolean(getProperty("network.block.measure", "false"));
+    }
+    
+    public static String getNetworkBlockUrlPatterns() {
+        return getProperty("network.block.url.patterns", "");
+    }
+    
+    public static String getNetworkBlockResourceTypes() {
+        return getProperty("network.block.resource.types", "font,media");
+    }
+}
@@ -0,0 +1,94 @@
+package com.elpais.automation;
+
+/**
+ * CountMinSketch estimates how often each key was added, in fixed memory
+ * A depth x width grid of counters; each key adds to one counter per row, picked by
+ * double hashing, and its estimate is the smallest of those counters. Estimates never
+ * undercount, and overcount by at most epsilon times the total with probability
+ * 1 - delta. Conservative update (only raising counters below the new estimate) keeps
+ * the overcount well under that bound in practice.
+ */
+public class CountMinSketch {
+    
+    private final long[] counters;
+    private final int width;
+    private final int depth;
+    private long total;
+    
+    public CountMinSketch(double epsilon, double delta) {
+        double e = Math.min(1.0, Math.max(1e-7, epsilon));
+        double d = Math.min(0.5, Math.max(1e-12, delta));
+        this.width = (int) Math.ceil(Math.E / e);
+        this.depth = (int) Math.ceil(Math.log(1 / d));
+        this.counters = new long[width * depth];
+    }
+    
+    /**
+     * Add count occurrences of the key with this hash
+     * @return the key's estimate after adding
+     */
+    public long add(long hash, long count) {
+        long h2 = mix(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[slot(row, hash, h2)]);
+        }
+        long updated = estimate + count;
+        for (int row = 0; row < depth; row++) {
+            int slot = slot(row, hash, h2);
+            if (counters[slot] < updated) {
+                counters[slot] = updated;
+            }
+        }
+        total += count;
+        return updated;
+    }
+    
+    public long estimate(long hash) {
+        long h2 = mix(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[slot(row, hash, h2)]);
+        }
+        return estimate;
+    }
+    
+    /**
+     * Sum of all counts added
+     */
+    public long getTotal() {
+        return total;
+    }
+    
+    public long getMemoryBytes() {
+        return (long) counters.length * Long.BYTES;
+    }
+    
+    /**
+     * 64-bit hash of a string, shared with HyperLogLog so one hash serves both sketches
+     * FNV-1a over the chars, then the Murmur3 finalizer to spread the high bits.
+     */
+    public static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+    
+    private int slot(int row, long h1, long h2) {
+        return row * width + (int) Math.floorMod(h1 + row * h2, (long) width);
+    }
+    
+    // Second hash for double hashing, odd so every row steps differently
+    private static long mix(long h) {
+        h = (h ^ (h >>> 31)) * 0x94d049bb133111ebL;
+        return (h ^ (h >>> 29)) | 1;
+    }
+}
@@ -1,54 +1,156 @@
 package com.elpais.automation;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.remote.RemoteWebDriver;
-import org.openqa.selenium.support.ui.WebDriverWait;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.PageLoadStrategy;
 
-import java.io.File;
-import java.io.IOException;
 import java.net.URL;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * ElPaisWebScraper handles the web scraping of El Pais articles
  * Uses Selenium WebDriver to navigate and extract content
  */
-public class ElPaisWebScraper {
+public class ElPaisWebScraper implements ArticleScraper {
+    
+    /**
+     * Runs the whole selector cascade inside the browser and returns one map
+     * per article with "title", "content", "imageUrl" and "url" keys, plus the index
+     * of the selector that matched for each so hit rates can be recorded.
+     * Mirrors extractTitle, extractContent, extractImageUrl and extractLink.
+     */
+    private static final String BATCH_EXTRACTION_SCRIPT =
+        "var articleSelectors = arguments[0], titleSelectors = arguments[1],\n" +
+        "    contentSelectors = arguments[2], imageSelectors = arguments[3],\n" +
+        "    linkSelectors = arguments[4], minContentLength = arguments[5], maxArticles = arguments[6];\n" +
+        "function textOf(el) { return (el.innerText || el.textContent || '').trim(); }\n" +
+        "function first(root, selector) { try { return root.querySelector(selector); } catch (e) { return null; } }\n" +
+        "var nodes = [], usedIndex = -1;\n" +
+        "for (var i = 0; i < articleSelectors.length; i++) {\n" +
+        "  try { nodes = document.querySelectorAll(articleSelectors[i]); } catch (e) { nodes = []; }\n" +
+        "  if (nodes.length > 0) { usedIndex = i; break; }\n" +
+        "}\n" +
+        "var results = [];\n" +
+        "for (var n = 0; n < nodes.length && n < maxArticles; n++) {\n" +
+        "  var article = nodes[n], title = null, content = null, imageUrl = null, url = null;\n" +
+        "  var ti = -1, ci = -1, mi = -1, li = -1;\n" +
+        "  for (var t = 0; t < titleSelectors.length && title === null; t++) {\n" +
+        "    var te = first(article, titleSelectors[t]);\n" +
+        "    if (!te) continue;\n" +
+        "    var text = textOf(te);\n" +
+        "    if (text) { title = text; ti = t; break; }\n" +
+        "    var attr = te.getAttribute('title');\n" +
+        "    if (attr && attr.trim()) { title = attr.trim(); ti = t; }\n" +
+        "  }\n" +
+        "  for (var c = 0; c < contentSelectors.length && content === null; c++) {\n" +
+        "    var ce = first(article, contentSelectors[c]);\n" +
+        "    if (!ce) continue;\n" +
+        "    var ctext = textOf(ce);\n" +
+        "    if (ctext.length > minContentLength) { content = ctext; ci = c; }\n" +
+        "  }\n" +
+        "  for (var m = 0; m < imageSelectors.length && imageUrl === null; m++) {\n" +
+        "    var img = first(article, imageSelectors[m]);\n" +
+        "    if (!img) continue;\n" +
+        "    var src = img.src || img.getAttribute('src');\n" +
+        "    if (src && src.indexOf('http') === 0) { imageUrl = src; mi = m; break; }\n" +
+        "    src = img.getAttribute('data-src');\n" +
+        "    if (src && src.indexOf('http') === 0) { imageUrl = src; mi = m; }\n" +
+        "  }\n" +
+        "  for (var l = 0; l < linkSelectors.length && url === null; l++) {\n" +
+        "    var a = first(article, linkSelectors[l]);\n" +
+        "    if (!a || (a.getAttribute('href') || '').charAt(0) === '#') continue;\n" +
+        "    if (a.href && a.href.indexOf('http') === 0) { url = a.href; li = l; }\n" +
+        "  }\n" +
+        "  results.push({title: title, content: content, imageUrl: imageUrl, url: url,\n" +
+        "                titleIndex: ti, contentIndex: ci, imageIndex: mi, linkIndex: li});\n" +
+        "}\n" +
+        "return {selectorIndex: usedIndex, total: nodes.length, articles: results};";
     
     private WebDriver driver;
-    private WebDriverWait wait;
+    private WebDriverPool pool;
+    private final PhaseTimer timer = new PhaseTimer();
     private final String baseUrl;
     private final String opinionSection;
-    private final String downloadDir;
+    private final ImageDownloadPipeline imagePipeline;
+    private final SelectorRegistry selectors;
+    private final ArticleIndex articleIndex;
     
     public ElPaisWebScraper() {
-        this.baseUrl = ConfigManager.getElPaisBaseUrl();
-        this.opinionSection = ConfigManager.getElPaisOpinionSection();
-        this.downloadDir = ConfigManager.getDownloadDirectory();
-        
-        // Create download directory if it doesn't exist
-        createDownloadDirectory();
+        this(ConfigManager.getElPaisBaseUrl(), ConfigManager.getElPaisOpinionSection(),
+            SelectorRegistry.forPage(ConfigManager.getElPaisBaseUrl(), ConfigManager.getElPaisOpinionSection()),
+            ImageDownloadPipeline.getInstance(),
+            ConfigManager.isArticleIndexEnabled() ? ArticleIndex.getInstance() : null);
+    }
+    
+    /**
+     * Scraper for another site, e.g. a local fixture; a null pipeline or index is skipped
+     */
+    ElPaisWebScraper(String baseUrl, String opinionSection, SelectorRegistry selectors,
+                     ImageDownloadPipeline imagePipeline, ArticleIndex articleIndex) {
+        this.baseUrl = baseUrl;
+        this.opinionSection = opinionSection;
+        this.imagePipeline = imagePipeline;
+        this.selectors = selectors;
+        this.articleIndex = articleIndex;
     }
     
     /**
      * Initialize WebDriver for local testing
      */
     public void initializeLocalDriver() {
+        PhaseTimer.Phase phase = timer.start("Driver init (local)", Metrics.DRIVER_INIT);
+        attachDriver(createLocalDriver());
+        phase.stop();
+        System.out.println("Local Chrome driver initialized successfully");
+    }
+    
+    /**
+     * Initialize WebDriver for BrowserStack (remote testing)
+     */
+    public void initializeBrowserStackDriver(MutableCapabilities capabilities) {
+        timer.setMetricsTag(BrowserStackConfig.sessionNameOf(capabilities));
+        PhaseTimer.Phase phase = timer.start("Driver init (BrowserStack)", Metrics.DRIVER_INIT);
+        attachDriver(createBrowserStackDriver(capabilities));
+        phase.stop();
+        System.out.println("BrowserStack driver initialized successfully");
+    }
+    
+    /**
+     * Lease a warm driver from the pool; close() returns it instead of quitting it
+     */
+    public void initializePooledDriver(WebDriverPool pool) {
+        PhaseTimer.Phase phase = timer.start("Driver init (pool lease)", Metrics.DRIVER_INIT);
+        this.pool = pool;
+        attachDriver(pool.lease());
+        phase.stop();
+    }
+    
+    void attachDriver(WebDriver driver) {
+        this.driver = driver;
+    }
+    
+    public PhaseTimer getPhaseTimer() {
+        return timer;
+    }
+    
+    /**
+     * Create a headless local Chrome driver
+     */
+    public static WebDriver createLocalDriver() {
         try {
             // WebDriverManager automatically downloads and sets up ChromeDriver
             WebDriverManager.chromedriver().setup();
             
             // Configure Chrome options
             ChromeOptions options = new ChromeOptions();
-            options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+            options.setPageLoadStrategy(getPageLoadStrategy());
             options.addArguments("--headless=new"); // Run in background (no GUI)
             options.addArguments("--no-sandbox");
             options.addArguments("--disable-dev-shm-usage");
@@ -59,16 +161,18 @@ public class ElPaisWebScraper {
             options.addArguments("--lang=es");
             options.addArguments("--accept-lang=es-ES,es");
             
-            driver = new ChromeDriver(options);
+            WebDriver driver = new ChromeDriver(options);
             
-            // Set timeouts
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigManager.getImplicitWait()));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigManager.getPageLoadTimeout()));
+            // Skip ads, trackers, fonts and video we never read
+            if (ConfigManager.isNetworkBlockingEnabled()) {
+                NetworkBlocker.apply(driver);
+            }
             
-            // Initialize WebDriverWait
-            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            // Set timeouts; no implicit wait, readiness is polled explicitly by ReadinessWait
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(ConfigManager.getPageLoadTimeout()));
             
-            System.out.println("Local Chrome driver initialized successfully");
+            return driver;
             
         } catch (Exception e) {
             System.out.println("Error initializing local driver: " + e.getMessage());
@@ -77,9 +181,9 @@ public class ElPaisWebScraper {
     }
     
     /**
-     * Initialize WebDriver for BrowserStack (remote testing)
+     * Create a remote driver on BrowserStack for the given capabilities
      */
-    public void initializeBrowserStackDriver(MutableCapabilities capabilities) {
+    public static WebDriver createBrowserStackDriver(MutableCapabilities capabilities) {
         try {
             String username = ConfigManager.getBrowserStackUsername();
             String accessKey = ConfigManager.getBrowserStackAccessKey();
@@ -101,16 +205,16 @@ public class ElPaisWebScraper {
             bstackOptions.setCapability("accessKey", accessKey);
             capabilities.setCapability("bstack:options", bstackOptions);
             
-            // Create remote WebDriver
-            driver = new RemoteWebDriver(new URL(hubUrl), capabilities);
+            // Return from navigation early and poll readiness instead of waiting for the full load
+            capabilities.setCapability("pageLoadStrategy", getPageLoadStrategy().toString());
             
-            // Set timeouts
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(ConfigManager.getImplicitWait()));
+            // Create remote WebDriver
+            WebDriver driver = new RemoteWebDriver(new URL(hubUrl), capabilities);
             
-            // Initialize WebDriverWait
-            wait = new WebDriverWait(driver, Duration.ofSeconds(15));
+            // Set timeouts; no implicit wait, readiness is polled explicitly by ReadinessWait
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
             
-            System.out.println("BrowserStack driver initialized successfully");
+            return driver;
             
         } catch (Exception e) {
             System.out.println("Error initializing BrowserStack driver: " + e.getMessage());
@@ -118,12 +222,42 @@ public class ElPaisWebScraper {
         }
     }
     
+    /**
+     * Page load strategy from page.load.strategy (eager or none)
+     */
+    private static PageLoadStrategy getPageLoadStrategy() {
+        return "none".equalsIgnoreCase(ConfigManager.getPageLoadStrategy())
+            ? PageLoadStrategy.NONE
+            : PageLoadStrategy.EAGER;
+    }
+    
+    /**
+     * Start or lease a local driver if none is attached, then load the Opinion section
+     */
+    @Override
+    public void openOpinionSection() {
+        if (driver == null) {
+            if (ConfigManager.isDriverPoolEnabled()) {
+                initializePooledDriver(WebDriverPool.local());
+            } else {
+                initializeLocalDriver();
+            }
+        }
+        if (ConfigManager.isNetworkBlockingMeasured()) {
+            NetworkBlocker.compare(driver, baseUrl + opinionSection);
+        }
+        navigateToElPais();
+        navigateToOpinionSection();
+    }
+    
     /**
      * Navigate to El Pais website and verify Spanish language
      */
     public void navigateToElPais() {
+        PhaseTimer.Phase phase = timer.start("Navigate to home page", Metrics.NAVIGATION);
         try {
             System.out.println("Navigating to El Pais website...");
+            String startUrl = driver.getCurrentUrl();
             try {
                 driver.get(baseUrl);
             } catch (WebDriverException loadError) {
@@ -133,8 +267,9 @@ public class ElPaisWebScraper {
                 } catch (Exception ignore) {}
             }
             
-            // Wait for page to load sufficiently
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("body")));
+            // Wait until the DOM is parsed; subresources may still be loading
+            ReadinessWait.until(driver, loadedFrom(startUrl, baseUrl),
+                ConfigManager.getWaitTimeoutMillis(), timer, "Home page ready");
             
             // Check if page is in Spanish by looking for common Spanish words
             String pageSource = driver.getPageSource().toLowerCase();
@@ -149,6 +284,8 @@ public class ElPaisWebScraper {
         } catch (Exception e) {
             System.out.println("Error navigating to El Pais: " + e.getMessage());
             throw new RuntimeException("Failed to navigate to El Pais", e);
+        } finally {
+            phase.stop();
         }
     }
     
@@ -156,8 +293,12 @@ public class ElPaisWebScraper {
      * Navigate to Opinion section
      */
     public void navigateToOpinionSection() {
+        PhaseTimer.Phase phase = timer.start("Navigate to Opinion section", Metrics.NAVIGATION);
+        String opinionUrl = baseUrl + opinionSection;
+        
         try {
             System.out.println("Navigating to Opinion section...");
+            String startUrl = driver.getCurrentUrl();
             
             // Try to find and click opinion link
             List<WebElement> opinionLinks = driver.findElements(By.partialLinkText("Opinión"));
@@ -170,102 +311,281 @@ public class ElPaisWebScraper {
                 System.out.println("✓ Clicked on Opinion section link");
             } else {
                 // Fallback: navigate directly to opinion URL
-                String opinionUrl = baseUrl + opinionSection;
                 driver.get(opinionUrl);
                 System.out.println("✓ Navigated directly to Opinion section: " + opinionUrl);
             }
             
-            // Wait for opinion page to load
-            wait.until(ExpectedConditions.presenceOfElementLocated(By.tagName("article")));
+            // Wait until the new page has enough articles with headings and has stopped changing
+            if (!waitForArticles(ReadinessCondition.urlChangedFrom(startUrl))) {
+                System.out.println("Opinion page not ready, navigating directly");
+                String clickedUrl = driver.getCurrentUrl();
+                driver.get(opinionUrl);
+                waitForArticles(loadedFrom(clickedUrl, opinionUrl));
+            }
             
         } catch (Exception e) {
             System.out.println("Error navigating to Opinion section: " + e.getMessage());
             // Try direct navigation as fallback
             try {
-                String opinionUrl = baseUrl + opinionSection;
+                String failedUrl = driver.getCurrentUrl();
                 driver.get(opinionUrl);
+                waitForArticles(loadedFrom(failedUrl, opinionUrl));
                 System.out.println("✓ Fallback navigation to Opinion section successful");
             } catch (Exception fallbackError) {
                 throw new RuntimeException("Failed to navigate to Opinion section", fallbackError);
             }
+        } finally {
+            phase.stop();
         }
     }
     
+    /**
+     * Condition for driver.get(url), issued while startUrl was shown, to have loaded
+     * With page.load.strategy=none get() returns before the navigation commits, while the
+     * previous document still counts as interactive, so the URL has to change as well.
+     * Reloading the page already shown cannot be told apart by URL and only waits on the document.
+     */
+    private static ReadinessCondition loadedFrom(String startUrl, String url) {
+        ReadinessCondition interactive = ReadinessCondition.documentInteractive();
+        if (startUrl == null || stripTrailingSlash(startUrl).equals(stripTrailingSlash(url))) {
+            return interactive;
+        }
+        return ReadinessCondition.urlChangedFrom(startUrl).and(interactive);
+    }
+    
+    private static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+    
+    /**
+     * Poll until the navigation condition holds and the article list is populated and stable
+     */
+    private boolean waitForArticles(ReadinessCondition navigated) {
+        ReadinessCondition ready = navigated
+            .and(ReadinessCondition.articlesWithHeadings(ConfigManager.getWaitMinArticles(), selectors))
+            .and(ReadinessCondition.domStableFor(ConfigManager.getWaitDomStableMillis()));
+        return ReadinessWait.until(driver, ready, ConfigManager.getWaitTimeoutMillis(), timer, "Opinion page ready");
+    }
+    
     /**
      * Scrape articles from the Opinion section
+     * Uses single-round-trip batch extraction unless extraction.mode=element
      */
+    @Override
     public List<Article> scrapeArticles(int maxArticles) {
         List<Article> articles = new ArrayList<>();
+        scrapeArticles(maxArticles, articles::add);
+        return articles;
+    }
+    
+    /**
+     * Scrape articles from the Opinion section, passing each to the sink
+     * Per-element extraction hands each article over as soon as it is read. Batch
+     * extraction reads the whole page in one round trip and hands the articles over
+     * when that returns, which is still sooner than per-element extraction finishes.
+     */
+    @Override
+    public void scrapeArticles(int maxArticles, Consumer<Article> sink) {
+        long startTime = System.currentTimeMillis();
+        List<Article> batch = null;
         
-        try {
-            System.out.println("Starting to scrape articles...");
-            
-            // Find article elements - try multiple selectors
-            List<WebElement> articleElements = findArticleElements();
-            
-            if (articleElements.isEmpty()) {
-                System.out.println("No articles found on the page");
-                return articles;
+        if (ConfigManager.isBatchExtractionEnabled()) {
+            try {
+                batch = scrapeArticlesBatch(maxArticles);
+            } catch (Exception e) {
+                System.out.println("Batch extraction failed, falling back to per-element extraction: " + e.getMessage());
             }
-            
-            System.out.println("Found " + articleElements.size() + " article elements");
-            
-            // Process up to maxArticles
-            int articlesToProcess = Math.min(maxArticles, articleElements.size());
-            
-            for (int i = 0; i < articlesToProcess; i++) {
-                try {
-                    WebElement articleElement = articleElements.get(i);
-                    Article article = extractArticleData(articleElement, i + 1);
-                    
-                    if (article != null && article.getTitle() != null && !article.getTitle().trim().isEmpty()) {
-                        articles.add(article);
-                        System.out.println("✓ Successfully scraped article " + (i + 1));
-                    }
-                    
-                } catch (Exception e) {
-                    System.out.println("Error scraping article " + (i + 1) + ": " + e.getMessage());
-                }
+        }
+        
+        if (batch != null) {
+            batch.forEach(sink);
+        } else {
+            scrapeArticlesPerElement(maxArticles, sink);
+        }
+        
+        SelectorRegistry.saveAll();
+        
+        long elapsed = System.currentTimeMillis() - startTime;
+        timer.record("Article extraction", elapsed);
+        System.out.println("Extraction took " + elapsed + " ms");
+    }
+    
+    /**
+     * Scrape articles with one executeScript call that runs the selector cascade in the browser
+     */
+    @SuppressWarnings("unchecked")
+    List<Article> scrapeArticlesBatch(int maxArticles) {
+        List<Article> articles = new ArrayList<>();
+        System.out.println("Starting to scrape articles (batch mode)...");
+        
+        String[] articleSelectors = selectors.ordered(SelectorRegistry.Role.ARTICLE);
+        String[] titleSelectors = selectors.ordered(SelectorRegistry.Role.TITLE);
+        String[] contentSelectors = selectors.ordered(SelectorRegistry.Role.CONTENT);
+        String[] imageSelectors = selectors.ordered(SelectorRegistry.Role.IMAGE);
+        String[] linkSelectors = selectors.ordered(SelectorRegistry.Role.LINK);
+        
+        long scriptStart = System.nanoTime();
+        Object raw = ((JavascriptExecutor) driver).executeScript(BATCH_EXTRACTION_SCRIPT,
+            articleSelectors, titleSelectors, contentSelectors, imageSelectors, linkSelectors,
+            ArticleSelectors.MIN_CONTENT_LENGTH, maxArticles);
+        long scriptNanos = System.nanoTime() - scriptStart;
+        
+        if (!(raw instanceof Map)) {
+            throw new IllegalStateException("Unexpected batch extraction result: " + raw);
+        }
+        
+        Map<String, Object> result = (Map<String, Object>) raw;
+        List<Map<String, Object>> extracted = (List<Map<String, Object>>) result.get("articles");
+        int selectorIndex = indexOf(result.get("selectorIndex"));
+        selectors.recordCascade(SelectorRegistry.Role.ARTICLE, articleSelectors, selectorIndex);
+        
+        if (extracted == null || extracted.isEmpty()) {
+            selectors.reportDrift(SelectorRegistry.Role.ARTICLE);
+            System.out.println("No articles found on the page");
+            return articles;
+        }
+        
+        System.out.println("Found articles using selector: " + articleSelectors[selectorIndex]);
+        System.out.println("Found " + result.get("total") + " article elements (1 WebDriver round trip)");
+        
+        // One round trip extracts every article, so each is charged an equal share of it
+        for (int i = 0; i < extracted.size(); i++) {
+            Metrics.recordNanos(Metrics.ARTICLE_EXTRACTION, timer.getMetricsTag(), scriptNanos / extracted.size());
+        }
+        
+        for (int i = 0; i < extracted.size(); i++) {
+            Map<String, Object> data = extracted.get(i);
+            selectors.recordCascade(SelectorRegistry.Role.TITLE, titleSelectors, indexOf(data.get("titleIndex")));
+            selectors.recordCascade(SelectorRegistry.Role.CONTENT, contentSelectors, indexOf(data.get("contentIndex")));
+            selectors.recordCascade(SelectorRegistry.Role.IMAGE, imageSelectors, indexOf(data.get("imageIndex")));
+            selectors.recordCascade(SelectorRegistry.Role.LINK, linkSelectors, indexOf(data.get("linkIndex")));
+            
+            Article article = new Article();
+            article.setTitle(stringOrDefault(data.get("title"), ArticleSelectors.TITLE_NOT_FOUND));
+            article.setContent(stringOrDefault(data.get("content"), ArticleSelectors.CONTENT_NOT_AVAILABLE));
+            article.setUrl((String) data.get("url"));
+            
+            String imageUrl = (String) data.get("imageUrl");
+            article.setImageUrl(imageUrl);
+            if (articleIndex != null) {
+                articleIndex.classify(article);
+            }
+            if (imagePipeline != null && imageUrl != null && !imageUrl.isEmpty() && article.getImagePath() == null) {
+                imagePipeline.submit(article, imageUrl, i + 1);
             }
             
-            System.out.println("Successfully scraped " + articles.size() + " articles");
-            
+            if (!article.getTitle().trim().isEmpty()) {
+                articles.add(article);
+                System.out.println("✓ Successfully scraped article " + (i + 1));
+            }
+        }
+        
+        System.out.println("Successfully scraped " + articles.size() + " articles");
+        return articles;
+    }
+    
+    /**
+     * Scrape articles by querying each element through separate WebDriver calls
+     */
+    List<Article> scrapeArticlesPerElement(int maxArticles) {
+        List<Article> articles = new ArrayList<>();
+        scrapeArticlesPerElement(maxArticles, articles::add);
+        return articles;
+    }
+    
+    private void scrapeArticlesPerElement(int maxArticles, Consumer<Article> sink) {
+        System.out.println("Starting to scrape articles...");
+        
+        List<WebElement> articleElements;
+        try {
+            // Find article elements - try multiple selectors
+            articleElements = findArticleElements();
         } catch (Exception e) {
             System.out.println("Error during article scraping: " + e.getMessage());
+            return;
         }
         
-        return articles;
+        if (articleElements.isEmpty()) {
+            System.out.println("No articles found on the page");
+            return;
+        }
+        
+        System.out.println("Found " + articleElements.size() + " article elements");
+        
+        // Process up to maxArticles
+        int scraped = 0;
+        int articlesToProcess = Math.min(maxArticles, articleElements.size());
+        
+        for (int i = 0; i < articlesToProcess; i++) {
+            Article article;
+            try {
+                long start = System.nanoTime();
+                WebElement articleElement = articleElements.get(i);
+                article = extractArticleData(articleElement, i + 1);
+                Metrics.record(Metrics.ARTICLE_EXTRACTION, timer.getMetricsTag(), start);
+            } catch (Exception e) {
+                System.out.println("Error scraping article " + (i + 1) + ": " + e.getMessage());
+                continue;
+            }
+            
+            if (article != null && article.getTitle() != null && !article.getTitle().trim().isEmpty()) {
+                // Outside the try: a sink that fails (e.g. a stopped pipeline) stops the scrape
+                sink.accept(article);
+                scraped++;
+                System.out.println("✓ Successfully scraped article " + (i + 1));
+            }
+        }
+        
+        System.out.println("Successfully scraped " + scraped + " articles");
+    }
+    
+    private static int indexOf(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : -1;
+    }
+    
+    /**
+     * Convert a script result value to a trimmed string, or return the default
+     */
+    private static String stringOrDefault(Object value, String defaultValue) {
+        if (value == null || value.toString().trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.toString().trim();
     }
     
     /**
      * Find article elements using multiple selectors
      */
     private List<WebElement> findArticleElements() {
-        // Try different selectors commonly used by El Pais
-        String[] selectors = {
-            "article",
-            ".c_t",
-            ".articulo-item",
-            ".story",
-            "[data-dtm-region='articulo_portada']",
-            ".elemento-multimedia"
-        };
-        
-        for (String selector : selectors) {
+        // Try selectors commonly used by El Pais, best performing first
+        for (String selector : selectors.ordered(SelectorRegistry.Role.ARTICLE)) {
+            long start = System.nanoTime();
             try {
                 List<WebElement> elements = driver.findElements(By.cssSelector(selector));
+                recordProbe(SelectorRegistry.Role.ARTICLE, selector, !elements.isEmpty(), start);
                 if (!elements.isEmpty()) {
                     System.out.println("Found articles using selector: " + selector);
                     return elements;
                 }
             } catch (Exception e) {
+                recordProbe(SelectorRegistry.Role.ARTICLE, selector, false, start);
                 // Continue with next selector
             }
         }
         
+        selectors.reportDrift(SelectorRegistry.Role.ARTICLE);
         return new ArrayList<>();
     }
     
+    /**
+     * Record one selector probe for adaptive ordering and in the probe latency histogram
+     */
+    private void recordProbe(SelectorRegistry.Role role, String selector, boolean hit, long startNanos) {
+        long costNanos = System.nanoTime() - startNanos;
+        selectors.record(role, selector, hit, costNanos);
+        Metrics.recordNanos(Metrics.SELECTOR_PROBE, timer.getMetricsTag(), costNanos);
+    }
+    
     /**
      * Extract data from a single article element
      */
@@ -285,10 +605,17 @@ public class ElPaisWebScraper {
             String imageUrl = extractImageUrl(articleElement);
             article.setImageUrl(imageUrl);
             
-            // Download image if available
-            if (imageUrl != null && !imageUrl.isEmpty()) {
-                String imagePath = downloadImage(imageUrl, articleNumber);
-                article.setImagePath(imagePath);
+            // Extract link to the full article
+            article.setUrl(extractLink(articleElement));
+            
+            // Reuse what earlier runs stored for this article
+            if (articleIndex != null) {
+                articleIndex.classify(article);
+            }
+            
+            // Queue image download if available and not already on disk
+            if (imagePipeline != null && imageUrl != null && !imageUrl.isEmpty() && article.getImagePath() == null) {
+                imagePipeline.submit(article, imageUrl, articleNumber);
             }
             
         } catch (Exception e) {
@@ -302,134 +629,118 @@ public class ElPaisWebScraper {
      * Extract title from article element
      */
     private String extractTitle(WebElement articleElement) {
-        String[] titleSelectors = {
-            "h2", "h1", "h3", ".titulo", ".headline", ".title",
-            "a[title]", ".c_t_a", ".story-title"
-        };
-        
-        for (String selector : titleSelectors) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.TITLE)) {
+            long start = System.nanoTime();
             try {
                 WebElement titleElement = articleElement.findElement(By.cssSelector(selector));
                 String title = titleElement.getText().trim();
                 if (!title.isEmpty()) {
+                    recordProbe(SelectorRegistry.Role.TITLE, selector, true, start);
                     return title;
                 }
                 
                 // Try title attribute if text is empty
                 title = titleElement.getAttribute("title");
                 if (title != null && !title.trim().isEmpty()) {
+                    recordProbe(SelectorRegistry.Role.TITLE, selector, true, start);
                     return title.trim();
                 }
                 
             } catch (Exception e) {
                 // Continue with next selector
             }
+            recordProbe(SelectorRegistry.Role.TITLE, selector, false, start);
         }
         
-        return "Title not found";
+        return ArticleSelectors.TITLE_NOT_FOUND;
     }
     
     /**
      * Extract content from article element
      */
     private String extractContent(WebElement articleElement) {
-        String[] contentSelectors = {
-            "p", ".entradilla", ".summary", ".excerpt", 
-            ".description", ".c_e", ".story-excerpt"
-        };
-        
-        for (String selector : contentSelectors) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.CONTENT)) {
+            long start = System.nanoTime();
             try {
                 WebElement contentElement = articleElement.findElement(By.cssSelector(selector));
                 String content = contentElement.getText().trim();
-                if (!content.isEmpty() && content.length() > 20) {
+                if (!content.isEmpty() && content.length() > ArticleSelectors.MIN_CONTENT_LENGTH) {
+                    recordProbe(SelectorRegistry.Role.CONTENT, selector, true, start);
                     return content;
                 }
             } catch (Exception e) {
                 // Continue with next selector
             }
+            recordProbe(SelectorRegistry.Role.CONTENT, selector, false, start);
         }
         
-        return "Content preview not available";
+        return ArticleSelectors.CONTENT_NOT_AVAILABLE;
     }
     
     /**
      * Extract image URL from article element
      */
     private String extractImageUrl(WebElement articleElement) {
-        String[] imageSelectors = {
-            "img", ".imagen img", ".photo img", ".c_m_e img"
-        };
-        
-        for (String selector : imageSelectors) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.IMAGE)) {
+            long start = System.nanoTime();
             try {
                 WebElement imgElement = articleElement.findElement(By.cssSelector(selector));
                 String src = imgElement.getAttribute("src");
                 if (src != null && !src.isEmpty() && src.startsWith("http")) {
+                    recordProbe(SelectorRegistry.Role.IMAGE, selector, true, start);
                     return src;
                 }
                 
                 // Try data-src for lazy loading
                 src = imgElement.getAttribute("data-src");
                 if (src != null && !src.isEmpty() && src.startsWith("http")) {
+                    recordProbe(SelectorRegistry.Role.IMAGE, selector, true, start);
                     return src;
                 }
                 
             } catch (Exception e) {
                 // Continue with next selector
             }
+            recordProbe(SelectorRegistry.Role.IMAGE, selector, false, start);
         }
         
         return null;
     }
     
     /**
-     * Download image from URL
-     */
-    private String downloadImage(String imageUrl, int articleNumber) {
-        try {
-            // Create filename
-            String extension = imageUrl.substring(imageUrl.lastIndexOf("."));
-            if (extension.length() > 5) {
-                extension = ".jpg"; // Default extension
-            }
-            String fileName = "article_" + articleNumber + "_image" + extension;
-            String filePath = downloadDir + File.separator + fileName;
-            
-            // Download image
-            URL url = new URL(imageUrl);
-            File file = new File(filePath);
-            FileUtils.copyURLToFile(url, file, 5000, 5000); // 5 second timeout
-            
-            System.out.println("✓ Downloaded image: " + fileName);
-            return filePath;
-            
-        } catch (Exception e) {
-            System.out.println("Error downloading image: " + e.getMessage());
-            return null;
-        }
-    }
-    
-    /**
-     * Create download directory
+     * Extract the link to the full article from article element
      */
-    private void createDownloadDirectory() {
-        try {
-            File dir = new File(downloadDir);
-            if (!dir.exists()) {
-                dir.mkdirs();
-                System.out.println("Created download directory: " + downloadDir);
+    private String extractLink(WebElement articleElement) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.LINK)) {
+            long start = System.nanoTime();
+            try {
+                WebElement linkElement = articleElement.findElement(By.cssSelector(selector));
+                String rawHref = linkElement.getDomAttribute("href");
+                String href = linkElement.getAttribute("href");
+                // In-page anchors like href="#" don't lead to the article
+                if (rawHref != null && !rawHref.startsWith("#") && href != null && href.startsWith("http")) {
+                    recordProbe(SelectorRegistry.Role.LINK, selector, true, start);
+                    return href;
+                }
+            } catch (Exception e) {
+                // Continue with next selector
             }
-        } catch (Exception e) {
-            System.out.println("Error creating download directory: " + e.getMessage());
+            recordProbe(SelectorRegistry.Role.LINK, selector, false, start);
         }
+        
+        return null;
     }
     
     /**
-     * Close the WebDriver
+     * Close the WebDriver, or return it to the pool it was leased from
      */
+    @Override
     public void close() {
-        if (driver != null) {
+        timer.print(pool != null ? "pooled driver" : "driver");
+        if (driver != null && pool != null) {
+            pool.release(driver);
+            driver = null;
+        } else if (driver != null) {
             try {
                 driver.quit();
                 System.out.println("WebDriver closed successfully");
@@ -438,4 +749,4 @@ public class ElPaisWebScraper {
             }
         }
     }
-} 
\ No newline at end of file
+}
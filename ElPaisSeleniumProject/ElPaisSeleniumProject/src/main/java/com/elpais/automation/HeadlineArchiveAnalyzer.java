@@ -0,0 +1,176 @@
+package com.elpais.automation;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HeadlineArchiveAnalyzer counts words in a UTF-8 file of headlines, one per line
+ * The file is memory-mapped and split into line-aligned chunks that a ForkJoinPool
+ * counts in parallel, straight from the mapped bytes. Each worker thread keeps its own
+ * WordCounts table and the tables are merged at the end, so heap use grows with the
+ * vocabulary and the number of workers, not with the size of the file.
+ * Usage: HeadlineArchiveAnalyzer file [threads]
+ */
+public class HeadlineArchiveAnalyzer {
+    
+    // Largest region mapped at once; a single mapping is limited to 2 GB
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+    
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    
+    public HeadlineArchiveAnalyzer() {
+        this(ConfigManager.getArchiveAnalysisThreads(), ConfigManager.getArchiveAnalysisChunkKb() * 1024);
+    }
+    
+    /**
+     * @param threads worker threads, or 0 for one per core
+     * @param chunkBytes chunks at most this large are counted by a single task
+     */
+    public HeadlineArchiveAnalyzer(int threads, int chunkBytes) {
+        this(threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool(), chunkBytes);
+    }
+    
+    public HeadlineArchiveAnalyzer(ForkJoinPool pool, int chunkBytes) {
+        this.pool = pool;
+        this.chunkBytes = Math.max(4096, chunkBytes);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: HeadlineArchiveAnalyzer file [threads]");
+            return;
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : ConfigManager.getArchiveAnalysisThreads();
+        HeadlineArchiveAnalyzer analyzer = new HeadlineArchiveAnalyzer(threads,
+            ConfigManager.getArchiveAnalysisChunkKb() * 1024);
+        try {
+            long start = System.nanoTime();
+            WordFrequencyAnalyzer result = analyzer.analyze(Paths.get(args[0]));
+            System.out.printf("Analyzed %d headlines in %d ms%n", result.getHeadlineCount(),
+                (System.nanoTime() - start) / 1_000_000);
+            
+            Map<String, Integer> repeatedWords = result.query(WordFrequencyAnalyzer.REPEATED_THRESHOLD,
+                ConfigManager.getArchiveAnalysisTopWords());
+            TextAnalyzer.printAnalysisResults(repeatedWords);
+            TextAnalyzer.printSummaryStatistics((int) Math.min(Integer.MAX_VALUE, result.getHeadlineCount()),
+                result.getTotalWords(), result.getUniqueWords(), result.getRepeatedWordCount());
+        } finally {
+            analyzer.shutdown();
+        }
+    }
+    
+    /**
+     * Count every word in the file
+     */
+    public WordFrequencyAnalyzer analyze(Path file) throws IOException {
+        Map<Thread, WordCounts> tables = new ConcurrentHashMap<>();
+        LongAdder headlines = new LongAdder();
+        
+        List<ForkJoinTask<Void>> segments = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(MAX_SEGMENT_BYTES, size - position);
+                MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                
+                // End the segment after its last full line, unless it is the end of the file
+                int end = length;
+                if (position + length < size) {
+                    int lastNewline = length - 1;
+                    while (lastNewline >= 0 && segment.get(lastNewline) != '\n') {
+                        lastNewline--;
+                    }
+                    end = lastNewline >= 0 ? lastNewline + 1 : length;
+                }
+                segments.add(pool.submit(new CountTask(segment, 0, end, tables, headlines)));
+                position += end;
+            }
+        }
+        for (ForkJoinTask<Void> segment : segments) {
+            segment.join();
+        }
+        
+        // Fold every worker's table into the largest one
+        WordCounts merged = null;
+        for (WordCounts table : tables.values()) {
+            if (merged == null || table.size() > merged.size()) {
+                merged = table;
+            }
+        }
+        WordFrequencyAnalyzer result = new WordFrequencyAnalyzer();
+        if (merged != null) {
+            for (WordCounts table : tables.values()) {
+                if (table != merged) {
+                    merged.addAll(table);
+                }
+            }
+            result.addCounts(merged, headlines.sum());
+        }
+        return result;
+    }
+    
+    /**
+     * Stop the worker threads, unless this analyzer uses the common pool
+     */
+    public void shutdown() {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Counts bytes [from, to) of a segment, splitting at line boundaries while larger than a chunk
+     */
+    private class CountTask extends RecursiveAction {
+        
+        private final MappedByteBuffer segment;
+        private final int from;
+        private final int to;
+        private final Map<Thread, WordCounts> tables;
+        private final LongAdder headlines;
+        
+        CountTask(MappedByteBuffer segment, int from, int to, Map<Thread, WordCounts> tables, LongAdder headlines) {
+            this.segment = segment;
+            this.from = from;
+            this.to = to;
+            this.tables = tables;
+            this.headlines = headlines;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > chunkBytes) {
+                int split = nextLineStart(from + (to - from) / 2);
+                if (split < to) {
+                    invokeAll(new CountTask(segment, from, split, tables, headlines),
+                        new CountTask(segment, split, to, tables, headlines));
+                    return;
+                }
+            }
+            // Only this thread writes its table, so counting needs no locking
+            WordCounts table = tables.computeIfAbsent(Thread.currentThread(), thread -> new WordCounts());
+            headlines.add(TextAnalyzer.processBytes(segment, from, to, table));
+        }
+        
+        private int nextLineStart(int position) {
+            while (position < to && segment.get(position - 1) != '\n') {
+                position++;
+            }
+            return position;
+        }
+    }
+}
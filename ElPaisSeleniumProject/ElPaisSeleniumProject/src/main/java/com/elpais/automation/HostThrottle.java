@@ -0,0 +1,77 @@
+package com.elpais.automation;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * HostThrottle keeps crawlers polite towards each host
+ * Limits how many requests run against a host at once and spaces out
+ * the start of consecutive requests by a minimum delay.
+ */
+public class HostThrottle {
+    
+    private final int maxPerHost;
+    private final long delayMillis;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+    
+    private static class HostState {
+        final Semaphore permits;
+        long nextStartMillis;
+        
+        HostState(int maxPerHost) {
+            this.permits = new Semaphore(maxPerHost, true);
+        }
+    }
+    
+    public HostThrottle(int maxPerHost, long delayMillis) {
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.delayMillis = Math.max(0, delayMillis);
+    }
+    
+    /**
+     * Wait for a free slot on the URL's host and for its delay to pass
+     */
+    public void acquire(String url) throws InterruptedException {
+        HostState state = hosts.computeIfAbsent(hostOf(url), host -> new HostState(maxPerHost));
+        state.permits.acquire();
+        
+        // Reserve the next start time under the lock, then sleep outside it
+        long waitMillis;
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            long start = Math.max(now, state.nextStartMillis);
+            state.nextStartMillis = start + delayMillis;
+            waitMillis = start - now;
+        }
+        
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                state.permits.release();
+                throw e;
+            }
+        }
+    }
+    
+    /**
+     * Give back the slot taken by acquire
+     */
+    public void release(String url) {
+        HostState state = hosts.get(hostOf(url));
+        if (state != null) {
+            state.permits.release();
+        }
+    }
+    
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
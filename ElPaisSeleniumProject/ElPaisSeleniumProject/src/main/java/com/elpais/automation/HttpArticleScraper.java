@@ -0,0 +1,413 @@
+package com.elpais.automation;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * HttpArticleScraper scrapes the Opinion section without a browser
+ * Fetches the page over HTTP and parses it with jsoup using the same selector cascades
+ * as ElPaisWebScraper. Falls back to Selenium when the page has no article nodes.
+ */
+public class HttpArticleScraper implements ArticleScraper {
+    
+    static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    
+    // Metrics tag for phases run without a browser
+    private static final String METRICS_TAG = "http";
+    
+    private static CloseableHttpClient sharedClient;
+    
+    private final String opinionUrl;
+    private final ImageDownloadPipeline imagePipeline;
+    private final SelectorRegistry selectors;
+    private final boolean verbose;
+    private final ArticleIndex articleIndex;
+    private Document document;
+    private ElPaisWebScraper fallbackScraper;
+    
+    public HttpArticleScraper() {
+        this(ConfigManager.getElPaisBaseUrl() + ConfigManager.getElPaisOpinionSection());
+    }
+    
+    public HttpArticleScraper(String opinionUrl) {
+        this.opinionUrl = opinionUrl;
+        this.imagePipeline = ImageDownloadPipeline.getInstance();
+        this.articleIndex = defaultArticleIndex();
+        this.selectors = SelectorRegistry.forUrl(opinionUrl);
+        this.verbose = true;
+    }
+    
+    /**
+     * Quiet scraper over a page that has already been fetched, e.g. by SectionCrawler
+     * A null pipeline or index is skipped, which lets benchmarks run the selector cascade
+     * without downloads or disk reads.
+     */
+    HttpArticleScraper(String pageUrl, Document document, SelectorRegistry selectors,
+                       ImageDownloadPipeline imagePipeline, ArticleIndex articleIndex) {
+        this.opinionUrl = pageUrl;
+        this.imagePipeline = imagePipeline;
+        this.articleIndex = articleIndex;
+        this.selectors = selectors;
+        this.document = document;
+        this.verbose = false;
+    }
+    
+    /**
+     * Fetch and parse the Opinion section page
+     */
+    @Override
+    public void openOpinionSection() {
+        try {
+            System.out.println("Fetching Opinion section over HTTP: " + opinionUrl);
+            long start = System.nanoTime();
+            document = fetchDocument(opinionUrl);
+            Metrics.record(Metrics.NAVIGATION, METRICS_TAG, start);
+            System.out.println("✓ Parsed Opinion section without a browser");
+        } catch (IOException e) {
+            System.out.println("Error fetching Opinion section: " + e.getMessage());
+            document = null;
+        }
+    }
+    
+    /**
+     * Scrape articles from the parsed page, or from a browser if the page has no articles
+     */
+    @Override
+    public List<Article> scrapeArticles(int maxArticles) {
+        List<Article> articles = new ArrayList<>();
+        scrapeArticles(maxArticles, articles::add);
+        return articles;
+    }
+    
+    /**
+     * Scrape articles from the parsed page, passing each to the sink as soon as it is extracted
+     */
+    @Override
+    public void scrapeArticles(int maxArticles, Consumer<Article> sink) {
+        long startTime = System.currentTimeMillis();
+        
+        Elements articleElements = findArticleElements();
+        if (articleElements.isEmpty()) {
+            System.out.println("No article nodes in server-rendered page, falling back to browser");
+            scrapeWithBrowser(maxArticles, sink);
+            return;
+        }
+        
+        int scraped = extractArticles(articleElements, maxArticles, article -> true, sink);
+        SelectorRegistry.saveAll();
+        
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        System.out.printf("Successfully scraped %d articles in %d ms (%.1f articles/sec)%n",
+            scraped, elapsed, scraped * 1000.0 / elapsed);
+    }
+    
+    /**
+     * Extract articles from the parsed page without a browser fallback
+     */
+    List<Article> extractArticles(int maxArticles) {
+        return extractArticles(maxArticles, article -> true);
+    }
+    
+    /**
+     * Extract the articles the filter accepts, without a browser fallback
+     * The filter sees each article's title and link before it is classified against the
+     * ArticleIndex or its image is queued, so rejected articles cost neither.
+     */
+    List<Article> extractArticles(int maxArticles, Predicate<Article> filter) {
+        List<Article> articles = new ArrayList<>();
+        extractArticles(findArticleElements(), maxArticles, filter, articles::add);
+        return articles;
+    }
+    
+    /**
+     * @return number of articles passed to the sink
+     */
+    private int extractArticles(Elements articleElements, int maxArticles, Predicate<Article> filter,
+                                Consumer<Article> sink) {
+        if (articleElements.isEmpty()) {
+            return 0;
+        }
+        
+        if (verbose) {
+            System.out.println("Found " + articleElements.size() + " article elements");
+        }
+        
+        int scraped = 0;
+        int articlesToProcess = Math.min(maxArticles, articleElements.size());
+        
+        for (int i = 0; i < articlesToProcess; i++) {
+            Article article;
+            try {
+                long start = System.nanoTime();
+                article = extractArticleData(articleElements.get(i), i + 1, filter);
+                Metrics.record(Metrics.ARTICLE_EXTRACTION, METRICS_TAG, start);
+            } catch (Exception e) {
+                System.out.println("Error scraping article " + (i + 1) + ": " + e.getMessage());
+                continue;
+            }
+            
+            if (article != null) {
+                // Outside the try: a sink that fails (e.g. a stopped pipeline) stops the scrape
+                sink.accept(article);
+                scraped++;
+                if (verbose) {
+                    System.out.println("✓ Successfully scraped article " + (i + 1));
+                }
+            }
+        }
+        
+        return scraped;
+    }
+    
+    /**
+     * Download and parse a page, streaming the body straight into the parser
+     */
+    static Document fetchDocument(String url) throws IOException {
+        HttpGet request = new HttpGet(url);
+        request.setHeader("User-Agent", USER_AGENT);
+        request.setHeader("Accept-Language", "es-ES,es");
+        
+        try (CloseableHttpResponse response = getHttpClient().execute(request)) {
+            int status = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (status >= 400 || entity == null) {
+                EntityUtils.consumeQuietly(entity);
+                throw new IOException("HTTP " + status + " for " + url);
+            }
+            
+            try (InputStream body = entity.getContent()) {
+                // null charset lets jsoup detect it from the headers or meta tags
+                return Jsoup.parse(body, null, url);
+            }
+        }
+    }
+    
+    static ArticleIndex defaultArticleIndex() {
+        return ConfigManager.isArticleIndexEnabled() ? ArticleIndex.getInstance() : null;
+    }
+    
+    /**
+     * Client shared by every page fetch so connections to the same host are kept alive
+     */
+    static synchronized CloseableHttpClient getHttpClient() {
+        if (sharedClient == null) {
+            int timeoutMs = ConfigManager.getPageLoadTimeout() * 1000;
+            RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+            
+            // HostThrottle enforces politeness; the pool only needs room for every fetcher
+            int maxConnections = Math.max(1, Math.max(ConfigManager.getCrawlerFetchers(), ConfigManager.getBodyFetchThreads())) * 4;
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(maxConnections);
+            connectionManager.setDefaultMaxPerRoute(maxConnections);
+            sharedClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+        }
+        return sharedClient;
+    }
+    
+    /**
+     * Find article elements using multiple selectors
+     */
+    private Elements findArticleElements() {
+        if (document == null) {
+            return new Elements();
+        }
+        
+        for (String selector : selectors.ordered(SelectorRegistry.Role.ARTICLE)) {
+            long start = System.nanoTime();
+            Elements elements = document.select(selector);
+            recordProbe(SelectorRegistry.Role.ARTICLE, selector, !elements.isEmpty(), start);
+            if (!elements.isEmpty()) {
+                if (verbose) {
+                    System.out.println("Found articles using selector: " + selector);
+                }
+                return elements;
+            }
+        }
+        
+        selectors.reportDrift(SelectorRegistry.Role.ARTICLE);
+        return new Elements();
+    }
+    
+    /**
+     * Record one selector probe for adaptive ordering and in the probe latency histogram
+     */
+    private void recordProbe(SelectorRegistry.Role role, String selector, boolean hit, long startNanos) {
+        long costNanos = System.nanoTime() - startNanos;
+        selectors.record(role, selector, hit, costNanos);
+        Metrics.recordNanos(Metrics.SELECTOR_PROBE, METRICS_TAG, costNanos);
+    }
+    
+    /**
+     * Extract data from a single article element
+     * @return the article, or null if it has no title or the filter rejects it
+     */
+    private Article extractArticleData(Element articleElement, int articleNumber, Predicate<Article> filter) {
+        Article article = new Article();
+        article.setTitle(extractTitle(articleElement));
+        article.setContent(extractContent(articleElement));
+        
+        String imageUrl = extractImageUrl(articleElement);
+        article.setImageUrl(imageUrl);
+        article.setUrl(extractLink(articleElement));
+        
+        if (article.getTitle() == null || article.getTitle().trim().isEmpty() || !filter.test(article)) {
+            return null;
+        }
+        
+        // Reuse what earlier runs stored for this article
+        if (articleIndex != null) {
+            articleIndex.classify(article);
+        }
+        
+        if (imagePipeline != null && imageUrl != null && !imageUrl.isEmpty() && article.getImagePath() == null) {
+            imagePipeline.submit(article, imageUrl, articleNumber);
+        }
+        
+        return article;
+    }
+    
+    /**
+     * Extract title from article element
+     */
+    private String extractTitle(Element articleElement) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.TITLE)) {
+            long start = System.nanoTime();
+            Element titleElement = articleElement.selectFirst(selector);
+            String title = "";
+            if (titleElement != null) {
+                title = titleElement.text().trim();
+                
+                // Try title attribute if text is empty
+                if (title.isEmpty()) {
+                    title = titleElement.attr("title").trim();
+                }
+            }
+            
+            recordProbe(SelectorRegistry.Role.TITLE, selector, !title.isEmpty(), start);
+            if (!title.isEmpty()) {
+                return title;
+            }
+        }
+        
+        return ArticleSelectors.TITLE_NOT_FOUND;
+    }
+    
+    /**
+     * Extract content from article element
+     */
+    private String extractContent(Element articleElement) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.CONTENT)) {
+            long start = System.nanoTime();
+            Element contentElement = articleElement.selectFirst(selector);
+            String content = contentElement != null ? contentElement.text().trim() : "";
+            boolean hit = content.length() > ArticleSelectors.MIN_CONTENT_LENGTH;
+            
+            recordProbe(SelectorRegistry.Role.CONTENT, selector, hit, start);
+            if (hit) {
+                return content;
+            }
+        }
+        
+        return ArticleSelectors.CONTENT_NOT_AVAILABLE;
+    }
+    
+    /**
+     * Extract image URL from article element
+     */
+    private String extractImageUrl(Element articleElement) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.IMAGE)) {
+            long start = System.nanoTime();
+            Element imgElement = articleElement.selectFirst(selector);
+            String src = "";
+            if (imgElement != null) {
+                src = imgElement.absUrl("src");
+                
+                // Try data-src for lazy loading
+                if (!src.startsWith("http")) {
+                    src = imgElement.absUrl("data-src");
+                }
+            }
+            
+            boolean hit = src.startsWith("http");
+            recordProbe(SelectorRegistry.Role.IMAGE, selector, hit, start);
+            if (hit) {
+                return src;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Extract the link to the full article from article element
+     */
+    private String extractLink(Element articleElement) {
+        for (String selector : selectors.ordered(SelectorRegistry.Role.LINK)) {
+            long start = System.nanoTime();
+            Element linkElement = articleElement.selectFirst(selector);
+            // In-page anchors like href="#" don't lead to the article
+            String href = linkElement != null && !linkElement.attr("href").startsWith("#")
+                ? linkElement.absUrl("href") : "";
+            
+            boolean hit = href.startsWith("http");
+            recordProbe(SelectorRegistry.Role.LINK, selector, hit, start);
+            if (hit) {
+                return href;
+            }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Scrape with a local browser when the HTML has no article nodes
+     */
+    private void scrapeWithBrowser(int maxArticles, Consumer<Article> sink) {
+        if (fallbackScraper == null) {
+            // The same page and collaborators, not the Opinion section from config.properties
+            URI uri = URI.create(opinionUrl);
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            fallbackScraper = new ElPaisWebScraper(uri.getScheme() + "://" + uri.getRawAuthority(),
+                uri.getRawQuery() == null ? path : path + "?" + uri.getRawQuery(),
+                selectors, imagePipeline, articleIndex);
+            fallbackScraper.openOpinionSection();
+        }
+        fallbackScraper.scrapeArticles(maxArticles, sink);
+    }
+    
+    /**
+     * Close the fallback browser if one was started
+     */
+    @Override
+    public void close() {
+        document = null;
+        if (fallbackScraper != null) {
+            fallbackScraper.close();
+            fallbackScraper = null;
+        }
+    }
+}
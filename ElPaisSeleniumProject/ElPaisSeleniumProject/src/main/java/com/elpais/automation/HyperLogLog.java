@@ -0,0 +1,83 @@
+package com.elpais.automation;
+
+/**
+ * HyperLogLog estimates the number of distinct keys added, in fixed memory
+ * The top precision bits of each 64-bit hash pick a register, which keeps the longest
+ * run of leading zeros seen in the remaining bits. With m = 2^precision registers the
+ * relative standard error is about 1.04 / sqrt(m); small counts use linear counting.
+ */
+public class HyperLogLog {
+    
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+    
+    private final byte[] registers;
+    private final int precision;
+    
+    public HyperLogLog(int precision) {
+        this.precision = Math.min(MAX_PRECISION, Math.max(MIN_PRECISION, precision));
+        this.registers = new byte[1 << this.precision];
+    }
+    
+    /**
+     * Smallest precision whose standard error is at most relativeError
+     */
+    public static int precisionFor(double relativeError) {
+        double registers = Math.pow(1.04 / Math.max(1e-4, relativeError), 2);
+        return (int) Math.ceil(Math.log(registers) / Math.log(2));
+    }
+    
+    /**
+     * Add a key by its 64-bit hash, e.g. from CountMinSketch.hash
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // The sentinel bit caps the run length when the remaining bits are all zero
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+    
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    /**
+     * Expected relative standard error of estimate()
+     */
+    public double getStandardError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+    
+    public long getMemoryBytes() {
+        return registers.length;
+    }
+    
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
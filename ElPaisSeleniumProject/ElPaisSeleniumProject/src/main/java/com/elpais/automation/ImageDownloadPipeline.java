@@ -0,0 +1,162 @@
+package com.elpais.automation;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ImageDownloadPipeline downloads article images in the background
+ * Scrapers submit image URLs and keep extracting while a bounded pool of workers
+ * downloads them with retries, backoff and a per-host concurrency limit.
+ */
+public class ImageDownloadPipeline {
+    
+    private static ImageDownloadPipeline instance;
+    
+    private final ImageStore store;
+    private final ExecutorService executor;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Set<CompletableFuture<String>> pending = ConcurrentHashMap.newKeySet();
+    private final int maxPerHost;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    
+    public ImageDownloadPipeline(ImageStore store, int threads, int queueCapacity,
+                                 int maxPerHost, int maxRetries, long retryBackoffMs) {
+        this.store = store;
+        this.maxPerHost = maxPerHost;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        
+        // When the queue is full the submitting thread is held back (backpressure)
+        this.executor = IoExecutors.newBoundedExecutor("image-download", threads, queueCapacity);
+    }
+    
+    /**
+     * Shared pipeline configured from config.properties
+     */
+    public static synchronized ImageDownloadPipeline getInstance() {
+        if (instance == null) {
+            instance = new ImageDownloadPipeline(
+                new ImageStore(),
+                ConfigManager.getDownloadThreads(),
+                ConfigManager.getDownloadQueueCapacity(),
+                ConfigManager.getDownloadMaxPerHost(),
+                ConfigManager.getDownloadRetries(),
+                ConfigManager.getDownloadRetryBackoffMs());
+        }
+        return instance;
+    }
+    
+    /**
+     * Queue the article's image for download
+     * The article's image path is set when the download finishes; the returned
+     * future completes with the path, or null if every attempt failed.
+     * @throws RejectedExecutionException if the pipeline has been shut down
+     */
+    public CompletableFuture<String> submit(Article article, String imageUrl, int articleNumber) {
+        CompletableFuture<String> future = CompletableFuture
+            .supplyAsync(() -> downloadWithRetry(imageUrl, articleNumber), executor)
+            .thenApply(path -> {
+                article.setImagePath(path);
+                return path;
+            });
+        article.setImageDownload(future);
+        
+        // Added before the callback is registered, so a download that is already done is still removed
+        pending.add(future);
+        future.whenComplete((path, error) -> pending.remove(future));
+        return future;
+    }
+    
+    /**
+     * Wait until every submitted download has finished or the timeout expires
+     * Downloads that are still running afterwards stay pending for the next call.
+     * @return true if all downloads finished in time
+     */
+    public boolean awaitCompletion(long timeoutSeconds) {
+        List<CompletableFuture<String>> snapshot = new ArrayList<>(pending);
+        
+        if (snapshot.isEmpty()) {
+            return true;
+        }
+        
+        System.out.println("Waiting for " + snapshot.size() + " image downloads...");
+        try {
+            CompletableFuture.allOf(snapshot.toArray(new CompletableFuture[0]))
+                .get(timeoutSeconds, TimeUnit.SECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            System.out.println("⚠ Image downloads still running after " + timeoutSeconds + " seconds");
+        } catch (Exception e) {
+            System.out.println("Error waiting for image downloads: " + e.getMessage());
+        }
+        return false;
+    }
+    
+    /**
+     * Stop accepting downloads and release the worker threads
+     * Queued downloads still run; later submits throw RejectedExecutionException.
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * Download one image, holding a per-host permit and retrying with exponential backoff
+     */
+    private String downloadWithRetry(String imageUrl, int articleNumber) {
+        Semaphore permits = hostPermits.computeIfAbsent(hostOf(imageUrl), host -> new Semaphore(maxPerHost));
+        
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            try {
+                permits.acquire();
+                long start = System.nanoTime();
+                try {
+                    return store.download(imageUrl);
+                } finally {
+                    Metrics.record(Metrics.IMAGE_DOWNLOAD, Metrics.DEFAULT_TAG, start);
+                    permits.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (IOException | RuntimeException e) {
+                if (attempt == maxRetries) {
+                    System.out.println("Error downloading image for article " + articleNumber
+                        + " after " + (attempt + 1) + " attempts: " + e.getMessage());
+                    return null;
+                }
+                
+                long backoff = retryBackoffMs << attempt;
+                System.out.println("Retrying image download in " + backoff + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+    
+    private static String hostOf(String imageUrl) {
+        try {
+            String host = URI.create(imageUrl).getHost();
+            return host != null ? host : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.elpais.automation;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ImageStore saves article cover images in a content-addressed directory
+ * Files are named by the SHA-256 of their bytes, so identical images are stored once.
+ * An index maps each image URL to its hash, ETag and Last-Modified, and later
+ * downloads send conditional GETs so unchanged images are not transferred again.
+ */
+public class ImageStore {
+    
+    private static final String INDEX_FILE = "image-index.json";
+    private static final int TIMEOUT_MS = 5000;
+    
+    private final Path downloadDir;
+    private final Path indexFile;
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Map<String, Entry> index;
+    
+    /**
+     * Index entry for one image URL
+     */
+    static class Entry {
+        String hash;
+        String fileName;
+        String etag;
+        String lastModified;
+    }
+    
+    public ImageStore() {
+        this(ConfigManager.getDownloadDirectory());
+    }
+    
+    public ImageStore(String downloadDir) {
+        this.downloadDir = Paths.get(downloadDir);
+        this.indexFile = this.downloadDir.resolve(INDEX_FILE);
+        
+        // Create download directory if it doesn't exist
+        createDownloadDirectory();
+        this.index = loadIndex();
+    }
+    
+    /**
+     * Download image from URL, or reuse the stored copy if the server reports it unchanged
+     * Failures propagate so the caller can retry
+     * @return local file path
+     */
+    public String download(String imageUrl) throws IOException {
+        Entry cached = lookup(imageUrl);
+        
+        HttpURLConnection connection = (HttpURLConnection) new URL(imageUrl).openConnection();
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
+        if (cached != null) {
+            if (cached.etag != null) {
+                connection.setRequestProperty("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+            }
+        }
+        
+        try {
+            int status = connection.getResponseCode();
+            
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                System.out.println("✓ Image unchanged (304): " + cached.fileName);
+                return downloadDir.resolve(cached.fileName).toString();
+            }
+            if (status >= 400) {
+                throw new IOException("HTTP " + status + " for " + imageUrl);
+            }
+            
+            Entry entry = new Entry();
+            entry.etag = connection.getHeaderField("ETag");
+            entry.lastModified = connection.getHeaderField("Last-Modified");
+            
+            try (InputStream body = connection.getInputStream()) {
+                store(body, extensionOf(imageUrl), entry);
+            }
+            
+            update(imageUrl, entry);
+            return downloadDir.resolve(entry.fileName).toString();
+            
+        } finally {
+            connection.disconnect();
+        }
+    }
+    
+    /**
+     * Stream the body to a temp file while hashing it, then move it to its content address
+     */
+    private void store(InputStream body, String extension, Entry entry) throws IOException {
+        MessageDigest digest = newDigest();
+        Path tempFile = Files.createTempFile(downloadDir, "download-", ".tmp");
+        
+        try {
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(tempFile), digest)) {
+                body.transferTo(out);
+            }
+            
+            entry.hash = toHex(digest.digest());
+            entry.fileName = entry.hash + extension;
+            Path target = downloadDir.resolve(entry.fileName);
+            
+            if (Files.exists(target)) {
+                // Same bytes were already stored, possibly under another URL
+                System.out.println("✓ Image already stored: " + entry.fileName);
+            } else {
+                // Identical content, so a concurrent move replacing the target is harmless
+                Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+                System.out.println("✓ Downloaded image: " + entry.fileName);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+    
+    /**
+     * Return the index entry for a URL if its file is still on disk
+     */
+    private synchronized Entry lookup(String imageUrl) {
+        Entry entry = index.get(imageUrl);
+        if (entry != null && Files.exists(downloadDir.resolve(entry.fileName))) {
+            return entry;
+        }
+        return null;
+    }
+    
+    private synchronized void update(String imageUrl, Entry entry) {
+        index.put(imageUrl, entry);
+        saveIndex();
+    }
+    
+    private Map<String, Entry> loadIndex() {
+        if (!Files.exists(indexFile)) {
+            return new HashMap<>();
+        }
+        
+        try (Reader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+            Map<String, Entry> loaded = gson.fromJson(reader, new TypeToken<Map<String, Entry>>() {}.getType());
+            return loaded != null ? loaded : new HashMap<>();
+        } catch (Exception e) {
+            System.out.println("Error reading image index, starting fresh: " + e.getMessage());
+            return new HashMap<>();
+        }
+    }
+    
+    private void saveIndex() {
+        try {
+            Path tempFile = downloadDir.resolve(INDEX_FILE + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(index, writer);
+            }
+            Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Error saving image index: " + e.getMessage());
+        }
+    }
+    
+    private static String extensionOf(String imageUrl) {
+        String path = imageUrl;
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        
+        int dot = path.lastIndexOf('.');
+        if (dot < 0 || dot < path.lastIndexOf('/')) {
+            return ".jpg"; // Default extension
+        }
+        
+        String extension = path.substring(dot);
+        return extension.length() > 5 ? ".jpg" : extension;
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+    
+    /**
+     * Create download directory
+     */
+    private void createDownloadDirectory() {
+        try {
+            File dir = downloadDir.toFile();
+            if (!dir.exists()) {
+                dir.mkdirs();
+                System.out.println("Created download directory: " + downloadDir);
+            }
+        } catch (Exception e) {
+            System.out.println("Error creating download directory: " + e.getMessage());
+        }
+    }
+}
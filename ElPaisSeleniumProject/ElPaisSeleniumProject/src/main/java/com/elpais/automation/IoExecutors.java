@@ -0,0 +1,215 @@
+package com.elpais.automation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * IoExecutors creates the executors used for network-bound work
+ * With execution.mode=platform (the default) tasks run on a fixed pool of daemon threads.
+ * With execution.mode=virtual and a Java 21+ runtime every task gets its own virtual
+ * thread, and a semaphore takes the place of the pool size as the concurrency limit.
+ * Virtual threads are looked up reflectively so the project still builds for Java 11.
+ */
+public final class IoExecutors {
+    
+    public static final String MODE_PLATFORM = "platform";
+    public static final String MODE_VIRTUAL = "virtual";
+    
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+    private static volatile boolean warned;
+    
+    private IoExecutors() {
+    }
+    
+    /**
+     * True if this JVM can run tasks on virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+    
+    /**
+     * Mode actually in use: the configured one, or platform if virtual threads are unavailable
+     */
+    public static String getMode() {
+        return resolveMode(ConfigManager.getExecutionMode());
+    }
+    
+    /**
+     * Executor running at most maxConcurrency tasks at once, in the configured mode
+     */
+    public static ExecutorService newExecutor(String name, int maxConcurrency) {
+        return newExecutor(getMode(), name, maxConcurrency);
+    }
+    
+    public static ExecutorService newExecutor(String mode, String name, int maxConcurrency) {
+        int limit = Math.max(1, maxConcurrency);
+        if (MODE_VIRTUAL.equals(resolveMode(mode))) {
+            return new VirtualThreadExecutor(newVirtualThreadPerTaskExecutor(), limit, 0);
+        }
+        return Executors.newFixedThreadPool(limit, daemonThreads(name));
+    }
+    
+    /**
+     * Executor with room for queueCapacity waiting tasks on top of the running ones
+     * When that room is used up the submitting thread is held back (backpressure): a
+     * platform pool runs the task on the caller, virtual mode blocks the caller until
+     * a task finishes. After shutdown both reject new tasks with RejectedExecutionException.
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queueCapacity) {
+        int limit = Math.max(1, threads);
+        int capacity = Math.max(1, queueCapacity);
+        if (MODE_VIRTUAL.equals(getMode())) {
+            return new VirtualThreadExecutor(newVirtualThreadPerTaskExecutor(), limit, limit + capacity);
+        }
+        
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(limit, limit, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(capacity), daemonThreads(name), IoExecutors::runOnCaller);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+    
+    /**
+     * CallerRunsPolicy, except that a shut down pool throws instead of silently dropping the task
+     */
+    private static void runOnCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Executor has been shut down");
+        }
+        task.run();
+    }
+    
+    private static String resolveMode(String mode) {
+        if (!MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return MODE_PLATFORM;
+        }
+        if (!isVirtualThreadsSupported()) {
+            if (!warned) {
+                warned = true;
+                System.out.println("⚠ execution.mode=virtual needs Java 21+ (running on "
+                    + System.getProperty("java.version") + "), using platform threads");
+            }
+            return MODE_PLATFORM;
+        }
+        return MODE_VIRTUAL;
+    }
+    
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    private static Method findVirtualExecutorFactory() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // On Java 19/20 the method exists but throws unless preview features are enabled
+            ((ExecutorService) factory.invoke(null)).shutdown();
+            return factory;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+    
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not create virtual thread executor", e);
+        }
+    }
+    
+    /**
+     * One virtual thread per task, with semaphores limiting how many run and how many are admitted
+     */
+    private static final class VirtualThreadExecutor extends AbstractExecutorService {
+        
+        private final ExecutorService delegate;
+        private final Semaphore running;
+        private final Semaphore admitted;
+        
+        /**
+         * @param maxAdmitted tasks allowed to be running or waiting before execute blocks, 0 for no limit
+         */
+        VirtualThreadExecutor(ExecutorService delegate, int maxRunning, int maxAdmitted) {
+            this.delegate = delegate;
+            this.running = new Semaphore(maxRunning, true);
+            this.admitted = maxAdmitted > 0 ? new Semaphore(maxAdmitted) : null;
+        }
+        
+        @Override
+        public void execute(Runnable command) {
+            if (admitted != null) {
+                try {
+                    admitted.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting to submit", e);
+                }
+            }
+            
+            try {
+                delegate.execute(() -> {
+                    try {
+                        // Parking a virtual thread here is cheap; it holds no carrier while it waits
+                        running.acquire();
+                        try {
+                            command.run();
+                        } finally {
+                            running.release();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        if (admitted != null) {
+                            admitted.release();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                if (admitted != null) {
+                    admitted.release();
+                }
+                throw e;
+            }
+        }
+        
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+        
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+        
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+        
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+        
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
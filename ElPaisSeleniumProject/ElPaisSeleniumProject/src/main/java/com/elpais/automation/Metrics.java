@@ -0,0 +1,245 @@
+package com.elpais.automation;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics keeps a latency histogram per phase and browser configuration
+ * Phases are recorded from the scraper, image pipeline, translation service and
+ * analysis. At the end of a run the numbers are written as JSON and in the Prometheus
+ * text format, and metrics.http.port serves the same text at /metrics while running
+ * (on the loopback interface unless metrics.http.host names another address).
+ */
+public final class Metrics {
+    
+    public static final String DRIVER_INIT = "driver_init";
+    public static final String NAVIGATION = "navigation";
+    public static final String SELECTOR_PROBE = "selector_probe";
+    public static final String ARTICLE_EXTRACTION = "article_extraction";
+    public static final String IMAGE_DOWNLOAD = "image_download";
+    public static final String TRANSLATION = "translation";
+    public static final String ANALYSIS = "analysis";
+    
+    /**
+     * Tag for work not tied to a browser session
+     */
+    public static final String DEFAULT_TAG = "local";
+    
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+    
+    private static final boolean ENABLED = ConfigManager.isMetricsEnabled();
+    private static final Map<String, Map<String, LatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private static HttpServer server;
+    
+    private Metrics() {
+    }
+    
+    /**
+     * Record the time since startNanos (from System.nanoTime) for a phase
+     */
+    public static void record(String phase, String tag, long startNanos) {
+        recordNanos(phase, tag, System.nanoTime() - startNanos);
+    }
+    
+    public static void recordNanos(String phase, String tag, long nanos) {
+        if (ENABLED) {
+            histogram(phase, tag).record(nanos);
+        }
+    }
+    
+    /**
+     * Histogram for a phase and tag, created on first use
+     * Callers on very hot paths may keep the returned histogram and record into it directly.
+     */
+    public static LatencyHistogram histogram(String phase, String tag) {
+        Map<String, LatencyHistogram> byTag = histograms.get(phase);
+        if (byTag == null) {
+            byTag = histograms.computeIfAbsent(phase, key -> new ConcurrentHashMap<>());
+        }
+        String key = tag != null ? tag : DEFAULT_TAG;
+        LatencyHistogram histogram = byTag.get(key);
+        return histogram != null ? histogram : byTag.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+    
+    /**
+     * Serve /metrics (Prometheus text) and /metrics.json on the given port until the JVM exits
+     * @param host address to listen on, or empty for the loopback interface only
+     */
+    public static synchronized void startHttpEndpoint(String host, int port) {
+        if (server != null || port <= 0) {
+            return;
+        }
+        InetSocketAddress address = host == null || host.isEmpty()
+            ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+            : new InetSocketAddress(host, port);
+        if (address.isUnresolved()) {
+            System.out.println("Error starting metrics endpoint: unknown host " + host);
+            return;
+        }
+        try {
+            server = HttpServer.create(address, 0);
+            server.createContext("/metrics", exchange -> {
+                boolean json = exchange.getRequestURI().getPath().endsWith(".json");
+                byte[] body = (json ? toJson() : toPrometheus()).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type",
+                    json ? "application/json; charset=utf-8" : "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-http");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            System.out.println("✓ Metrics available at http://" + address.getHostString() + ":" + port + "/metrics");
+        } catch (IOException e) {
+            System.out.println("Error starting metrics endpoint on " + address + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the JSON and Prometheus files configured in config.properties and print a summary
+     */
+    public static void export() {
+        if (!ENABLED || histograms.isEmpty()) {
+            return;
+        }
+        writeFile(Paths.get(ConfigManager.getMetricsJsonFile()), toJson());
+        writeFile(Paths.get(ConfigManager.getMetricsPrometheusFile()), toPrometheus());
+        printSummary();
+    }
+    
+    public static void printSummary() {
+        System.out.println("\n=== PHASE LATENCY (ms) ===");
+        System.out.printf("%-20s %-40s %7s %9s %9s %9s %9s%n", "Phase", "Browser", "Count", "p50", "p95", "p99", "Max");
+        for (Row row : rows()) {
+            LatencyHistogram h = row.histogram;
+            System.out.printf("%-20s %-40s %7d %9.2f %9.2f %9.2f %9.2f%n", row.phase, row.tag, h.getCount(),
+                millis(h.percentileNanos(0.5)), millis(h.percentileNanos(0.95)),
+                millis(h.percentileNanos(0.99)), millis(h.getMaxNanos()));
+        }
+        System.out.println("==========================");
+    }
+    
+    static String toJson() {
+        JsonArray phases = new JsonArray();
+        for (Row row : rows()) {
+            LatencyHistogram h = row.histogram;
+            JsonObject entry = new JsonObject();
+            entry.addProperty("phase", row.phase);
+            entry.addProperty("browser", row.tag);
+            entry.addProperty("count", h.getCount());
+            entry.addProperty("sumMs", millis(h.getSumNanos()));
+            entry.addProperty("meanMs", h.getCount() == 0 ? 0 : millis(h.getSumNanos() / h.getCount()));
+            entry.addProperty("p50Ms", millis(h.percentileNanos(0.5)));
+            entry.addProperty("p95Ms", millis(h.percentileNanos(0.95)));
+            entry.addProperty("p99Ms", millis(h.percentileNanos(0.99)));
+            entry.addProperty("maxMs", millis(h.getMaxNanos()));
+            phases.add(entry);
+        }
+        JsonObject root = new JsonObject();
+        root.addProperty("generatedAt", Instant.now().toString());
+        root.add("phases", phases);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(root);
+    }
+    
+    /**
+     * Prometheus text exposition format, one summary per phase and browser
+     */
+    static String toPrometheus() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP elpais_phase_duration_seconds Time spent in each phase of a run\n");
+        out.append("# TYPE elpais_phase_duration_seconds summary\n");
+        List<Row> rows = rows();
+        for (Row row : rows) {
+            String labels = "phase=\"" + escape(row.phase) + "\",browser=\"" + escape(row.tag) + "\"";
+            for (double quantile : QUANTILES) {
+                out.append("elpais_phase_duration_seconds{").append(labels)
+                    .append(",quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(row.histogram.percentileNanos(quantile))).append('\n');
+            }
+            out.append("elpais_phase_duration_seconds_sum{").append(labels).append("} ")
+                .append(seconds(row.histogram.getSumNanos())).append('\n');
+            out.append("elpais_phase_duration_seconds_count{").append(labels).append("} ")
+                .append(row.histogram.getCount()).append('\n');
+        }
+        out.append("# HELP elpais_phase_duration_max_seconds Longest single duration seen per phase\n");
+        out.append("# TYPE elpais_phase_duration_max_seconds gauge\n");
+        for (Row row : rows) {
+            out.append("elpais_phase_duration_max_seconds{phase=\"").append(escape(row.phase))
+                .append("\",browser=\"").append(escape(row.tag)).append("\"} ")
+                .append(seconds(row.histogram.getMaxNanos())).append('\n');
+        }
+        return out.toString();
+    }
+    
+    private static class Row {
+        final String phase;
+        final String tag;
+        final LatencyHistogram histogram;
+        
+        Row(String phase, String tag, LatencyHistogram histogram) {
+            this.phase = phase;
+            this.tag = tag;
+            this.histogram = histogram;
+        }
+    }
+    
+    private static List<Row> rows() {
+        List<Row> rows = new ArrayList<>();
+        histograms.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(phase ->
+            phase.getValue().entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(tag ->
+                rows.add(new Row(phase.getKey(), tag.getKey(), tag.getValue()))));
+        return rows;
+    }
+    
+    private static void writeFile(Path file, String content) {
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path tempFile = Files.createTempFile(dir, "metrics", ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(content);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("✓ Metrics written to " + file);
+        } catch (IOException e) {
+            System.out.println("Error writing metrics to " + file + ": " + e.getMessage());
+        }
+    }
+    
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+    
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+    
+    private static double seconds(long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,184 @@
+package com.elpais.automation;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.utils.URIBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * MyMemoryTranslationProvider translates through the MyMemory HTTP API (free service)
+ * Shares one pooled keep-alive client and one rate limiter across instances.
+ */
+public class MyMemoryTranslationProvider implements TranslationProvider {
+    
+    // One pooled keep-alive client shared by every provider instance
+    private static CloseableHttpClient sharedClient;
+    private static TokenBucketRateLimiter rateLimiter;
+    
+    private final String apiUrl;
+    private final TokenBucketRateLimiter instanceRateLimiter;
+    
+    public MyMemoryTranslationProvider() {
+        this(ConfigManager.getTranslationApiUrl());
+    }
+    
+    public MyMemoryTranslationProvider(String apiUrl) {
+        this(apiUrl, null);
+    }
+    
+    /**
+     * @param rateLimiter limiter for this instance only, or null to share the configured one
+     */
+    MyMemoryTranslationProvider(String apiUrl, TokenBucketRateLimiter rateLimiter) {
+        this.apiUrl = apiUrl;
+        this.instanceRateLimiter = rateLimiter;
+    }
+    
+    @Override
+    public String getName() {
+        return "mymemory";
+    }
+    
+    @Override
+    public boolean isNetworkBound() {
+        return true;
+    }
+    
+    /**
+     * Call the translation API for a single text
+     * @return translated text, or null if the API answered with an error or no translation
+     */
+    @Override
+    public String translate(String text, String langPair) throws IOException, URISyntaxException {
+        // Build the API request URL with proper encoding
+        String requestUrl = buildRequestUrl(text, langPair);
+        
+        // Respect the API quota before making the HTTP request
+        TokenBucketRateLimiter limiter = instanceRateLimiter != null ? instanceRateLimiter : getRateLimiter();
+        try {
+            if (limiter != null) {
+                limiter.acquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for rate limiter", e);
+        }
+        String response = makeHttpRequest(requestUrl);
+        if (response == null) {
+            return null;
+        }
+        
+        // Parse the JSON response
+        return parseTranslationResponse(response);
+    }
+    
+    private String buildRequestUrl(String text, String langPair) throws URISyntaxException {
+        URIBuilder builder = new URIBuilder(this.apiUrl);
+        builder.addParameter("q", text);
+        builder.addParameter("langpair", langPair);
+        return builder.build().toString();
+    }
+    
+    /**
+     * Make HTTP GET request to the translation API
+     * @param url the API URL
+     * @return response body as string, or null if the status is not 2xx
+     */
+    private String makeHttpRequest(String url) throws IOException {
+        HttpGet request = new HttpGet(url);
+        
+        // Set user agent to avoid blocking
+        request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+        
+        try (CloseableHttpResponse response = getHttpClient().execute(request)) {
+            HttpEntity entity = response.getEntity();
+            int status = response.getStatusLine().getStatusCode();
+            if (status < 200 || status >= 300) {
+                System.out.println("Translation API returned HTTP " + status);
+                // Drain the body so the connection goes back to the pool
+                EntityUtils.consume(entity);
+                return null;
+            }
+            if (entity != null) {
+                return EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+    
+    private static synchronized CloseableHttpClient getHttpClient() {
+        if (sharedClient == null) {
+            // A stalled API call must not hold a translation thread forever
+            int timeoutMs = ConfigManager.getTranslationTimeoutSeconds() * 1000;
+            RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(timeoutMs)
+                .setConnectTimeout(timeoutMs)
+                .setSocketTimeout(timeoutMs)
+                .build();
+            
+            PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+            connectionManager.setMaxTotal(ConfigManager.getTranslationConcurrency() * 2);
+            connectionManager.setDefaultMaxPerRoute(ConfigManager.getTranslationConcurrency());
+            sharedClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .build();
+        }
+        return sharedClient;
+    }
+    
+    /**
+     * Limiter shared by every instance, or null when translation.rate.per.second is 0 (no limit)
+     */
+    private static synchronized TokenBucketRateLimiter getRateLimiter() {
+        if (rateLimiter == null && ConfigManager.getTranslationRatePerSecond() > 0) {
+            rateLimiter = new TokenBucketRateLimiter(
+                ConfigManager.getTranslationRatePerSecond(), ConfigManager.getTranslationRateBurst());
+        }
+        return rateLimiter;
+    }
+    
+    /**
+     * Parse the JSON response from translation API
+     * @param jsonResponse the JSON response string
+     * Quota and error messages such as "MYMEMORY WARNING" come back as translatedText
+     * with HTTP 200, so only a responseStatus of 200 counts as a translation.
+     * @return translated text, or null if the response is an error or has none
+     */
+    static String parseTranslationResponse(String jsonResponse) {
+        try {
+            JsonObject jsonObject = JsonParser.parseString(jsonResponse).getAsJsonObject();
+            
+            // responseStatus is a number on success and sometimes a string on errors
+            if (!jsonObject.has("responseStatus") || jsonObject.get("responseStatus").getAsInt() != 200) {
+                System.out.println("Translation API error: "
+                    + (jsonObject.has("responseDetails") ? jsonObject.get("responseDetails") : jsonObject.get("responseStatus")));
+                return null;
+            }
+            
+            // MyMemory API response structure: {"responseData":{"translatedText":"..."}}
+            if (jsonObject.has("responseData")) {
+                JsonObject responseData = jsonObject.getAsJsonObject("responseData");
+                if (responseData.has("translatedText")) {
+                    return responseData.get("translatedText").getAsString();
+                }
+            }
+            
+        } catch (Exception e) {
+            System.out.println("Error parsing translation response: " + e.getMessage());
+        }
+        
+        return null;
+    }
+}
@@ -0,0 +1,209 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * NetworkBlocker stops Chrome from loading resources the scraper never reads
+ * Uses the DevTools Network.setBlockedURLs command with URL patterns from config.
+ * Resource-type rules (font, media, image, stylesheet) are expanded to file-extension patterns.
+ * Only Chromium drivers support this; other drivers load pages unchanged.
+ */
+public class NetworkBlocker {
+    
+    private static final Map<String, List<String>> RESOURCE_TYPE_PATTERNS = new HashMap<>();
+    
+    static {
+        RESOURCE_TYPE_PATTERNS.put("font", Arrays.asList("*.woff", "*.woff2", "*.ttf", "*.otf", "*.eot"));
+        RESOURCE_TYPE_PATTERNS.put("media", Arrays.asList("*.mp4", "*.webm", "*.m3u8", "*.mp3"));
+        RESOURCE_TYPE_PATTERNS.put("image", Arrays.asList("*.jpg", "*.jpeg", "*.png", "*.gif", "*.webp", "*.avif", "*.svg"));
+        RESOURCE_TYPE_PATTERNS.put("stylesheet", Collections.singletonList("*.css"));
+    }
+    
+    // Sums transfer sizes from the Resource Timing API and reads navigation timing
+    private static final String PAGE_STATS_SCRIPT =
+        "var resources = performance.getEntriesByType('resource'), bytes = 0;\n" +
+        "for (var i = 0; i < resources.length; i++) { bytes += resources[i].transferSize || 0; }\n" +
+        "var nav = performance.getEntriesByType('navigation')[0];\n" +
+        "if (nav) { bytes += nav.transferSize || 0; }\n" +
+        "return {bytes: bytes, requests: resources.length,\n" +
+        "        domContentLoaded: nav ? nav.domContentLoadedEventEnd : 0,\n" +
+        "        load: nav ? (nav.loadEventEnd || nav.duration) : 0};";
+    
+    /**
+     * Bytes transferred, request count and timings for the current page
+     */
+    public static class PageLoadStats {
+        public final long bytes;
+        public final long requests;
+        public final long domContentLoadedMs;
+        public final long loadMs;
+        
+        PageLoadStats(long bytes, long requests, long domContentLoadedMs, long loadMs) {
+            this.bytes = bytes;
+            this.requests = requests;
+            this.domContentLoadedMs = domContentLoadedMs;
+            this.loadMs = loadMs;
+        }
+        
+        @Override
+        public String toString() {
+            return String.format("%d requests, %.1f KB, DOMContentLoaded %d ms, load %d ms",
+                requests, bytes / 1024.0, domContentLoadedMs, loadMs);
+        }
+    }
+    
+    /**
+     * Block the configured URL patterns and resource types on this driver
+     * @return true if blocking is active
+     */
+    public static boolean apply(WebDriver driver) {
+        return apply(driver, getConfiguredPatterns());
+    }
+    
+    public static boolean apply(WebDriver driver, List<String> patterns) {
+        if (!(driver instanceof HasCdp)) {
+            System.out.println("⚠ Network blocking needs a Chromium driver, skipping");
+            return false;
+        }
+        
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.enable", new HashMap<>());
+            
+            Map<String, Object> params = new HashMap<>();
+            params.put("urls", patterns);
+            cdp.executeCdpCommand("Network.setBlockedURLs", params);
+            
+            System.out.println("✓ Blocking " + patterns.size() + " URL patterns via DevTools");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Error enabling network blocking: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Remove all blocking rules from this driver
+     */
+    public static void clear(WebDriver driver) {
+        if (driver instanceof HasCdp) {
+            apply(driver, new ArrayList<>());
+        }
+    }
+    
+    /**
+     * Read transfer size and timing of the currently loaded page
+     */
+    @SuppressWarnings("unchecked")
+    public static PageLoadStats measure(WebDriver driver) {
+        Map<String, Object> stats = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(PAGE_STATS_SCRIPT);
+        return new PageLoadStats(
+            toLong(stats.get("bytes")),
+            toLong(stats.get("requests")),
+            toLong(stats.get("domContentLoaded")),
+            toLong(stats.get("load")));
+    }
+    
+    /**
+     * Load the URL without and then with blocking and print the difference
+     * Both loads start from an empty cache with caching off, or the second one would
+     * be served the assets the first one downloaded.
+     */
+    public static void compare(WebDriver driver, String url) {
+        try {
+            PageLoadStats unblocked = measureLoad(driver, url, new ArrayList<>());
+            PageLoadStats blocked = measureLoad(driver, url, getConfiguredPatterns());
+            
+            System.out.println("Page load without blocking: " + unblocked);
+            System.out.println("Page load with blocking:    " + blocked);
+            System.out.printf("Network blocking saved %.1f KB, %d requests and %d ms of load time%n",
+                (unblocked.bytes - blocked.bytes) / 1024.0,
+                unblocked.requests - blocked.requests,
+                unblocked.loadMs - blocked.loadMs);
+        } catch (Exception e) {
+            System.out.println("Error measuring network blocking: " + e.getMessage());
+        } finally {
+            setCacheDisabled(driver, false);
+        }
+    }
+    
+    /**
+     * Load the URL from an empty browser cache with these patterns blocked, and measure it
+     * Caching stays off afterwards until setCacheDisabled(driver, false).
+     */
+    static PageLoadStats measureLoad(WebDriver driver, String url, List<String> patterns) {
+        driver.get("about:blank");
+        apply(driver, patterns);
+        setCacheDisabled(driver, true);
+        driver.get(url);
+        ReadinessWait.until(driver, ReadinessCondition.documentComplete(), ConfigManager.getWaitTimeoutMillis(), null, null);
+        return measure(driver);
+    }
+    
+    /**
+     * Turn the browser cache off (clearing what is in it) or back on
+     */
+    static void setCacheDisabled(WebDriver driver, boolean disabled) {
+        if (!(driver instanceof HasCdp)) {
+            return;
+        }
+        
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            Map<String, Object> params = new HashMap<>();
+            params.put("cacheDisabled", disabled);
+            cdp.executeCdpCommand("Network.setCacheDisabled", params);
+            if (disabled) {
+                cdp.executeCdpCommand("Network.clearBrowserCache", new HashMap<>());
+            }
+        } catch (Exception e) {
+            System.out.println("Error changing the browser cache: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * URL patterns from network.block.url.patterns plus those for network.block.resource.types
+     */
+    public static List<String> getConfiguredPatterns() {
+        Set<String> patterns = new LinkedHashSet<>(splitList(ConfigManager.getNetworkBlockUrlPatterns()));
+        
+        for (String type : splitList(ConfigManager.getNetworkBlockResourceTypes())) {
+            List<String> typePatterns = RESOURCE_TYPE_PATTERNS.get(type.toLowerCase());
+            if (typePatterns != null) {
+                patterns.addAll(typePatterns);
+            } else {
+                System.out.println("⚠ Unknown resource type for network blocking: " + type);
+            }
+        }
+        
+        return new ArrayList<>(patterns);
+    }
+    
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        if (value == null) {
+            return items;
+        }
+        for (String item : value.split(",")) {
+            if (!item.trim().isEmpty()) {
+                items.add(item.trim());
+            }
+        }
+        return items;
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,144 @@
+package com.elpais.automation;
+
+import java.util.Locale;
+
+/**
+ * OfflineTranslationProvider translates Spanish to English with a local phrase table
+ * Uses greedy longest-match lookup over the words of each line, so no network is needed.
+ * Lines where too few words are covered by the table count as a miss.
+ */
+public class OfflineTranslationProvider implements TranslationProvider {
+    
+    private static final String SUPPORTED_LANG_PAIR = "es|en";
+    
+    private final PhraseTable table;
+    private final double minCoverage;
+    
+    /**
+     * @param minCoverage fraction of words that must be found in the table, 0 to always translate
+     */
+    public OfflineTranslationProvider(PhraseTable table, double minCoverage) {
+        this.table = table;
+        this.minCoverage = minCoverage;
+    }
+    
+    @Override
+    public String getName() {
+        return "offline";
+    }
+    
+    @Override
+    public boolean isNetworkBound() {
+        return false;
+    }
+    
+    @Override
+    public String translate(String text, String langPair) {
+        if (!SUPPORTED_LANG_PAIR.equals(langPair)) {
+            return null;
+        }
+        
+        String[] lines = text.split(TranslationService.PACK_DELIMITER, -1);
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = translateLine(lines[i]);
+            if (lines[i] == null) {
+                return null;
+            }
+        }
+        return lines.length == 1 ? lines[0] : String.join(TranslationService.PACK_DELIMITER, lines);
+    }
+    
+    /**
+     * Translate one line, copying punctuation and spacing from the source
+     */
+    private String translateLine(String line) {
+        int length = line.length();
+        int[] wordStarts = new int[length / 2 + 1];
+        int[] wordEnds = new int[length / 2 + 1];
+        int wordCount = 0;
+        
+        // Find word boundaries (letters and digits, including accented letters)
+        int pos = 0;
+        while (pos < length) {
+            while (pos < length && !Character.isLetterOrDigit(line.charAt(pos))) {
+                pos++;
+            }
+            if (pos == length) {
+                break;
+            }
+            wordStarts[wordCount] = pos;
+            while (pos < length && Character.isLetterOrDigit(line.charAt(pos))) {
+                pos++;
+            }
+            wordEnds[wordCount++] = pos;
+        }
+        
+        StringBuilder out = new StringBuilder(length + 16);
+        int covered = 0;
+        int copiedUpTo = 0;
+        int maxWords = table.getMaxPhraseWords();
+        
+        int i = 0;
+        while (i < wordCount) {
+            String match = null;
+            int matchedWords = 0;
+            
+            // Try the longest phrase starting at word i first
+            StringBuilder phrase = new StringBuilder();
+            int limit = Math.min(maxWords, wordCount - i);
+            String[] candidates = new String[limit];
+            for (int n = 0; n < limit; n++) {
+                if (n > 0) {
+                    if (!isSpaceOnly(line, wordEnds[i + n - 1], wordStarts[i + n])) {
+                        limit = n;
+                        break;
+                    }
+                    phrase.append(' ');
+                }
+                phrase.append(line, wordStarts[i + n], wordEnds[i + n]);
+                candidates[n] = phrase.toString().toLowerCase(Locale.ROOT);
+            }
+            for (int n = limit; n >= 1; n--) {
+                match = table.lookup(candidates[n - 1]);
+                if (match != null) {
+                    matchedWords = n;
+                    break;
+                }
+            }
+            
+            out.append(line, copiedUpTo, wordStarts[i]);
+            if (match != null) {
+                // Carry capitalization over for sentence starts and proper nouns
+                if (!match.isEmpty() && Character.isUpperCase(line.charAt(wordStarts[i]))) {
+                    out.append(Character.toUpperCase(match.charAt(0))).append(match, 1, match.length());
+                } else {
+                    out.append(match);
+                }
+                covered += matchedWords;
+                i += matchedWords;
+            } else {
+                out.append(line, wordStarts[i], wordEnds[i]);
+                if (Character.isDigit(line.charAt(wordStarts[i]))) {
+                    covered++; // Numbers need no translation
+                }
+                i++;
+            }
+            copiedUpTo = wordEnds[i - 1];
+        }
+        out.append(line, copiedUpTo, length);
+        
+        if (wordCount > 0 && (double) covered / wordCount < minCoverage) {
+            return null;
+        }
+        return out.toString();
+    }
+    
+    private static boolean isSpaceOnly(String line, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (line.charAt(i) != ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
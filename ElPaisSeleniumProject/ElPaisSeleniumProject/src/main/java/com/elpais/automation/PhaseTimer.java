@@ -0,0 +1,148 @@
+package com.elpais.automation;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhaseTimer collects wall-clock time per scraping phase for one scraper
+ * Phases started with a metric name are also recorded in Metrics, tagged with the
+ * scraper's browser configuration. Readiness waits recorded while a phase is running
+ * are shown under that phase and are already part of its time, so the total leaves them out.
+ */
+public class PhaseTimer {
+    
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Long> probes = new LinkedHashMap<>();
+    private final Map<String, Long> waits = new LinkedHashMap<>();
+    private final Map<String, String> waitParents = new LinkedHashMap<>();
+    private final Deque<String> running = new ArrayDeque<>();
+    private volatile String metricsTag = Metrics.DEFAULT_TAG;
+    
+    /**
+     * Add elapsed milliseconds to a phase
+     */
+    public synchronized void record(String phase, long elapsedMillis) {
+        phases.merge(phase, elapsedMillis, Long::sum);
+    }
+    
+    /**
+     * Add elapsed milliseconds and the number of readiness probes to a wait phase
+     * The wait is nested under the innermost running phase, if any.
+     */
+    public synchronized void recordWait(String phase, long elapsedMillis, int probeCount) {
+        String parent = running.peekLast();
+        if (parent == null) {
+            record(phase, elapsedMillis);
+        } else {
+            waits.merge(phase, elapsedMillis, Long::sum);
+            waitParents.putIfAbsent(phase, parent);
+        }
+        probes.merge(phase, (long) probeCount, Long::sum);
+    }
+    
+    /**
+     * Start timing a phase; call the returned handle's stop() when it ends
+     */
+    public Phase start(String phase) {
+        return start(phase, null);
+    }
+    
+    /**
+     * Start timing a phase that is also recorded under the given Metrics phase
+     */
+    public Phase start(String phase, String metric) {
+        synchronized (this) {
+            running.addLast(phase);
+        }
+        return new Phase(phase, metric, System.nanoTime());
+    }
+    
+    /**
+     * Browser configuration that recorded metrics are tagged with
+     */
+    public void setMetricsTag(String metricsTag) {
+        this.metricsTag = metricsTag;
+    }
+    
+    public String getMetricsTag() {
+        return metricsTag;
+    }
+    
+    /**
+     * Print all phases in the order they were first recorded
+     */
+    public synchronized void print(String label) {
+        if (phases.isEmpty()) {
+            return;
+        }
+        
+        System.out.println("\n=== PHASE TIMINGS (" + label + ") ===");
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            printLine("", entry.getKey(), entry.getValue());
+            for (Map.Entry<String, Long> wait : waits.entrySet()) {
+                if (entry.getKey().equals(waitParents.get(wait.getKey()))) {
+                    printLine("  ", wait.getKey(), wait.getValue());
+                }
+            }
+        }
+        // Waits whose phase never stopped, e.g. it threw before stop()
+        for (Map.Entry<String, Long> wait : waits.entrySet()) {
+            if (!phases.containsKey(waitParents.get(wait.getKey()))) {
+                printLine("", wait.getKey(), wait.getValue());
+            }
+        }
+        System.out.printf("%-45s : %6d ms%n", "Total", getTotalMillis());
+        System.out.println("=============================");
+    }
+    
+    /**
+     * Sum of the top-level phases; waits nested in a recorded phase are not counted again
+     */
+    public synchronized long getTotalMillis() {
+        long total = 0;
+        for (long elapsed : phases.values()) {
+            total += elapsed;
+        }
+        for (Map.Entry<String, Long> wait : waits.entrySet()) {
+            if (!phases.containsKey(waitParents.get(wait.getKey()))) {
+                total += wait.getValue();
+            }
+        }
+        return total;
+    }
+    
+    private void printLine(String indent, String phase, long elapsedMillis) {
+        Long probeCount = probes.get(phase);
+        System.out.printf("%-45s : %6d ms%s%n", indent + phase, elapsedMillis,
+            probeCount != null ? " (" + probeCount + " probes)" : "");
+    }
+    
+    /**
+     * A running phase
+     */
+    public class Phase {
+        private final String name;
+        private final String metric;
+        private final long startNanos;
+        
+        private Phase(String name, String metric, long startNanos) {
+            this.name = name;
+            this.metric = metric;
+            this.startNanos = startNanos;
+        }
+        
+        public void stop() {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            synchronized (PhaseTimer.this) {
+                running.removeLastOccurrence(name);
+                record(name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            }
+            if (metric != null) {
+                Metrics.recordNanos(metric, metricsTag, elapsedNanos);
+            }
+        }
+    }
+}
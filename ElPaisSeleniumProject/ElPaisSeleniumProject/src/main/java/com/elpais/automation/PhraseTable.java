@@ -0,0 +1,229 @@
+package com.elpais.automation;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * PhraseTable is a read-only Spanish to English phrase dictionary backed by a memory-mapped file
+ * File format: one "spanish phrase&lt;TAB&gt;english phrase" entry per UTF-8 line, keys in
+ * lowercase; lines starting with # are comments. Only line offsets are kept on the heap,
+ * lookups binary-search the mapped bytes directly.
+ */
+public class PhraseTable {
+    
+    private static PhraseTable defaultTable;
+    
+    private final MappedByteBuffer buffer;
+    private int[] keyStarts;
+    private int[] tabPositions;
+    private int[] lineEnds;
+    private int size;
+    private int maxPhraseWords = 1;
+    
+    public PhraseTable(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        indexLines();
+        System.out.println("Loaded phrase table with " + size + " entries from " + file);
+    }
+    
+    /**
+     * Shared table from translation.offline.dictionary (a file path or classpath resource)
+     */
+    public static synchronized PhraseTable getDefault() {
+        if (defaultTable == null) {
+            try {
+                defaultTable = new PhraseTable(resolveDictionary(ConfigManager.getTranslationOfflineDictionary()));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to load phrase table: " + e.getMessage(), e);
+            }
+        }
+        return defaultTable;
+    }
+    
+    /**
+     * Look up a lowercase phrase
+     * @return English phrase, or null if the phrase is not in the table
+     */
+    public String lookup(String phrase) {
+        byte[] key = phrase.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return decode(tabPositions[mid] + 1, lineEnds[mid]);
+            }
+        }
+        return null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Longest key in the table, counted in words
+     */
+    public int getMaxPhraseWords() {
+        return maxPhraseWords;
+    }
+    
+    /**
+     * Record where each entry's key and value sit in the mapped file, sorted by key bytes
+     */
+    private void indexLines() {
+        int limit = buffer.limit();
+        int capacity = 1024;
+        keyStarts = new int[capacity];
+        tabPositions = new int[capacity];
+        lineEnds = new int[capacity];
+        
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int tab = -1;
+            int words = 1;
+            int pos = lineStart;
+            while (pos < limit && buffer.get(pos) != '\n') {
+                byte b = buffer.get(pos);
+                if (b == '\t' && tab < 0) {
+                    tab = pos;
+                } else if (b == ' ' && tab < 0) {
+                    words++;
+                }
+                pos++;
+            }
+            
+            int lineEnd = pos;
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            
+            if (tab > lineStart && buffer.get(lineStart) != '#') {
+                if (size == capacity) {
+                    capacity *= 2;
+                    keyStarts = Arrays.copyOf(keyStarts, capacity);
+                    tabPositions = Arrays.copyOf(tabPositions, capacity);
+                    lineEnds = Arrays.copyOf(lineEnds, capacity);
+                }
+                keyStarts[size] = lineStart;
+                tabPositions[size] = tab;
+                lineEnds[size] = lineEnd;
+                maxPhraseWords = Math.max(maxPhraseWords, words);
+                size++;
+            }
+            lineStart = pos + 1;
+        }
+        
+        if (!isSorted()) {
+            sortEntries();
+        }
+    }
+    
+    private boolean isSorted() {
+        for (int i = 1; i < size; i++) {
+            if (compareEntries(i - 1, i) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Sort the offset arrays by key when the file itself is not sorted
+     */
+    private void sortEntries() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, this::compareEntries);
+        
+        int[] sortedStarts = new int[size];
+        int[] sortedTabs = new int[size];
+        int[] sortedEnds = new int[size];
+        for (int i = 0; i < size; i++) {
+            sortedStarts[i] = keyStarts[order[i]];
+            sortedTabs[i] = tabPositions[order[i]];
+            sortedEnds[i] = lineEnds[order[i]];
+        }
+        keyStarts = sortedStarts;
+        tabPositions = sortedTabs;
+        lineEnds = sortedEnds;
+    }
+    
+    private int compareEntries(int a, int b) {
+        int aStart = keyStarts[a];
+        int aLength = tabPositions[a] - aStart;
+        int bStart = keyStarts[b];
+        int bLength = tabPositions[b] - bStart;
+        
+        for (int i = 0; i < Math.min(aLength, bLength); i++) {
+            int cmp = Integer.compare(buffer.get(aStart + i) & 0xff, buffer.get(bStart + i) & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(aLength, bLength);
+    }
+    
+    /**
+     * Compare entry's key with the given key; unsigned byte order matches UTF-8 code point order
+     */
+    private int compareKey(int entry, byte[] key) {
+        int start = keyStarts[entry];
+        int length = tabPositions[entry] - start;
+        
+        for (int i = 0; i < Math.min(length, key.length); i++) {
+            int cmp = Integer.compare(buffer.get(start + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+    
+    private String decode(int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Use the path if it exists, otherwise copy the classpath resource to a temp file so it can be mapped
+     */
+    private static Path resolveDictionary(String location) throws IOException {
+        Path path = Paths.get(location);
+        if (Files.exists(path)) {
+            return path;
+        }
+        
+        try (InputStream input = PhraseTable.class.getClassLoader().getResourceAsStream(location)) {
+            if (input == null) {
+                throw new IOException("Dictionary not found: " + location);
+            }
+            Path tempFile = Files.createTempFile("phrase-table", ".tsv");
+            tempFile.toFile().deleteOnExit();
+            Files.copy(input, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        }
+    }
+}
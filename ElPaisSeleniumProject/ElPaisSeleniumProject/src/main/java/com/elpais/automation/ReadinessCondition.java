@@ -0,0 +1,158 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * ReadinessCondition decides whether a page is ready enough to continue
+ * Conditions are cheap probes polled by ReadinessWait and can be combined with and()/or().
+ */
+public interface ReadinessCondition {
+    
+    /**
+     * Counts article nodes (first matching container selector) that contain a non-empty heading
+     */
+    String ARTICLES_WITH_HEADINGS_SCRIPT =
+        "var articleSelectors = arguments[0], titleSelectors = arguments[1], count = 0, nodes = [];\n" +
+        "for (var i = 0; i < articleSelectors.length && nodes.length === 0; i++) {\n" +
+        "  try { nodes = document.querySelectorAll(articleSelectors[i]); } catch (e) { nodes = []; }\n" +
+        "}\n" +
+        "for (var n = 0; n < nodes.length; n++) {\n" +
+        "  for (var t = 0; t < titleSelectors.length; t++) {\n" +
+        "    var el = null;\n" +
+        "    try { el = nodes[n].querySelector(titleSelectors[t]); } catch (e) {}\n" +
+        "    if (el && ((el.textContent || '').trim() || (el.getAttribute('title') || '').trim())) { count++; break; }\n" +
+        "  }\n" +
+        "}\n" +
+        "return count;";
+    
+    boolean isReady(WebDriver driver);
+    
+    /**
+     * Short description for log output
+     */
+    default String describe() {
+        return getClass().getSimpleName();
+    }
+    
+    default ReadinessCondition and(ReadinessCondition other) {
+        ReadinessCondition self = this;
+        return new ReadinessCondition() {
+            @Override
+            public boolean isReady(WebDriver driver) {
+                return self.isReady(driver) && other.isReady(driver);
+            }
+            
+            @Override
+            public String describe() {
+                return self.describe() + " and " + other.describe();
+            }
+        };
+    }
+    
+    default ReadinessCondition or(ReadinessCondition other) {
+        ReadinessCondition self = this;
+        return new ReadinessCondition() {
+            @Override
+            public boolean isReady(WebDriver driver) {
+                return self.isReady(driver) || other.isReady(driver);
+            }
+            
+            @Override
+            public String describe() {
+                return "(" + self.describe() + " or " + other.describe() + ")";
+            }
+        };
+    }
+    
+    /**
+     * document.readyState is at least "interactive" (DOM parsed, subresources may still load)
+     */
+    static ReadinessCondition documentInteractive() {
+        return named("document interactive", driver -> {
+            Object state = ((JavascriptExecutor) driver).executeScript("return document.readyState;");
+            return "interactive".equals(state) || "complete".equals(state);
+        });
+    }
+    
+    /**
+     * document.readyState is "complete"
+     */
+    static ReadinessCondition documentComplete() {
+        return named("document complete", driver ->
+            "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState;")));
+    }
+    
+    /**
+     * At least one element matches the locator (probed with findElements, so no implicit wait applies)
+     */
+    static ReadinessCondition elementPresent(By locator) {
+        return named("present " + locator, driver -> !driver.findElements(locator).isEmpty());
+    }
+    
+    /**
+     * The current URL differs from the given one, i.e. a navigation has committed
+     */
+    static ReadinessCondition urlChangedFrom(String previousUrl) {
+        return named("url changed", driver -> !previousUrl.equals(driver.getCurrentUrl()));
+    }
+    
+    /**
+     * At least minCount article nodes have a non-empty heading
+     * Probes the page's selectors in the registry's current order, so configured extras and
+     * a layout the defaults no longer match are waited for like the scraper will extract them.
+     */
+    static ReadinessCondition articlesWithHeadings(int minCount, SelectorRegistry selectors) {
+        return named(minCount + " articles with headings", driver -> {
+            Object count = ((JavascriptExecutor) driver).executeScript(ARTICLES_WITH_HEADINGS_SCRIPT,
+                selectors.ordered(SelectorRegistry.Role.ARTICLE), selectors.ordered(SelectorRegistry.Role.TITLE));
+            return count instanceof Number && ((Number) count).intValue() >= minCount;
+        });
+    }
+    
+    /**
+     * The number of DOM elements has not changed for stableMillis
+     * Stateful: create a new instance for every wait.
+     */
+    static ReadinessCondition domStableFor(long stableMillis) {
+        return new ReadinessCondition() {
+            private long lastCount = -1;
+            private long lastChange;
+            
+            @Override
+            public boolean isReady(WebDriver driver) {
+                Object result = ((JavascriptExecutor) driver).executeScript(
+                    "return document.getElementsByTagName('*').length;");
+                long count = result instanceof Number ? ((Number) result).longValue() : -1;
+                long now = System.currentTimeMillis();
+                
+                if (count != lastCount) {
+                    lastCount = count;
+                    lastChange = now;
+                    return false;
+                }
+                return now - lastChange >= stableMillis;
+            }
+            
+            @Override
+            public String describe() {
+                return "DOM stable " + stableMillis + " ms";
+            }
+        };
+    }
+    
+    static ReadinessCondition named(String description, ReadinessCondition condition) {
+        return new ReadinessCondition() {
+            @Override
+            public boolean isReady(WebDriver driver) {
+                return condition.isReady(driver);
+            }
+            
+            @Override
+            public String describe() {
+                return description;
+            }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * ReadinessWait polls a ReadinessCondition until it holds or a timeout expires
+ * Polling starts fast and backs off geometrically, so quick pages return almost at once
+ * while slow pages are not hammered with probes.
+ */
+public class ReadinessWait {
+    
+    private static final long MIN_POLL_MS = 25;
+    private static final long MAX_POLL_MS = 500;
+    private static final double BACKOFF = 1.5;
+    
+    /**
+     * Wait for the condition, recording the elapsed time under the given phase
+     * @return true if the condition held before the timeout
+     */
+    public static boolean until(WebDriver driver, ReadinessCondition condition, long timeoutMillis,
+                                PhaseTimer timer, String phase) {
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutMillis;
+        long pollMs = MIN_POLL_MS;
+        int probes = 0;
+        
+        try {
+            while (true) {
+                probes++;
+                try {
+                    if (condition.isReady(driver)) {
+                        return true;
+                    }
+                } catch (Exception e) {
+                    // Page may be mid-navigation; treat as not ready yet
+                }
+                
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    System.out.println("⚠ Timed out after " + timeoutMillis + " ms waiting for: " + condition.describe());
+                    return false;
+                }
+                
+                Thread.sleep(Math.min(pollMs, remaining));
+                pollMs = Math.min(MAX_POLL_MS, (long) (pollMs * BACKOFF));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (timer != null) {
+                timer.recordWait(phase + " (wait)", System.currentTimeMillis() - start, probes);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.elpais.automation;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.WebDriver;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * SectionCrawler scrapes many El Pais sections in one run
+ * Section pages go through a deduplicating UrlFrontier and are fetched by a pool of
+ * workers, over HTTP or through pooled browsers, with HostThrottle limiting how hard
+ * each host is hit. Articles are handed to the caller as soon as each page is parsed;
+ * one listed on several sections or pages is only handed over the first time.
+ */
+public class SectionCrawler {
+    
+    private static final long POLL_MILLIS = 100;
+    
+    private final List<String> seedUrls;
+    private final int fetchers;
+    private final HostThrottle throttle;
+    private final int maxPagesPerSection;
+    private final int maxArticlesPerPage;
+    private final boolean useBrowser;
+    private final String nextPageSelector;
+    private final SelectorRegistry selectors;
+    private final ImageDownloadPipeline imagePipeline;
+    private final ArticleIndex articleIndex;
+    
+    private final AtomicInteger pagesFetched = new AtomicInteger();
+    private final AtomicInteger pagesFailed = new AtomicInteger();
+    private final AtomicInteger articlesFound = new AtomicInteger();
+    private final AtomicInteger duplicatesDropped = new AtomicInteger();
+    private volatile boolean cancelled;
+    
+    /**
+     * Crawler over the sections listed in config.properties
+     */
+    public SectionCrawler() {
+        this(sectionUrls(ConfigManager.getElPaisBaseUrl(), ConfigManager.getCrawlerSections()),
+            ConfigManager.getCrawlerFetchers(),
+            new HostThrottle(ConfigManager.getCrawlerMaxPerHost(), ConfigManager.getCrawlerHostDelayMs()),
+            ConfigManager.getCrawlerMaxPagesPerSection(),
+            ConfigManager.getCrawlerMaxArticlesPerPage(),
+            !"http".equalsIgnoreCase(ConfigManager.getScraperBackend()));
+    }
+    
+    public SectionCrawler(List<String> seedUrls, int fetchers, HostThrottle throttle,
+                          int maxPagesPerSection, int maxArticlesPerPage, boolean useBrowser) {
+        this(seedUrls, fetchers, throttle, maxPagesPerSection, maxArticlesPerPage, useBrowser,
+            null, ImageDownloadPipeline.getInstance(), HttpArticleScraper.defaultArticleIndex());
+    }
+    
+    /**
+     * Crawler with explicit collaborators; a null pipeline or index is skipped
+     * A null registry uses the persisted one of each site and section and saves it after the
+     * crawl; any other registry is shared by every page and never saved, so tests and
+     * benchmarks leave the stats file alone.
+     */
+    SectionCrawler(List<String> seedUrls, int fetchers, HostThrottle throttle,
+                   int maxPagesPerSection, int maxArticlesPerPage, boolean useBrowser,
+                   SelectorRegistry selectors, ImageDownloadPipeline imagePipeline, ArticleIndex articleIndex) {
+        this.seedUrls = seedUrls;
+        this.fetchers = Math.max(1, fetchers);
+        this.throttle = throttle;
+        this.maxPagesPerSection = Math.max(1, maxPagesPerSection);
+        this.maxArticlesPerPage = maxArticlesPerPage;
+        this.useBrowser = useBrowser;
+        this.nextPageSelector = ConfigManager.getCrawlerNextPageSelector();
+        this.selectors = selectors;
+        this.imagePipeline = imagePipeline;
+        this.articleIndex = articleIndex;
+    }
+    
+    /**
+     * Crawl every section and pass each article to the sink as it is scraped
+     * The sink is called from the worker threads and must be thread-safe. If it throws
+     * CancellationException the crawl stops early.
+     * @return number of distinct articles scraped
+     */
+    public int crawl(Consumer<Article> sink) {
+        long startTime = System.currentTimeMillis();
+        pagesFetched.set(0);
+        pagesFailed.set(0);
+        articlesFound.set(0);
+        duplicatesDropped.set(0);
+        cancelled = false;
+        
+        // Canonical URLs of the articles emitted so far, shared by every worker
+        Set<String> seenArticles = ConcurrentHashMap.newKeySet();
+        
+        UrlFrontier frontier = new UrlFrontier();
+        for (String seedUrl : seedUrls) {
+            frontier.offer(seedUrl, sectionOf(seedUrl), 1);
+        }
+        
+        System.out.println("Crawling " + seedUrls.size() + " sections with " + fetchers
+            + (useBrowser ? " browser" : " HTTP") + " fetchers");
+        
+        ExecutorService executor = IoExecutors.newExecutor("crawler", fetchers);
+        
+        for (int i = 0; i < fetchers; i++) {
+            executor.execute(() -> runWorker(frontier, seenArticles, sink));
+        }
+        
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        
+        if (selectors == null) {
+            SelectorRegistry.saveAll();
+        }
+        
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        System.out.printf("✓ Crawled %d pages (%d failed) and %d articles (%d duplicates dropped) in %d ms"
+            + " (%.1f pages/sec, %.1f articles/sec)%n",
+            pagesFetched.get(), pagesFailed.get(), articlesFound.get(), duplicatesDropped.get(), elapsed,
+            pagesFetched.get() * 1000.0 / elapsed, articlesFound.get() * 1000.0 / elapsed);
+        
+        return articlesFound.get();
+    }
+    
+    /**
+     * Crawl every section and collect the articles
+     */
+    public List<Article> crawl() {
+        List<Article> articles = new ArrayList<>();
+        crawl(article -> {
+            synchronized (articles) {
+                articles.add(article);
+            }
+        });
+        return articles;
+    }
+    
+    private void runWorker(UrlFrontier frontier, Set<String> seenArticles, Consumer<Article> sink) {
+        while (!frontier.isExhausted() && !cancelled && !Thread.currentThread().isInterrupted()) {
+            UrlFrontier.Task task;
+            try {
+                task = frontier.poll(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (task == null) {
+                continue;
+            }
+            
+            try {
+                crawlPage(task, frontier, seenArticles, sink);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                // The sink no longer accepts articles; stop every worker
+                cancelled = true;
+            } catch (Exception e) {
+                pagesFailed.incrementAndGet();
+                System.out.println("Error crawling " + task.url + ": " + e.getMessage());
+            } finally {
+                frontier.done(task);
+            }
+        }
+    }
+    
+    /**
+     * Fetch one section page, emit its new articles and queue the next page of the section
+     */
+    private void crawlPage(UrlFrontier.Task task, UrlFrontier frontier, Set<String> seenArticles,
+                           Consumer<Article> sink) throws Exception {
+        Document document;
+        throttle.acquire(task.url);
+        try {
+            document = useBrowser ? fetchWithBrowser(task.url, task.section) : HttpArticleScraper.fetchDocument(task.url);
+        } finally {
+            throttle.release(task.url);
+        }
+        pagesFetched.incrementAndGet();
+        
+        if (task.page < maxPagesPerSection) {
+            Element next = document.selectFirst(nextPageSelector);
+            if (next != null && !next.absUrl("href").isEmpty()) {
+                frontier.offer(next.absUrl("href"), task.section, task.page + 1);
+            }
+        }
+        
+        HttpArticleScraper scraper = new HttpArticleScraper(task.url, document,
+            selectorsFor(task.url, task.section), imagePipeline, articleIndex);
+        // Dropped before the scraper looks them up in the index or queues their images
+        List<Article> articles = scraper.extractArticles(maxArticlesPerPage, article -> {
+            // Articles without a link can't be matched across pages and are always emitted
+            String canonicalUrl = ArticleIndex.canonicalUrl(article.getUrl());
+            if (canonicalUrl != null && !seenArticles.add(canonicalUrl)) {
+                duplicatesDropped.incrementAndGet();
+                return false;
+            }
+            return true;
+        });
+        
+        for (Article article : articles) {
+            article.setSection(task.section);
+            articlesFound.incrementAndGet();
+            try {
+                sink.accept(article);
+            } catch (CancellationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                System.out.println("Error handling crawled article: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Render the page in a pooled browser and parse its DOM with the same extraction as HTTP pages
+     */
+    private Document fetchWithBrowser(String url, String section) {
+        WebDriverPool pool = WebDriverPool.local();
+        WebDriver driver = pool.lease();
+        try {
+            driver.get(url);
+            ReadinessWait.until(driver,
+                ReadinessCondition.documentInteractive()
+                    .and(ReadinessCondition.articlesWithHeadings(ConfigManager.getWaitMinArticles(),
+                        selectorsFor(url, section))),
+                ConfigManager.getWaitTimeoutMillis(), null, null);
+            return Jsoup.parse(driver.getPageSource(), url);
+        } finally {
+            pool.release(driver);
+        }
+    }
+    
+    private SelectorRegistry selectorsFor(String url, String section) {
+        return selectors != null ? selectors : SelectorRegistry.forPage(url, section);
+    }
+    
+    /**
+     * Resolve section paths such as "/opinion/" against the site URL
+     */
+    static List<String> sectionUrls(String baseUrl, String sections) {
+        String base = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        List<String> urls = new ArrayList<>();
+        for (String section : sections.split(",")) {
+            section = section.trim();
+            if (section.isEmpty()) {
+                continue;
+            }
+            urls.add(section.startsWith("http") ? section : base + (section.startsWith("/") ? "" : "/") + section);
+        }
+        return urls;
+    }
+    
+    private static String sectionOf(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            return path == null || path.isEmpty() ? "/" : path;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
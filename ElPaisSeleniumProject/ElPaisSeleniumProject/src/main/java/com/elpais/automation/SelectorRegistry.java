@@ -0,0 +1,290 @@
+package com.elpais.automation;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SelectorRegistry orders each selector cascade by how well its selectors work on a page
+ * Hit rate and cost are recorded per site and section, persisted between runs, and used
+ * to try the best selector first. Counts decay with every probe so a layout change shows
+ * up within a few dozen probes. Catch-all selectors are never moved ahead of specific ones.
+ * Extra selectors can be added in config without recompiling.
+ */
+public class SelectorRegistry {
+    
+    /**
+     * The part of an article a selector cascade looks for
+     */
+    public enum Role {
+        ARTICLE(ArticleSelectors.ARTICLE),
+        TITLE(ArticleSelectors.TITLE),
+        CONTENT(ArticleSelectors.CONTENT),
+        IMAGE(ArticleSelectors.IMAGE),
+        LINK(ArticleSelectors.LINK);
+        
+        private final String[] defaults;
+        
+        Role(String[] defaults) {
+            this.defaults = defaults;
+        }
+        
+        String configKey() {
+            return "selectors." + name().toLowerCase() + ".extra";
+        }
+    }
+    
+    /**
+     * Recorded outcomes for one selector, exponentially decayed per probe
+     */
+    static class Stats {
+        double attempts;
+        double hits;
+        double totalCostNanos;
+        double timedAttempts;
+        
+        double hitRate() {
+            // Laplace smoothing so new selectors start at 0.5 rather than 0 or 1
+            return (hits + 1.0) / (attempts + 2.0);
+        }
+        
+        double averageCostNanos() {
+            return timedAttempts == 0 ? 0 : totalCostNanos / timedAttempts;
+        }
+    }
+    
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Map<String, SelectorRegistry> registries = new HashMap<>();
+    private static Map<String, Map<Role, Map<String, Stats>>> persisted;
+    
+    private final String pageKey;
+    private final Map<Role, Map<String, Stats>> stats;
+    private final double decay;
+    private final boolean adaptive;
+    
+    SelectorRegistry(String pageKey, Map<Role, Map<String, Stats>> stats, double decay) {
+        this(pageKey, stats, decay, true);
+    }
+    
+    private SelectorRegistry(String pageKey, Map<Role, Map<String, Stats>> stats, double decay, boolean adaptive) {
+        this.pageKey = pageKey;
+        this.stats = stats;
+        this.decay = decay;
+        this.adaptive = adaptive;
+        
+        // Defaults first, then config extras, so equal scores keep the original order
+        for (Role role : Role.values()) {
+            Map<String, Stats> roleStats = stats.computeIfAbsent(role, r -> new LinkedHashMap<>());
+            List<String> known = new ArrayList<>(Arrays.asList(role.defaults));
+            known.addAll(splitSelectors(ConfigManager.getProperty(role.configKey())));
+            
+            Map<String, Stats> ordered = new LinkedHashMap<>();
+            for (String selector : known) {
+                ordered.put(selector, roleStats.getOrDefault(selector, new Stats()));
+            }
+            for (Map.Entry<String, Stats> entry : roleStats.entrySet()) {
+                ordered.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+            roleStats.clear();
+            roleStats.putAll(ordered);
+        }
+    }
+    
+    /**
+     * Registry for a site and section, e.g. ("https://elpais.com", "/opinion/")
+     */
+    public static synchronized SelectorRegistry forPage(String baseUrl, String section) {
+        String key = hostOf(baseUrl) + (section != null ? section : "");
+        return registries.computeIfAbsent(key, k -> new SelectorRegistry(k,
+            loadPersisted().computeIfAbsent(k, p -> new HashMap<>()), ConfigManager.getSelectorDecay()));
+    }
+    
+    /**
+     * Registry that always tries selectors in their declared order and is never persisted
+     * Benchmarks and tests get the same cascade on every run, whatever earlier runs recorded.
+     */
+    public static SelectorRegistry fixed() {
+        return new SelectorRegistry("fixed", new HashMap<>(), 1.0, false);
+    }
+    
+    /**
+     * Registry for a full page URL, keyed by its host and path
+     */
+    public static SelectorRegistry forUrl(String pageUrl) {
+        try {
+            URI uri = URI.create(pageUrl);
+            if (uri.getHost() != null) {
+                return forPage(pageUrl, uri.getPath());
+            }
+        } catch (IllegalArgumentException e) {
+            // Fall through to treating the whole URL as the site
+        }
+        return forPage(pageUrl, null);
+    }
+    
+    /**
+     * Selectors for a role, best first: higher hit rate, then lower average cost
+     * Catch-all selectors (ArticleSelectors.isCatchAll) always come after the specific ones.
+     * They return a different element, not the same one faster, and since a cascade stops
+     * at its first hit, one moved to the front would never let the others be probed again.
+     */
+    public synchronized String[] ordered(Role role) {
+        List<Map.Entry<String, Stats>> entries = new ArrayList<>(stats.get(role).entrySet());
+        Comparator<Map.Entry<String, Stats>> order =
+            Comparator.comparing((Map.Entry<String, Stats> e) -> ArticleSelectors.isCatchAll(e.getKey()));
+        if (adaptive) {
+            order = order
+                .thenComparingDouble(e -> -e.getValue().hitRate())
+                .thenComparingDouble(e -> e.getValue().averageCostNanos());
+        }
+        entries.sort(order);
+        
+        String[] selectors = new String[entries.size()];
+        for (int i = 0; i < selectors.length; i++) {
+            selectors[i] = entries.get(i).getKey();
+        }
+        return selectors;
+    }
+    
+    /**
+     * Record one probe of a selector
+     * @param costNanos time the probe took, or a negative value if it was not timed
+     */
+    public synchronized void record(Role role, String selector, boolean hit, long costNanos) {
+        if (!adaptive) {
+            return;
+        }
+        Stats entry = stats.get(role).computeIfAbsent(selector, s -> new Stats());
+        entry.attempts = entry.attempts * decay + 1;
+        entry.hits = entry.hits * decay + (hit ? 1 : 0);
+        if (costNanos >= 0) {
+            entry.totalCostNanos = entry.totalCostNanos * decay + costNanos;
+            entry.timedAttempts = entry.timedAttempts * decay + 1;
+        }
+    }
+    
+    /**
+     * Record a cascade where the selector at matchedIndex hit and every earlier one missed
+     * @param matchedIndex index into selectors, or -1 if none matched
+     */
+    public void recordCascade(Role role, String[] selectors, int matchedIndex) {
+        int tried = matchedIndex < 0 ? selectors.length : matchedIndex + 1;
+        for (int i = 0; i < tried; i++) {
+            record(role, selectors[i], i == matchedIndex, -1);
+        }
+    }
+    
+    /**
+     * Warn that the page layout no longer matches any known selector
+     * The current leader loses its hits so it stops being tried first on the new layout.
+     */
+    public synchronized void reportDrift(Role role) {
+        if (adaptive) {
+            Stats leader = stats.get(role).get(ordered(role)[0]);
+            leader.hits = 0;
+        }
+        
+        System.out.println("⚠ Layout drift on " + pageKey + ": no known " + role.name().toLowerCase()
+            + " selector matched. Add one with " + role.configKey() + " in config.properties");
+    }
+    
+    /**
+     * Write the statistics of every registry to selectors.stats.file
+     */
+    public static synchronized void saveAll() {
+        if (persisted == null) {
+            return;
+        }
+        
+        // Snapshot each page under its registry's lock so concurrent record() calls are safe
+        JsonObject snapshot = new JsonObject();
+        for (Map.Entry<String, Map<Role, Map<String, Stats>>> entry : persisted.entrySet()) {
+            SelectorRegistry registry = registries.get(entry.getKey());
+            if (registry != null) {
+                synchronized (registry) {
+                    snapshot.add(entry.getKey(), GSON.toJsonTree(entry.getValue()));
+                }
+            } else {
+                snapshot.add(entry.getKey(), GSON.toJsonTree(entry.getValue()));
+            }
+        }
+        
+        Path file = Paths.get(ConfigManager.getSelectorStatsFile());
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Path tempFile = Paths.get(file + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                GSON.toJson(snapshot, writer);
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Error saving selector statistics: " + e.getMessage());
+        }
+    }
+    
+    private static Map<String, Map<Role, Map<String, Stats>>> loadPersisted() {
+        if (persisted != null) {
+            return persisted;
+        }
+        
+        persisted = new HashMap<>();
+        Path file = Paths.get(ConfigManager.getSelectorStatsFile());
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Map<String, Map<Role, Map<String, Stats>>> loaded = GSON.fromJson(reader,
+                    new TypeToken<Map<String, Map<Role, LinkedHashMap<String, Stats>>>>() {}.getType());
+                if (loaded != null) {
+                    persisted.putAll(loaded);
+                }
+            } catch (Exception e) {
+                System.out.println("Error reading selector statistics, starting fresh: " + e.getMessage());
+            }
+        }
+        return persisted;
+    }
+    
+    /**
+     * Config extras are separated by ';' because CSS selectors may contain commas
+     */
+    private static List<String> splitSelectors(String value) {
+        List<String> selectors = new ArrayList<>();
+        if (value == null) {
+            return selectors;
+        }
+        for (String selector : value.split(";")) {
+            if (!selector.trim().isEmpty()) {
+                selectors.add(selector.trim());
+            }
+        }
+        return selectors;
+    }
+    
+    private static String hostOf(String baseUrl) {
+        try {
+            String host = URI.create(baseUrl).getHost();
+            return host != null ? host : baseUrl;
+        } catch (IllegalArgumentException e) {
+            return baseUrl;
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.remote.http.ConnectionFailedException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SessionScheduler runs a matrix of remote browser sessions through a work queue
+ * Every configuration is queued and runs once one of maxSessions slots is free (the
+ * account's parallel-session limit). Each attempt has a deadline covering session
+ * start and test. Attempts failing with an infrastructure error (session not created,
+ * unreachable grid, deadline) are retried with exponential backoff. A session that is
+ * slow to start gets a second, hedged start if a slot is free, and whichever comes up
+ * first is used. cancel() stops queued work and quits every open session.
+ */
+public class SessionScheduler<S> {
+    
+    /**
+     * Opens, uses and closes one session
+     */
+    public interface SessionRunner<S> {
+        S start(String name, MutableCapabilities capabilities) throws Exception;
+        
+        void run(String name, S session) throws Exception;
+        
+        void stop(String name, S session);
+    }
+    
+    public enum Status { PASSED, FAILED, TIMED_OUT, CANCELLED }
+    
+    /**
+     * Outcome of one configuration after all its attempts
+     */
+    public static class Result {
+        private final String name;
+        private Status status = Status.CANCELLED;
+        private int attempts;
+        private boolean hedged;
+        private long elapsedMillis;
+        private String error;
+        
+        Result(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public Status getStatus() {
+            return status;
+        }
+        
+        public int getAttempts() {
+            return attempts;
+        }
+        
+        public boolean isHedged() {
+            return hedged;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+        
+        public String getError() {
+            return error;
+        }
+    }
+    
+    private final SessionRunner<S> runner;
+    private final int maxSessions;
+    private final long sessionTimeoutMs;
+    private final int maxRetries;
+    private final long retryBackoffMs;
+    private final long hedgeAfterMs;
+    private final long buildTimeoutMs;
+    
+    private final Semaphore slots;
+    private final Map<S, String> openSessions = new ConcurrentHashMap<>();
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    private final AtomicInteger peakSessions = new AtomicInteger();
+    private final AtomicInteger sessionsStarted = new AtomicInteger();
+    private volatile boolean cancelled;
+    // Runs between flagging a hedged start and launching it; tests use it to widen that window
+    volatile Runnable beforeHedgedStart = () -> { };
+    private ExecutorService jobExecutor;
+    private ExecutorService sessionExecutor;
+    private long elapsedMillis;
+    
+    public SessionScheduler(SessionRunner<S> runner) {
+        this(runner,
+            ConfigManager.getParallelThreads(),
+            ConfigManager.getBrowserStackSessionTimeoutSeconds() * 1000L,
+            ConfigManager.getBrowserStackRetries(),
+            ConfigManager.getBrowserStackRetryBackoffMs(),
+            ConfigManager.getBrowserStackHedgeAfterSeconds() * 1000L,
+            ConfigManager.getBrowserStackBuildTimeoutSeconds() * 1000L);
+    }
+    
+    /**
+     * @param hedgeAfterMs start a second session if the first is not up after this long, 0 to disable
+     * @param buildTimeoutMs cancel whatever is still queued or running after this long, 0 for no limit
+     */
+    public SessionScheduler(SessionRunner<S> runner, int maxSessions, long sessionTimeoutMs, int maxRetries,
+                            long retryBackoffMs, long hedgeAfterMs, long buildTimeoutMs) {
+        this.runner = runner;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.sessionTimeoutMs = sessionTimeoutMs;
+        this.maxRetries = Math.max(0, maxRetries);
+        this.retryBackoffMs = retryBackoffMs;
+        this.hedgeAfterMs = hedgeAfterMs;
+        this.buildTimeoutMs = buildTimeoutMs;
+        this.slots = new Semaphore(this.maxSessions, true);
+    }
+    
+    /**
+     * Run every configuration and wait for all of them
+     * @param configurations session name to capabilities, in queue order
+     */
+    public List<Result> runAll(Map<String, MutableCapabilities> configurations) {
+        long startTime = System.currentTimeMillis();
+        int jobs = Math.max(1, configurations.size());
+        jobExecutor = IoExecutors.newExecutor("browserstack-job", jobs);
+        // Start, hedged start and test of every attempt each get a thread; hung ones are abandoned
+        sessionExecutor = IoExecutors.newExecutor("browserstack-session", jobs * (maxRetries + 1) * 3);
+        
+        System.out.println("Scheduling " + configurations.size() + " sessions, at most " + maxSessions + " at a time");
+        
+        List<String> names = new ArrayList<>(configurations.keySet());
+        List<Future<Result>> futures = new ArrayList<>();
+        for (Map.Entry<String, MutableCapabilities> configuration : configurations.entrySet()) {
+            futures.add(jobExecutor.submit(() -> runJob(configuration.getKey(), configuration.getValue())));
+        }
+        jobExecutor.shutdown();
+        
+        try {
+            boolean finished = buildTimeoutMs > 0
+                ? jobExecutor.awaitTermination(buildTimeoutMs, TimeUnit.MILLISECONDS)
+                : jobExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            if (!finished) {
+                System.out.println("⚠ Build deadline of " + buildTimeoutMs / 1000 + " s reached, cancelling remaining sessions");
+                cancel();
+                jobExecutor.awaitTermination(30, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        }
+        
+        List<Result> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Future<Result> future = futures.get(i);
+            Result result;
+            try {
+                result = future.isDone() && !future.isCancelled() ? future.get() : new Result(names.get(i));
+            } catch (Exception e) {
+                result = new Result(names.get(i));
+                result.error = e.getMessage();
+            }
+            results.add(result);
+        }
+        
+        sessionExecutor.shutdown();
+        elapsedMillis = System.currentTimeMillis() - startTime;
+        return results;
+    }
+    
+    /**
+     * Stop queued and running sessions; running ones have their browser quit
+     */
+    public void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        if (jobExecutor != null) {
+            jobExecutor.shutdownNow();
+        }
+        for (Map.Entry<S, String> open : openSessions.entrySet()) {
+            stopSession(open.getValue(), open.getKey());
+        }
+    }
+    
+    private Result runJob(String name, MutableCapabilities capabilities) {
+        Result result = new Result(name);
+        long start = System.currentTimeMillis();
+        
+        for (int attempt = 1; ; attempt++) {
+            if (cancelled) {
+                result.status = Status.CANCELLED;
+                break;
+            }
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.status = Status.CANCELLED;
+                break;
+            }
+            
+            Starts starts = new Starts();
+            Throwable error;
+            try {
+                error = runAttempt(name, capabilities, result, starts);
+            } finally {
+                // The slot stays taken while a start that outlived the attempt is still running
+                starts.release();
+            }
+            result.attempts = attempt;
+            
+            if (error == null) {
+                result.status = Status.PASSED;
+                result.error = null;
+                break;
+            }
+            result.error = messageOf(error);
+            result.status = cancelled ? Status.CANCELLED
+                : error instanceof TimeoutException ? Status.TIMED_OUT : Status.FAILED;
+            if (cancelled || attempt > maxRetries || !isInfrastructureError(error)) {
+                break;
+            }
+            
+            long backoff = retryBackoffMs << Math.min(attempt - 1, 10);
+            System.out.println("⚠ " + name + " - attempt " + attempt + " failed (" + result.error
+                + "), retrying in " + backoff + " ms");
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                result.status = Status.CANCELLED;
+                break;
+            }
+        }
+        
+        result.elapsedMillis = System.currentTimeMillis() - start;
+        return result;
+    }
+    
+    /**
+     * Start a session and run the test on it within one deadline
+     * @return null on success, otherwise the error
+     */
+    private Throwable runAttempt(String name, MutableCapabilities capabilities, Result result, Starts starts) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sessionTimeoutMs);
+        
+        S session;
+        try {
+            session = startSession(name, capabilities, deadline, result, starts);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            return new TimeoutException("session did not start within " + sessionTimeoutMs / 1000 + " s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return e;
+        }
+        
+        Future<?> test = sessionExecutor.submit(() -> {
+            runner.run(name, session);
+            return null;
+        });
+        try {
+            test.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return e.getCause();
+        } catch (TimeoutException e) {
+            test.cancel(true);
+            return new TimeoutException("session exceeded its " + sessionTimeoutMs / 1000 + " s deadline");
+        } catch (InterruptedException e) {
+            test.cancel(true);
+            Thread.currentThread().interrupt();
+            return e;
+        } finally {
+            // Quitting the browser also unblocks a test stuck in a WebDriver call
+            stopSession(name, session);
+        }
+    }
+    
+    /**
+     * Start a session, hedging with a second start if the first is slow and a slot is free
+     */
+    private S startSession(String name, MutableCapabilities capabilities, long deadline, Result result,
+                           Starts starts) throws ExecutionException, TimeoutException, InterruptedException {
+        CompletableFuture<S> winner = starts.winner;
+        starts.launched();
+        launchStart(name, capabilities, starts);
+        
+        try {
+            if (hedgeAfterMs > 0) {
+                try {
+                    long hedgeNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(hedgeAfterMs), remainingNanos(deadline));
+                    return winner.get(hedgeNanos, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (remainingNanos(deadline) > 0 && !winner.isDone() && slots.tryAcquire()) {
+                        System.out.println("⚠ " + name + " - session slow to start, starting a second one");
+                        result.hedged = true;
+                        // Counted before it is flagged: a first start finishing in between must
+                        // neither give back the hedge's slot nor report failure for the attempt
+                        starts.launched();
+                        starts.hedged.set(true);
+                        beforeHedgedStart.run();
+                        launchStart(name, capabilities, starts);
+                    }
+                }
+            }
+            return winner.get(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | InterruptedException e) {
+            // Starts that finish later see the winner taken and quit their session
+            winner.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    /**
+     * Run a start counted in starts.launched()
+     */
+    private void launchStart(String name, MutableCapabilities capabilities, Starts starts) {
+        sessionExecutor.execute(() -> {
+            Throwable error = null;
+            try {
+                S session = runner.start(name, capabilities);
+                sessionsStarted.incrementAndGet();
+                peakSessions.accumulateAndGet(liveSessions.incrementAndGet(), Math::max);
+                openSessions.put(session, name);
+                if (!starts.winner.complete(session) || cancelled) {
+                    // The other start won, the attempt gave up, or the build was cancelled
+                    stopSession(name, session);
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+            
+            // The last start to finish reports failure and gives back the hedge's extra slot
+            if (starts.pending.decrementAndGet() == 0) {
+                if (error != null) {
+                    starts.winner.completeExceptionally(error);
+                }
+                if (starts.hedged.get()) {
+                    slots.release();
+                }
+            }
+            starts.release();
+        });
+    }
+    
+    private void stopSession(String name, S session) {
+        if (openSessions.remove(session) != null) {
+            try {
+                runner.stop(name, session);
+            } catch (Exception e) {
+                System.out.println("Error stopping " + name + " session: " + e.getMessage());
+            } finally {
+                liveSessions.decrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Session starts of one attempt
+     * The attempt's slot goes back only once the attempt is over and every start it
+     * launched has finished. A start still running after the deadline may yet open a
+     * session, and until that session is quit it counts against the limit.
+     */
+    private final class Starts {
+        final CompletableFuture<S> winner = new CompletableFuture<>();
+        final AtomicBoolean hedged = new AtomicBoolean();
+        // Starts still running
+        final AtomicInteger pending = new AtomicInteger();
+        // Starts still running, plus one for the attempt itself
+        private final AtomicInteger holders = new AtomicInteger(1);
+        
+        void launched() {
+            pending.incrementAndGet();
+            holders.incrementAndGet();
+        }
+        
+        void release() {
+            if (holders.decrementAndGet() == 0) {
+                slots.release();
+            }
+        }
+    }
+    
+    private static long remainingNanos(long deadline) {
+        return Math.max(0, deadline - System.nanoTime());
+    }
+    
+    /**
+     * True for failures of the grid rather than of the test itself
+     */
+    static boolean isInfrastructureError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SessionNotCreatedException || cause instanceof UnreachableBrowserException
+                    || cause instanceof ConnectionFailedException || cause instanceof NoSuchSessionException
+                    || cause instanceof TimeoutException || cause instanceof IOException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String messageOf(Throwable error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        int newline = message.indexOf('\n');
+        return newline > 0 ? message.substring(0, newline) : message;
+    }
+    
+    /**
+     * Slots not held by any attempt; equals maxSessions once runAll has returned and every start has finished
+     */
+    int getFreeSlots() {
+        return slots.availablePermits();
+    }
+    
+    public int getPeakSessions() {
+        return peakSessions.get();
+    }
+    
+    /**
+     * Print one line per configuration and the totals
+     */
+    public void printSummary(List<Result> results) {
+        System.out.println("\n=== BROWSER MATRIX SUMMARY ===");
+        System.out.printf("%-40s %-10s %8s %6s %8s  %s%n", "Session", "Status", "Attempts", "Hedged", "Time s", "Error");
+        int[] counts = new int[Status.values().length];
+        for (Result result : results) {
+            counts[result.status.ordinal()]++;
+            System.out.printf("%-40s %-10s %8d %6s %8.1f  %s%n",
+                result.name, result.status, result.attempts, result.hedged ? "yes" : "no",
+                result.elapsedMillis / 1000.0, result.error != null ? result.error : "");
+        }
+        System.out.println("Passed: " + counts[Status.PASSED.ordinal()]
+            + ", failed: " + counts[Status.FAILED.ordinal()]
+            + ", timed out: " + counts[Status.TIMED_OUT.ordinal()]
+            + ", cancelled: " + counts[Status.CANCELLED.ordinal()]);
+        System.out.printf("Sessions started: %d, peak open: %d of %d allowed, total %.1f s%n",
+            sessionsStarted.get(), peakSessions.get(), maxSessions, elapsedMillis / 1000.0);
+        System.out.println("==============================");
+    }
+}
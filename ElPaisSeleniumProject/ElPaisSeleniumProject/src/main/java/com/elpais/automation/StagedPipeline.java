@@ -0,0 +1,243 @@
+package com.elpais.automation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * StagedPipeline moves items through a chain of stages connected by bounded queues
+ * Each stage has its own worker threads and may take items in small batches. A full
+ * queue blocks the stage feeding it (backpressure), so a slow stage slows the source
+ * instead of growing memory. If any stage throws, every worker is stopped and run()
+ * rethrows the error.
+ */
+public class StagedPipeline<T> {
+    
+    /**
+     * Produces the items, calling emit once per item
+     */
+    public interface Source<T> {
+        void produce(Consumer<T> emit) throws Exception;
+    }
+    
+    /**
+     * Processes one batch of items taken from the stage's queue
+     */
+    public interface Handler<T> {
+        void handle(List<T> batch) throws Exception;
+    }
+    
+    // Marks the end of the input; each worker of a stage takes exactly one
+    private static final Object END = new Object();
+    
+    private static class Stage<T> {
+        final String name;
+        final int workers;
+        final int maxBatch;
+        final Handler<T> handler;
+        final BlockingQueue<Object> queue;
+        final AtomicInteger running = new AtomicInteger();
+        
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        final AtomicLong putBlockedNanos = new AtomicLong();
+        final AtomicLong depthSum = new AtomicLong();
+        final AtomicLong depthSamples = new AtomicLong();
+        final AtomicInteger maxDepth = new AtomicInteger();
+        
+        Stage(String name, int workers, int queueCapacity, int maxBatch, Handler<T> handler) {
+            this.name = name;
+            this.workers = Math.max(1, workers);
+            this.maxBatch = Math.max(1, maxBatch);
+            this.handler = handler;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        }
+    }
+    
+    private final List<Stage<T>> stages = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private ExecutorService executor;
+    private long elapsedMillis;
+    
+    /**
+     * Add a stage that handles one item at a time
+     */
+    public StagedPipeline<T> stage(String name, int workers, int queueCapacity, Handler<T> handler) {
+        return stage(name, workers, queueCapacity, 1, handler);
+    }
+    
+    /**
+     * Add a stage whose workers take up to maxBatch queued items at once
+     */
+    public StagedPipeline<T> stage(String name, int workers, int queueCapacity, int maxBatch, Handler<T> handler) {
+        stages.add(new Stage<>(name, workers, queueCapacity, maxBatch, handler));
+        return this;
+    }
+    
+    /**
+     * Run the source on the calling thread and wait until every item has left the last stage
+     */
+    public void run(Source<T> source) throws Exception {
+        if (stages.isEmpty()) {
+            throw new IllegalStateException("Pipeline has no stages");
+        }
+        
+        long startTime = System.currentTimeMillis();
+        int totalWorkers = stages.stream().mapToInt(stage -> stage.workers).sum();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(totalWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "pipeline-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        for (int i = 0; i < stages.size(); i++) {
+            Stage<T> stage = stages.get(i);
+            Stage<T> next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+            stage.running.set(stage.workers);
+            for (int w = 0; w < stage.workers; w++) {
+                executor.execute(() -> runWorker(stage, next));
+            }
+        }
+        
+        try {
+            source.produce(item -> {
+                try {
+                    put(stages.get(0), item);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Pipeline interrupted");
+                }
+            });
+            endOfInput(stages.get(0));
+        } catch (Exception e) {
+            fail(e);
+        }
+        
+        executor.shutdown();
+        executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        elapsedMillis = System.currentTimeMillis() - startTime;
+        
+        Throwable error = failure.get();
+        if (error instanceof Exception) {
+            throw (Exception) error;
+        } else if (error != null) {
+            throw new IllegalStateException("Pipeline failed", error);
+        }
+    }
+    
+    private void runWorker(Stage<T> stage, Stage<T> next) {
+        List<T> batch = new ArrayList<>(stage.maxBatch);
+        boolean done = false;
+        
+        try {
+            while (!done && failure.get() == null) {
+                batch.clear();
+                Object item = stage.queue.take();
+                
+                // Take more queued items without waiting, stopping at the end marker
+                while (item != END) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) item;
+                    batch.add(value);
+                    if (batch.size() >= stage.maxBatch || (item = stage.queue.poll()) == null) {
+                        break;
+                    }
+                }
+                done = item == END;
+                
+                if (!batch.isEmpty()) {
+                    long start = System.nanoTime();
+                    stage.handler.handle(batch);
+                    stage.busyNanos.addAndGet(System.nanoTime() - start);
+                    stage.processed.addAndGet(batch.size());
+                    
+                    if (next != null) {
+                        for (T value : batch) {
+                            put(next, value);
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            fail(new IllegalStateException("Stage '" + stage.name + "' failed: " + e.getMessage(), e));
+        } finally {
+            // The last worker of a stage to finish passes the end marker on
+            if (stage.running.decrementAndGet() == 0 && next != null && failure.get() == null) {
+                try {
+                    endOfInput(next);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    private void put(Stage<T> stage, T item) throws InterruptedException {
+        if (failure.get() != null) {
+            throw new CancellationException("Pipeline stopped after an error");
+        }
+        
+        long start = System.nanoTime();
+        stage.queue.put(item);
+        stage.putBlockedNanos.addAndGet(System.nanoTime() - start);
+        
+        int depth = stage.queue.size();
+        stage.depthSum.addAndGet(depth);
+        stage.depthSamples.incrementAndGet();
+        stage.maxDepth.accumulateAndGet(depth, Math::max);
+    }
+    
+    private void endOfInput(Stage<T> stage) throws InterruptedException {
+        for (int i = 0; i < stage.workers; i++) {
+            stage.queue.put(END);
+        }
+    }
+    
+    /**
+     * Record the first error and stop every worker
+     */
+    private void fail(Throwable error) {
+        if (failure.compareAndSet(null, error)) {
+            System.out.println("Pipeline stopping after error: " + error.getMessage());
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            for (Stage<T> stage : stages) {
+                stage.queue.clear();
+            }
+        }
+    }
+    
+    /**
+     * Print items, busy time and input queue depth for each stage
+     * "Blocked ms" is the time producers spent waiting because the stage's queue was full.
+     */
+    public void printStatistics() {
+        System.out.println("\n=== PIPELINE STATISTICS ===");
+        System.out.printf("%-12s %7s %6s %9s %10s %9s %12s%n",
+            "Stage", "Workers", "Items", "Busy ms", "Avg depth", "Max depth", "Blocked ms");
+        for (Stage<T> stage : stages) {
+            long samples = stage.depthSamples.get();
+            System.out.printf("%-12s %7d %6d %9d %10.1f %9d %12d%n",
+                stage.name, stage.workers, stage.processed.get(),
+                TimeUnit.NANOSECONDS.toMillis(stage.busyNanos.get()),
+                samples == 0 ? 0.0 : (double) stage.depthSum.get() / samples,
+                stage.maxDepth.get(),
+                TimeUnit.NANOSECONDS.toMillis(stage.putBlockedNanos.get()));
+        }
+        System.out.println("End-to-end: " + elapsedMillis + " ms");
+        System.out.println("===========================");
+    }
+}
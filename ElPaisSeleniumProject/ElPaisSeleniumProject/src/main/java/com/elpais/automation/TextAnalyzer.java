@@ -1,11 +1,13 @@
 package com.elpais.automation;
 
+import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * TextAnalyzer handles analysis of translated text
- * Finds repeated words and their frequencies
+ * Finds repeated words and their frequencies. Headers are tokenized in a single pass over
+ * their characters: letters (including á, é, í, ó, ú and ñ) are lowercased into a reused
+ * buffer and everything else separates words, so rejected words never become strings.
  */
 public class TextAnalyzer {
     
@@ -18,6 +20,27 @@ public class TextAnalyzer {
         "i", "you", "he", "she", "it", "we", "they", "me", "him", "her", "us", "them"
     ));
     
+    // Stop words in a table the tokenizer can probe straight from its buffer
+    private static final WordCounts STOP_WORD_TABLE = WordCounts.of(STOP_WORDS.toArray(new String[0]));
+    
+    private static final int MIN_WORD_LENGTH = 3;
+    
+    // Lowercase form of each word character below U+0100, or 0 for separators
+    private static final char[] WORD_CHARS = new char[256];
+    
+    private static final ThreadLocal<char[]> TOKEN_BUFFER = ThreadLocal.withInitial(() -> new char[64]);
+    
+    static {
+        for (char c = 'a'; c <= 'z'; c++) {
+            WORD_CHARS[c] = c;
+            WORD_CHARS[Character.toUpperCase(c)] = c;
+        }
+        for (char c : "áéíóúñ".toCharArray()) {
+            WORD_CHARS[c] = c;
+            WORD_CHARS[Character.toUpperCase(c)] = c;
+        }
+    }
+    
     /**
      * Analyze translated headers and find repeated words
      */
@@ -29,103 +52,134 @@ public class TextAnalyzer {
         
         System.out.println("\n=== ANALYZING TRANSLATED HEADERS ===");
         
-        // Count word frequencies
-        Map<String, Integer> wordFrequency = new HashMap<>();
-        
+        return countRepeatedWords(translatedHeaders);
+    }
+    
+    /**
+     * Count words across the headers and keep the repeated ones, without printing
+     */
+    static Map<String, Integer> countRepeatedWords(List<String> translatedHeaders) {
+        return selectRepeatedWords(countWords(translatedHeaders));
+    }
+    
+    /**
+     * Count every valid word across the headers in one pass
+     * The result feeds both selectRepeatedWords and printSummaryStatistics.
+     */
+    public static WordCounts countWords(List<String> translatedHeaders) {
+        long start = System.nanoTime();
+        WordCounts wordCounts = new WordCounts();
         for (String header : translatedHeaders) {
-            if (header != null && !header.trim().isEmpty()) {
-                // Process each header
-                processHeader(header, wordFrequency);
+            if (header != null) {
+                processHeader(header, wordCounts);
             }
         }
-        
-        // Filter words that appear more than twice
-        Map<String, Integer> repeatedWords = wordFrequency.entrySet()
-                .stream()
-                .filter(entry -> entry.getValue() > 2)
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
-        
-        // Sort by frequency (descending)
-        Map<String, Integer> sortedRepeatedWords = repeatedWords.entrySet()
-                .stream()
-                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
-                .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    Map.Entry::getValue,
-                    (e1, e2) -> e1,
-                    LinkedHashMap::new
-                ));
-        
-        return sortedRepeatedWords;
+        Metrics.record(Metrics.ANALYSIS, Metrics.DEFAULT_TAG, start);
+        return wordCounts;
     }
     
     /**
-     * Process a single header and update word frequency map
+     * Words counted more than twice, most frequent first and alphabetical among equals
      */
-    private static void processHeader(String header, Map<String, Integer> wordFrequency) {
-        // Clean and normalize the header text
-        String cleanHeader = cleanText(header);
-        
-        // Split into words
-        String[] words = cleanHeader.split("\\s+");
-        
-        for (String word : words) {
-            word = word.trim().toLowerCase();
-            
-            // Skip if word is too short, is a stop word, or contains numbers
-            if (isValidWord(word)) {
-                wordFrequency.put(word, wordFrequency.getOrDefault(word, 0) + 1);
+    static Map<String, Integer> selectRepeatedWords(WordCounts wordCounts) {
+        List<Map.Entry<String, Integer>> repeated = new ArrayList<>();
+        wordCounts.forEach((word, count) -> {
+            if (count > 2) {
+                repeated.add(new AbstractMap.SimpleImmutableEntry<>(word, count));
             }
+        });
+        repeated.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+            .thenComparing(Map.Entry.comparingByKey()));
+        
+        Map<String, Integer> sortedRepeatedWords = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : repeated) {
+            sortedRepeatedWords.put(entry.getKey(), entry.getValue());
         }
+        return sortedRepeatedWords;
     }
     
     /**
-     * Clean text by removing punctuation and special characters
+     * Tokenize a single header and add its valid words to the counts
+     * Not timed on its own; callers counting many headers time the whole batch.
      */
-    private static String cleanText(String text) {
-        if (text == null) {
-            return "";
+    static void processHeader(String header, WordCounts wordCounts) {
+        char[] buffer = TOKEN_BUFFER.get();
+        int length = 0;
+        int hash = 0;
+        
+        // One extra step past the end flushes the last word
+        for (int i = 0, n = header.length(); i <= n; i++) {
+            char c = i < n ? header.charAt(i) : ' ';
+            char lower = c < WORD_CHARS.length ? WORD_CHARS[c] : 0;
+            if (lower != 0) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                    TOKEN_BUFFER.set(buffer);
+                }
+                buffer[length++] = lower;
+                hash = 31 * hash + lower;
+            } else if (length > 0) {
+                countWord(buffer, length, hash, wordCounts);
+                length = 0;
+                hash = 0;
+            }
         }
-        
-        // Remove punctuation and special characters, keep only letters and spaces
-        String cleaned = text.replaceAll("[^a-zA-ZáéíóúñÁÉÍÓÚÑ\\s]", " ");
-        
-        // Replace multiple spaces with single space
-        cleaned = cleaned.replaceAll("\\s+", " ");
-        
-        return cleaned.trim();
     }
     
     /**
-     * Check if a word is valid for analysis
+     * Tokenize UTF-8 text in bytes [from, to) of a buffer, one headline per line
+     * Reads the buffer in place, so a memory-mapped file is counted without decoding it
+     * into strings. Letters outside U+0100 are separators here, as they are in processHeader.
+     * @return number of non-empty lines
      */
-    private static boolean isValidWord(String word) {
-        // Skip if word is too short
-        if (word.length() < 3) {
-            return false;
-        }
-        
-        // Skip if word is a common stop word
-        if (STOP_WORDS.contains(word.toLowerCase())) {
-            return false;
-        }
-        
-        // Skip if word contains numbers
-        if (word.matches(".*\\d.*")) {
-            return false;
+    static long processBytes(ByteBuffer bytes, int from, int to, WordCounts wordCounts) {
+        char[] buffer = TOKEN_BUFFER.get();
+        int length = 0;
+        int hash = 0;
+        long lines = 0;
+        boolean lineHasText = false;
+        
+        for (int i = from; i <= to; i++) {
+            int b = i < to ? bytes.get(i) & 0xFF : '\n';
+            char lower = 0;
+            if (b < 0x80) {
+                lower = WORD_CHARS[b];
+                if (b == '\n') {
+                    lines += lineHasText ? 1 : 0;
+                    lineHasText = false;
+                } else if (b != '\r') {
+                    lineHasText = true;
+                }
+            } else {
+                lineHasText = true;
+                // Two-byte sequences cover U+0080..U+07FF, which holds every accented word letter
+                if (b >= 0xC2 && b < 0xE0 && i + 1 < to) {
+                    int c = ((b & 0x1F) << 6) | (bytes.get(++i) & 0x3F);
+                    lower = c < WORD_CHARS.length ? WORD_CHARS[c] : 0;
+                }
+            }
+            
+            if (lower != 0) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                    TOKEN_BUFFER.set(buffer);
+                }
+                buffer[length++] = lower;
+                hash = 31 * hash + lower;
+            } else if (length > 0) {
+                countWord(buffer, length, hash, wordCounts);
+                length = 0;
+                hash = 0;
+            }
         }
-        
-        // Skip if word is all uppercase (might be acronym)
-        if (word.equals(word.toUpperCase()) && word.length() < 5) {
-            return false;
+        return lines;
+    }
+    
+    // Skip if word is too short or is a stop word
+    private static void countWord(char[] buffer, int length, int hash, WordCounts wordCounts) {
+        if (length >= MIN_WORD_LENGTH && !STOP_WORD_TABLE.contains(buffer, length, hash)) {
+            wordCounts.add(buffer, length, hash);
         }
-        
-        return true;
     }
     
     /**
@@ -156,38 +210,20 @@ public class TextAnalyzer {
     /**
      * Get summary statistics of the word analysis
      */
-    public static void printSummaryStatistics(List<String> translatedHeaders, Map<String, Integer> repeatedWords) {
+    public static void printSummaryStatistics(int articleCount, long totalWords, long uniqueWords,
+                                              long repeatedWordCount) {
         System.out.println("\n=== SUMMARY STATISTICS ===");
         
-        // Count total words
-        int totalWords = 0;
-        Set<String> uniqueWords = new HashSet<>();
-        
-        for (String header : translatedHeaders) {
-            if (header != null && !header.trim().isEmpty()) {
-                String cleanHeader = cleanText(header);
-                String[] words = cleanHeader.split("\\s+");
-                
-                for (String word : words) {
-                    word = word.trim().toLowerCase();
-                    if (isValidWord(word)) {
-                        totalWords++;
-                        uniqueWords.add(word);
-                    }
-                }
-            }
-        }
-        
-        System.out.println("Total articles analyzed: " + translatedHeaders.size());
+        System.out.println("Total articles analyzed: " + articleCount);
         System.out.println("Total valid words: " + totalWords);
-        System.out.println("Total unique words: " + uniqueWords.size());
-        System.out.println("Words repeated more than twice: " + repeatedWords.size());
+        System.out.println("Total unique words: " + uniqueWords);
+        System.out.println("Words repeated more than twice: " + repeatedWordCount);
         
         if (totalWords > 0) {
-            double repetitionRate = (double) repeatedWords.size() / uniqueWords.size() * 100;
+            double repetitionRate = (double) repeatedWordCount / uniqueWords * 100;
             System.out.printf("Repetition rate: %.2f%%%n", repetitionRate);
         }
         
         System.out.println("=============================");
     }
-} 
\ No newline at end of file
+}
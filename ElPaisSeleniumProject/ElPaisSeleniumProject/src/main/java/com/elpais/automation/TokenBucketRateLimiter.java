@@ -0,0 +1,52 @@
+package com.elpais.automation;
+
+/**
+ * TokenBucketRateLimiter limits how often an operation may run
+ * Tokens refill at a fixed rate up to a burst capacity; each call takes one token
+ * and waits when the bucket is empty.
+ */
+public class TokenBucketRateLimiter {
+    
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefill;
+    
+    /**
+     * @throws IllegalArgumentException if permitsPerSecond is not positive; callers that
+     *         allow "no limit" should skip the limiter instead
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive: " + permitsPerSecond);
+        }
+        this.tokensPerNano = permitsPerSecond / 1_000_000_000.0;
+        this.capacity = Math.max(1, burst);
+        this.tokens = this.capacity;
+        this.lastRefill = System.nanoTime();
+    }
+    
+    /**
+     * Take one token, waiting until one is available
+     */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+    
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
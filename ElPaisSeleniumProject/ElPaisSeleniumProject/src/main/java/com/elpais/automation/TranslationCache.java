@@ -0,0 +1,318 @@
+package com.elpais.automation;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TranslationCache keeps translations between runs so repeated headlines skip the API
+ * Two tiers: an in-memory LRU map in front of one small JSON file per entry on disk.
+ * Entries expire after a TTL, both tiers are size-bounded, and concurrent lookups
+ * for the same key share a single API call.
+ */
+public class TranslationCache {
+    
+    /**
+     * Loads a translation on a cache miss
+     * Returning null means the translation failed and must not be cached.
+     */
+    public interface Loader {
+        String load(String sourceText) throws Exception;
+    }
+    
+    /**
+     * Stored form of one cached translation
+     */
+    static class Entry {
+        String source;
+        String langPair;
+        String translation;
+        long createdAt;
+    }
+    
+    private static TranslationCache instance;
+    
+    private final Path cacheDir;
+    private final long ttlMillis;
+    private final int maxDiskEntries;
+    private final Map<String, Entry> memory;
+    private final Map<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Gson gson = new Gson();
+    
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong sharedLoads = new AtomicLong();
+    private final AtomicLong diskWrites = new AtomicLong();
+    
+    public TranslationCache(String cacheDir, int maxMemoryEntries, int maxDiskEntries, long ttlMillis) {
+        this.cacheDir = Paths.get(cacheDir);
+        this.maxDiskEntries = maxDiskEntries;
+        this.ttlMillis = ttlMillis;
+        
+        // Access-ordered LinkedHashMap drops the least recently used entry when full
+        this.memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxMemoryEntries;
+            }
+        };
+        
+        try {
+            Files.createDirectories(this.cacheDir);
+        } catch (IOException e) {
+            System.out.println("Error creating translation cache directory: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Shared cache configured from config.properties
+     */
+    public static synchronized TranslationCache getInstance() {
+        if (instance == null) {
+            instance = new TranslationCache(
+                ConfigManager.getTranslationCacheDirectory(),
+                ConfigManager.getTranslationCacheMemorySize(),
+                ConfigManager.getTranslationCacheDiskSize(),
+                ConfigManager.getTranslationCacheTtlHours() * 3600_000L);
+        }
+        return instance;
+    }
+    
+    /**
+     * Return the cached translation, or load it once and cache the result
+     */
+    public String get(String sourceText, String langPair, Loader loader) throws Exception {
+        String key = keyOf(sourceText, langPair);
+        
+        String cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        // Single flight: only the first caller for a key runs the loader
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            sharedLoads.incrementAndGet();
+            return join(existing);
+        }
+        
+        misses.incrementAndGet();
+        try {
+            String translation = loader.load(sourceText);
+            if (translation != null) {
+                put(key, sourceText, langPair, translation);
+            }
+            created.complete(translation);
+            return translation;
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+    
+    /**
+     * Return the cached translation without loading it on a miss
+     */
+    public String peek(String sourceText, String langPair) {
+        return lookup(keyOf(sourceText, langPair));
+    }
+    
+    /**
+     * Store a translation that was loaded outside of get(), counting it as a miss
+     */
+    public void put(String sourceText, String langPair, String translation) {
+        misses.incrementAndGet();
+        put(keyOf(sourceText, langPair), sourceText, langPair, translation);
+    }
+    
+    /**
+     * Print hit/miss counters
+     */
+    public void printStatistics() {
+        long hits = memoryHits.get() + diskHits.get();
+        long total = hits + misses.get();
+        double hitRate = total == 0 ? 0 : hits * 100.0 / total;
+        System.out.printf("Translation cache: %d memory hits, %d disk hits, %d misses, %d shared loads (%.1f%% hit rate)%n",
+            memoryHits.get(), diskHits.get(), misses.get(), sharedLoads.get(), hitRate);
+    }
+    
+    public long getHitCount() {
+        return memoryHits.get() + diskHits.get();
+    }
+    
+    public long getMissCount() {
+        return misses.get();
+    }
+    
+    private String lookup(String key) {
+        long now = System.currentTimeMillis();
+        
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry != null) {
+                if (!isExpired(entry, now)) {
+                    memoryHits.incrementAndGet();
+                    return entry.translation;
+                }
+                memory.remove(key);
+            }
+        }
+        
+        Entry entry = readDisk(key);
+        if (entry != null) {
+            if (!isExpired(entry, now)) {
+                diskHits.incrementAndGet();
+                synchronized (memory) {
+                    memory.put(key, entry);
+                }
+                return entry.translation;
+            }
+            deleteDisk(key);
+        }
+        
+        return null;
+    }
+    
+    private void put(String key, String sourceText, String langPair, String translation) {
+        Entry entry = new Entry();
+        entry.source = sourceText;
+        entry.langPair = langPair;
+        entry.translation = translation;
+        entry.createdAt = System.currentTimeMillis();
+        
+        synchronized (memory) {
+            memory.put(key, entry);
+        }
+        writeDisk(key, entry);
+        
+        // Trim the disk tier periodically rather than listing the directory on every write
+        if (diskWrites.incrementAndGet() % 50 == 0) {
+            evictDisk();
+        }
+    }
+    
+    private boolean isExpired(Entry entry, long now) {
+        return ttlMillis > 0 && now - entry.createdAt > ttlMillis;
+    }
+    
+    private Entry readDisk(String key) {
+        Path file = cacheDir.resolve(key + ".json");
+        if (!Files.exists(file)) {
+            return null;
+        }
+        
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Entry.class);
+        } catch (Exception e) {
+            System.out.println("Error reading translation cache entry: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private void writeDisk(String key, Entry entry) {
+        try {
+            Path tempFile = Files.createTempFile(cacheDir, key, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(entry, writer);
+            }
+            Files.move(tempFile, cacheDir.resolve(key + ".json"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Error writing translation cache entry: " + e.getMessage());
+        }
+    }
+    
+    private void deleteDisk(String key) {
+        try {
+            Files.deleteIfExists(cacheDir.resolve(key + ".json"));
+        } catch (IOException e) {
+            System.out.println("Error deleting translation cache entry: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Delete the oldest files when the disk tier grows past its limit
+     */
+    private void evictDisk() {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(cacheDir, "*.json")) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        } catch (IOException e) {
+            System.out.println("Error listing translation cache: " + e.getMessage());
+            return;
+        }
+        
+        if (files.size() <= maxDiskEntries) {
+            return;
+        }
+        
+        files.sort(Comparator.comparingLong(TranslationCache::lastModified));
+        for (int i = 0; i < files.size() - maxDiskEntries; i++) {
+            try {
+                Files.deleteIfExists(files.get(i));
+            } catch (IOException e) {
+                // Skip files we can't delete
+            }
+        }
+    }
+    
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+    
+    private static String join(CompletableFuture<String> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+    
+    /**
+     * Key on NFC-normalized, whitespace-collapsed text plus the language pair
+     */
+    static String keyOf(String sourceText, String langPair) {
+        String normalized = Normalizer.normalize(sourceText, Normalizer.Form.NFC).trim().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((langPair + '\u0000' + normalized).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
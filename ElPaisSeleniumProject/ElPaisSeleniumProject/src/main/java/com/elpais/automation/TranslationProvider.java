@@ -0,0 +1,43 @@
+package com.elpais.automation;
+
+/**
+ * TranslationProvider is the interface for translation backends
+ * The provider is chosen with translation.provider: mymemory, offline or chain.
+ */
+public interface TranslationProvider {
+    
+    /**
+     * Short name used in logs
+     */
+    String getName();
+    
+    /**
+     * Translate text; multi-line text is translated line by line
+     * @param text the text to translate
+     * @param langPair source and target language, e.g. "es|en"
+     * @return translated text, or null if this provider has no translation for it
+     */
+    String translate(String text, String langPair) throws Exception;
+    
+    /**
+     * Whether calls go over the network, so caching and request packing pay off
+     */
+    boolean isNetworkBound();
+    
+    /**
+     * Create the provider configured by translation.provider
+     */
+    static TranslationProvider fromConfig() {
+        String name = ConfigManager.getTranslationProvider();
+        
+        if ("offline".equalsIgnoreCase(name)) {
+            return new OfflineTranslationProvider(PhraseTable.getDefault(), ConfigManager.getTranslationOfflineMinCoverage());
+        }
+        if ("chain".equalsIgnoreCase(name)) {
+            return new ChainedTranslationProvider(
+                new OfflineTranslationProvider(PhraseTable.getDefault(), ConfigManager.getTranslationChainMinCoverage()),
+                new MyMemoryTranslationProvider());
+        }
+        return new MyMemoryTranslationProvider();
+    }
+}
@@ -1,29 +1,59 @@
 package com.elpais.automation;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
-import org.apache.http.client.utils.URIBuilder;
-
-import java.io.IOException;
-import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * TranslationService handles translation of text from Spanish to English
- * Uses MyMemory Translation API (free service)
+ * Delegates to the TranslationProvider selected in config (MyMemory API by default)
  */
 public class TranslationService {
     
-    private final String apiUrl;
+    private static final String LANG_PAIR = "es|en";
+    
+    // Returned by translateToEnglish when the provider has no translation
+    static final String NOT_AVAILABLE = "Translation not available";
+    
+    // Newlines survive translation and never appear in whitespace-collapsed headlines
+    static final String PACK_DELIMITER = "\n";
+    
+    // Packing metrics shared across instances
+    private static final AtomicLong packedRequests = new AtomicLong();
+    private static final AtomicLong requestsSaved = new AtomicLong();
+    private static final AtomicLong packFallbacks = new AtomicLong();
+    
+    private final TranslationProvider provider;
+    private final TranslationCache cache;
+    private final long batchTimeoutSeconds;
     
     public TranslationService() {
-        this.apiUrl = ConfigManager.getTranslationApiUrl();
+        this(TranslationProvider.fromConfig());
+    }
+    
+    public TranslationService(TranslationProvider provider) {
+        this(provider, TranslationCache.getInstance());
+    }
+    
+    TranslationService(TranslationProvider provider, TranslationCache cache) {
+        this(provider, cache, ConfigManager.getTranslationBatchTimeoutSeconds());
+    }
+    
+    TranslationService(TranslationProvider provider, TranslationCache cache, long batchTimeoutSeconds) {
+        this.provider = provider;
+        this.cache = cache;
+        this.batchTimeoutSeconds = batchTimeoutSeconds;
     }
     
     /**
@@ -40,14 +70,10 @@ public class TranslationService {
             // Clean the text - remove extra spaces
             String cleanText = spanishText.trim().replaceAll("\\s+", " ");
             
-            // Build the API request URL with proper encoding
-            String requestUrl = buildRequestUrl(cleanText);
-            
-            // Make HTTP request to translation API
-            String response = makeHttpRequest(requestUrl);
-            
-            // Parse the JSON response
-            String translatedText = parseTranslationResponse(response);
+            String translatedText = translateCleanText(cleanText);
+            if (translatedText == null) {
+                return NOT_AVAILABLE;
+            }
             
             System.out.println("Translated: '" + cleanText + "' -> '" + translatedText + "'");
             return translatedText;
@@ -58,56 +84,201 @@ public class TranslationService {
         }
     }
     
-    private String buildRequestUrl(String cleanText) throws URISyntaxException {
-        URIBuilder builder = new URIBuilder(this.apiUrl);
-        builder.addParameter("q", cleanText);
-        builder.addParameter("langpair", "es|en");
-        return builder.build().toString();
+    /**
+     * Translate whitespace-collapsed text; null results are never cached
+     */
+    private String translateCleanText(String cleanText) throws Exception {
+        // Network providers go through the cache; local ones are cheaper than a cache lookup
+        return provider.isNetworkBound()
+            ? cache.get(cleanText, LANG_PAIR, this::requestTranslation)
+            : requestTranslation(cleanText);
     }
     
     /**
-     * Make HTTP GET request to the translation API
-     * @param url the API URL
-     * @return response body as string
+     * Translate many texts concurrently over the shared connection pool
+     * Cache misses are packed into as few API requests as the payload limit allows.
+     * @param spanishTexts texts to translate
+     * @return translations in input order; items that fail or time out keep their source text
      */
-    private String makeHttpRequest(String url) throws IOException {
-        try (CloseableHttpClient httpClient = HttpClients.createDefault()) {
-            HttpGet request = new HttpGet(url);
+    public List<String> translateAll(List<String> spanishTexts) {
+        String[] results = new String[spanishTexts.size()];
+        
+        // Answer cache hits directly and group the misses by normalized text
+        Map<String, List<Integer>> pending = new LinkedHashMap<>();
+        for (int i = 0; i < spanishTexts.size(); i++) {
+            String text = spanishTexts.get(i);
+            if (text == null || text.trim().isEmpty()) {
+                results[i] = "";
+                continue;
+            }
             
-            // Set user agent to avoid blocking
-            request.setHeader("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36");
+            String cleanText = text.trim().replaceAll("\\s+", " ");
+            String cached = provider.isNetworkBound() ? cache.peek(cleanText, LANG_PAIR) : null;
+            if (cached != null) {
+                results[i] = cached;
+            } else {
+                pending.computeIfAbsent(cleanText, key -> new ArrayList<>()).add(i);
+            }
+        }
+        
+        List<List<String>> packs = provider.isNetworkBound() && ConfigManager.isTranslationPackingEnabled()
+            ? buildPacks(new ArrayList<>(pending.keySet()), ConfigManager.getTranslationPackMaxLength())
+            : singletonPacks(pending.keySet());
+        
+        if (!packs.isEmpty()) {
+            int threads = Math.max(1, Math.min(ConfigManager.getTranslationConcurrency(), packs.size()));
+            ExecutorService executor = IoExecutors.newExecutor("translation", threads);
             
-            try (CloseableHttpResponse response = httpClient.execute(request)) {
-                HttpEntity entity = response.getEntity();
-                if (entity != null) {
-                    return EntityUtils.toString(entity, StandardCharsets.UTF_8);
+            try {
+                List<Future<Map<String, String>>> futures = new ArrayList<>();
+                for (List<String> pack : packs) {
+                    futures.add(executor.submit(() -> translatePack(pack)));
                 }
+                
+                // One deadline for the whole batch; packs still running at the deadline keep their source text
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(batchTimeoutSeconds);
+                for (int p = 0; p < futures.size(); p++) {
+                    Map<String, String> translations;
+                    try {
+                        translations = futures.get(p).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    } catch (TimeoutException e) {
+                        System.out.println("⚠ Translation of " + packs.get(p).size() + " texts timed out, keeping source text");
+                        futures.get(p).cancel(true);
+                        translations = new HashMap<>();
+                    } catch (Exception e) {
+                        System.out.println("Translation error: " + e.getMessage());
+                        translations = new HashMap<>();
+                    }
+                    
+                    for (String cleanText : packs.get(p)) {
+                        String translation = translations.get(cleanText);
+                        for (int index : pending.get(cleanText)) {
+                            results[index] = translation != null ? translation : spanishTexts.get(index);
+                        }
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
             }
         }
-        return "";
+        
+        return Arrays.asList(results);
     }
     
     /**
-     * Parse the JSON response from translation API
-     * @param jsonResponse the JSON response string
-     * @return translated text
+     * One call to the provider, timed as the translation phase
      */
-    private String parseTranslationResponse(String jsonResponse) {
+    private String requestTranslation(String text) throws Exception {
+        long start = System.nanoTime();
         try {
-            JsonObject jsonObject = JsonParser.parseString(jsonResponse).getAsJsonObject();
-            
-            // MyMemory API response structure: {"responseData":{"translatedText":"..."}}
-            if (jsonObject.has("responseData")) {
-                JsonObject responseData = jsonObject.getAsJsonObject("responseData");
-                if (responseData.has("translatedText")) {
-                    return responseData.get("translatedText").getAsString();
+            return provider.translate(text, LANG_PAIR);
+        } finally {
+            Metrics.record(Metrics.TRANSLATION, Metrics.DEFAULT_TAG, start);
+        }
+    }
+    
+    /**
+     * Translate one pack of texts with a single request, or one by one if the split fails
+     */
+    private Map<String, String> translatePack(List<String> pack) {
+        Map<String, String> translations = new HashMap<>();
+        
+        if (pack.size() > 1) {
+            try {
+                String packed = requestTranslation(String.join(PACK_DELIMITER, pack));
+                String[] parts = packed == null ? new String[0] : packed.split("\\s*" + PACK_DELIMITER + "\\s*");
+                
+                if (parts.length == pack.size() && !containsEmpty(parts)) {
+                    for (int i = 0; i < parts.length; i++) {
+                        String translation = parts[i].trim();
+                        cache.put(pack.get(i), LANG_PAIR, translation);
+                        translations.put(pack.get(i), translation);
+                        System.out.println("Translated: '" + pack.get(i) + "' -> '" + translation + "'");
+                    }
+                    packedRequests.incrementAndGet();
+                    requestsSaved.addAndGet(pack.size() - 1);
+                    return translations;
+                }
+                
+                System.out.println("Pack of " + pack.size() + " came back as " + parts.length
+                    + " parts, re-sending individually");
+            } catch (Exception e) {
+                System.out.println("Packed translation failed, re-sending individually: " + e.getMessage());
+            }
+            packFallbacks.incrementAndGet();
+        }
+        
+        // Failed items stay out of the map so translateAll keeps their source text
+        for (String cleanText : pack) {
+            try {
+                String translation = translateCleanText(cleanText);
+                if (translation != null) {
+                    translations.put(cleanText, translation);
+                    System.out.println("Translated: '" + cleanText + "' -> '" + translation + "'");
                 }
+            } catch (Exception e) {
+                System.out.println("Translation error: " + e.getMessage());
             }
+        }
+        return translations;
+    }
+    
+    private static boolean containsEmpty(String[] parts) {
+        for (String part : parts) {
+            if (part.trim().isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Greedily group texts so each joined payload stays within maxLength UTF-8 bytes
+     */
+    static List<List<String>> buildPacks(List<String> texts, int maxLength) {
+        int delimiterLength = PACK_DELIMITER.getBytes(StandardCharsets.UTF_8).length;
+        List<List<String>> packs = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int currentLength = 0;
+        
+        for (String text : texts) {
+            int length = text.getBytes(StandardCharsets.UTF_8).length;
+            int added = current.isEmpty() ? length : length + delimiterLength;
             
-        } catch (Exception e) {
-            System.out.println("Error parsing translation response: " + e.getMessage());
+            if (!current.isEmpty() && currentLength + added > maxLength) {
+                packs.add(current);
+                current = new ArrayList<>();
+                currentLength = 0;
+                added = length;
+            }
+            
+            current.add(text);
+            currentLength += added;
         }
         
-        return "Translation not available";
+        if (!current.isEmpty()) {
+            packs.add(current);
+        }
+        return packs;
+    }
+    
+    private static List<List<String>> singletonPacks(Collection<String> texts) {
+        List<List<String>> packs = new ArrayList<>();
+        for (String text : texts) {
+            packs.add(Collections.singletonList(text));
+        }
+        return packs;
+    }
+    
+    /**
+     * Print how many API requests packing avoided
+     */
+    public static void printPackingStatistics() {
+        System.out.println("Translation packing: " + packedRequests.get() + " packed requests, "
+            + requestsSaved.get() + " requests saved, " + packFallbacks.get() + " packs re-sent individually");
+    }
+    
+    public static long getRequestsSaved() {
+        return requestsSaved.get();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.elpais.automation;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * UrlFrontier holds the pages a crawl still has to visit
+ * Each URL is queued at most once. The frontier is exhausted when the queue is
+ * empty and no page taken from it is still being processed, because those pages
+ * may add new URLs.
+ */
+public class UrlFrontier {
+    
+    /**
+     * A page to crawl, with the section it belongs to and its page number within it
+     */
+    public static class Task {
+        final String url;
+        final String section;
+        final int page;
+        
+        Task(String url, String section, int page) {
+            this.url = url;
+            this.section = section;
+            this.page = page;
+        }
+    }
+    
+    private final LinkedBlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    
+    /**
+     * Queue a URL unless it has been queued before
+     * @return true if the URL was new
+     */
+    public boolean offer(String url, String section, int page) {
+        String normalized = normalize(url);
+        if (normalized == null || !seen.add(normalized)) {
+            return false;
+        }
+        outstanding.incrementAndGet();
+        queue.add(new Task(normalized, section, page));
+        return true;
+    }
+    
+    /**
+     * Take the next page, waiting up to timeoutMillis
+     * @return the task, or null if none arrived in time
+     */
+    public Task poll(long timeoutMillis) throws InterruptedException {
+        return queue.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Mark a task from poll as processed, after any URLs it found were offered
+     */
+    public void done(Task task) {
+        outstanding.decrementAndGet();
+    }
+    
+    public boolean isExhausted() {
+        return outstanding.get() == 0;
+    }
+    
+    public int getSeenCount() {
+        return seen.size();
+    }
+    
+    /**
+     * Drop the fragment and lower-case the scheme and host so equivalent links dedupe
+     */
+    static String normalize(String url) {
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return null;
+            }
+            String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+            return uri.getScheme().toLowerCase() + "://" + uri.getRawAuthority().toLowerCase()
+                + path + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * WebDriverPool keeps started browser sessions warm so repeated scrapes skip browser start-up
+ * Sessions are leased and released; on release their cookies, storage and page are reset.
+ * Sessions that fail a health check, fail to reset or exceed the maximum age are quit and replaced.
+ * Only local Chrome is pooled. BrowserStack sessions are started and quit by SessionScheduler,
+ * which runs each configuration once per build: a warm remote session would never be leased
+ * again, yet while idle it holds one of the account's parallel sessions.
+ */
+public class WebDriverPool {
+    
+    private static final Map<String, WebDriverPool> pools = new ConcurrentHashMap<>();
+    
+    private final String name;
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final long maxAgeMillis;
+    private final long leaseTimeoutMillis;
+    
+    private final LinkedBlockingDeque<PooledSession> idle = new LinkedBlockingDeque<>();
+    private final Map<WebDriver, PooledSession> leased = new IdentityHashMap<>();
+    private int totalSessions;
+    private boolean closed;
+    
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    
+    /**
+     * A started session and when it was created
+     */
+    private static class PooledSession {
+        final WebDriver driver;
+        final long createdAt = System.currentTimeMillis();
+        int leaseCount;
+        
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+    }
+    
+    public WebDriverPool(String name, Supplier<WebDriver> factory, int maxSize,
+                         long maxAgeMillis, long leaseTimeoutMillis) {
+        this.name = name;
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.maxAgeMillis = maxAgeMillis;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+    }
+    
+    /**
+     * Shared pool of local headless Chrome sessions
+     */
+    public static WebDriverPool local() {
+        return pools.computeIfAbsent("local-chrome", key -> new WebDriverPool(key,
+            ElPaisWebScraper::createLocalDriver,
+            ConfigManager.getDriverPoolSize(),
+            ConfigManager.getDriverPoolMaxAgeMinutes() * 60_000L,
+            ConfigManager.getDriverPoolLeaseTimeoutSeconds() * 1000L));
+    }
+    
+    /**
+     * Start sessions up front so the first lease does not pay for browser start-up
+     */
+    public void prewarm(int count) {
+        int toStart;
+        synchronized (this) {
+            toStart = Math.min(count, maxSize - totalSessions);
+            totalSessions += Math.max(0, toStart);
+        }
+        
+        List<Thread> starters = new ArrayList<>();
+        for (int i = 0; i < toStart; i++) {
+            Thread starter = new Thread(() -> {
+                try {
+                    idle.offerLast(newSession());
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        totalSessions--;
+                    }
+                    System.out.println("Error pre-starting " + name + " session: " + e.getMessage());
+                }
+            }, "driver-prewarm-" + i);
+            starter.start();
+            starters.add(starter);
+        }
+        
+        for (Thread starter : starters) {
+            try {
+                starter.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        System.out.println("✓ Pre-started " + idle.size() + " " + name + " session(s)");
+    }
+    
+    /**
+     * Lease a healthy session, starting one if the pool has room, otherwise waiting for a release
+     */
+    public WebDriver lease() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+        
+        while (true) {
+            PooledSession session = idle.pollFirst();
+            
+            if (session == null) {
+                boolean canCreate;
+                synchronized (this) {
+                    if (closed) {
+                        throw new IllegalStateException("Driver pool " + name + " is shut down");
+                    }
+                    canCreate = totalSessions < maxSize;
+                    if (canCreate) {
+                        totalSessions++;
+                    }
+                }
+                
+                if (canCreate) {
+                    try {
+                        session = newSession();
+                    } catch (RuntimeException e) {
+                        synchronized (this) {
+                            totalSessions--;
+                        }
+                        throw e;
+                    }
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Timed out waiting for a " + name + " session");
+                    }
+                    try {
+                        session = idle.pollFirst(remaining, TimeUnit.NANOSECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrupted waiting for a " + name + " session", e);
+                    }
+                    if (session == null) {
+                        continue;
+                    }
+                }
+            }
+            
+            if (session.leaseCount > 0 && !isUsable(session)) {
+                evict(session);
+                continue;
+            }
+            
+            if (session.leaseCount > 0) {
+                reuses.incrementAndGet();
+            }
+            session.leaseCount++;
+            synchronized (this) {
+                leased.put(session.driver, session);
+            }
+            
+            recordWait(System.nanoTime() - start);
+            leases.incrementAndGet();
+            return session.driver;
+        }
+    }
+    
+    /**
+     * Reset a leased session and make it available again; broken sessions are evicted
+     */
+    public void release(WebDriver driver) {
+        PooledSession session;
+        synchronized (this) {
+            session = leased.remove(driver);
+        }
+        if (session == null) {
+            return;
+        }
+        
+        if (closed || !resetSession(session)) {
+            evict(session);
+            return;
+        }
+        idle.offerFirst(session);
+    }
+    
+    /**
+     * Quit every idle session and refuse new leases; leased sessions are quit on release
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+        }
+        PooledSession session;
+        while ((session = idle.pollFirst()) != null) {
+            evict(session);
+        }
+    }
+    
+    /**
+     * Shut down every shared pool
+     */
+    public static void shutdownAll() {
+        for (WebDriverPool pool : pools.values()) {
+            pool.printStatistics();
+            pool.shutdown();
+        }
+        pools.clear();
+    }
+    
+    /**
+     * Print lease, reuse and wait-time metrics
+     */
+    public void printStatistics() {
+        long count = leases.get();
+        double avgWaitMs = count == 0 ? 0 : waitNanos.get() / 1_000_000.0 / count;
+        System.out.printf("Driver pool %s: %d leases, %d reused, %d started, %d evicted, "
+                + "avg wait %.1f ms, max wait %.1f ms%n",
+            name, count, reuses.get(), created.get(), evicted.get(),
+            avgWaitMs, maxWaitNanos.get() / 1_000_000.0);
+    }
+    
+    public long getReuseCount() {
+        return reuses.get();
+    }
+    
+    private PooledSession newSession() {
+        PooledSession session = new PooledSession(factory.get());
+        created.incrementAndGet();
+        return session;
+    }
+    
+    /**
+     * A session is usable if it is younger than the maximum age and still answers commands
+     */
+    private boolean isUsable(PooledSession session) {
+        if (maxAgeMillis > 0 && System.currentTimeMillis() - session.createdAt > maxAgeMillis) {
+            return false;
+        }
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Clear cookies and web storage and park the session on a blank page
+     */
+    private boolean resetSession(PooledSession session) {
+        try {
+            WebDriver driver = session.driver;
+            driver.manage().deleteAllCookies();
+            try {
+                ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+            } catch (Exception ignore) {
+                // Some pages deny storage access; cookies and navigation still reset the session
+            }
+            driver.get("about:blank");
+            return true;
+        } catch (Exception e) {
+            System.out.println("Error resetting " + name + " session, evicting it: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    private void evict(PooledSession session) {
+        synchronized (this) {
+            totalSessions--;
+        }
+        evicted.incrementAndGet();
+        try {
+            session.driver.quit();
+        } catch (Exception e) {
+            // Session is already gone
+        }
+    }
+    
+    private void recordWait(long nanos) {
+        waitNanos.addAndGet(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
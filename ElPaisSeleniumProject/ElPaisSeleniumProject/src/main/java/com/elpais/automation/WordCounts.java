@@ -0,0 +1,197 @@
+package com.elpais.automation;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * WordCounts maps words to int counts in an open-addressing table
+ * Words are looked up straight from a character buffer, so the tokenizer only creates
+ * a String the first time it sees a word. Hashes match String.hashCode, which lets the
+ * same table be filled from a buffer or from existing strings.
+ */
+public final class WordCounts {
+    
+    private static final int INITIAL_CAPACITY = 64;
+    
+    private String[] keys;
+    private int[] hashes;
+    private int[] counts;
+    private int size;
+    private long total;
+    
+    public WordCounts() {
+        this(INITIAL_CAPACITY);
+    }
+    
+    public WordCounts(int expectedWords) {
+        int capacity = Integer.highestOneBit(Math.max(INITIAL_CAPACITY, expectedWords * 2 - 1)) << 1;
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+    }
+    
+    /**
+     * Table holding each of the given words once
+     */
+    static WordCounts of(String... words) {
+        WordCounts table = new WordCounts(words.length);
+        for (String word : words) {
+            table.add(word, 1);
+        }
+        return table;
+    }
+    
+    /**
+     * Count the first length chars of buffer as one occurrence of a word
+     * @param hash String.hashCode of those chars
+     */
+    public void add(char[] buffer, int length, int hash) {
+        int mask = keys.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                insert(i, new String(buffer, 0, length), hash, 1);
+                return;
+            }
+            if (hashes[i] == hash && matches(key, buffer, length)) {
+                counts[i]++;
+                total++;
+                return;
+            }
+        }
+    }
+    
+    public void add(String word, int count) {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                insert(i, word, hash, count);
+                return;
+            }
+            if (hashes[i] == hash && key.equals(word)) {
+                counts[i] += count;
+                total += count;
+                return;
+            }
+        }
+    }
+    
+    public boolean contains(char[] buffer, int length, int hash) {
+        int mask = keys.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                return false;
+            }
+            if (hashes[i] == hash && matches(key, buffer, length)) {
+                return true;
+            }
+        }
+    }
+    
+    public int get(String word) {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) {
+                return 0;
+            }
+            if (hashes[i] == hash && key.equals(word)) {
+                return counts[i];
+            }
+        }
+    }
+    
+    /**
+     * Add every count from another table into this one
+     */
+    public void addAll(WordCounts other) {
+        other.forEach(this::add);
+    }
+    
+    /**
+     * Number of distinct words
+     */
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * Number of occurrences across all words
+     */
+    public long total() {
+        return total;
+    }
+    
+    /**
+     * Remove every word, keeping the table's current capacity
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, null);
+            size = 0;
+            total = 0;
+        }
+    }
+    
+    public void forEach(ObjIntConsumer<String> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null) {
+                action.accept(keys[i], counts[i]);
+            }
+        }
+    }
+    
+    private void insert(int slot, String word, int hash, int count) {
+        keys[slot] = word;
+        hashes[slot] = hash;
+        counts[slot] = count;
+        size++;
+        total += count;
+        // Keep the table at most half full so probe runs stay short
+        if (size * 2 > keys.length) {
+            resize();
+        }
+    }
+    
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[oldKeys.length * 2];
+        counts = new int[oldKeys.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = spread(oldHashes[j]) & mask;
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                hashes[i] = oldHashes[j];
+                counts[i] = oldCounts[j];
+            }
+        }
+    }
+    
+    private static boolean matches(String key, char[] buffer, int length) {
+        if (key.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != buffer[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // Same mixing as HashMap, so keys differing only in high bits still spread out
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,160 @@
+package com.elpais.automation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WordFrequencyAnalyzer counts words from headlines as they arrive
+ * Any thread may add headlines at any time. Each headline is tokenized into a per-thread
+ * table by TextAnalyzer and then added to shared LongAdder counters, so producers rarely
+ * contend. Analyzers from different shards or sessions merge into one, and queries keep
+ * only the best K words in a heap instead of sorting the whole vocabulary.
+ * Results use the same order as TextAnalyzer: most frequent first, alphabetical among equals.
+ */
+public class WordFrequencyAnalyzer implements WordStatistics {
+    
+    /**
+     * Words must appear more than this many times to count as repeated
+     */
+    public static final int REPEATED_THRESHOLD = 2;
+    
+    private static final ThreadLocal<WordCounts> HEADER_WORDS = ThreadLocal.withInitial(WordCounts::new);
+    
+    // Worst entry first, so the heap root is the one to drop
+    private static final Comparator<Map.Entry<String, Long>> WORST_FIRST =
+        Map.Entry.<String, Long>comparingByValue()
+            .thenComparing(Map.Entry.<String, Long>comparingByKey().reversed());
+    
+    private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final LongAdder totalWords = new LongAdder();
+    private final LongAdder headlines = new LongAdder();
+    
+    /**
+     * Count the words of one headline
+     */
+    @Override
+    public void add(String headline) {
+        if (headline == null) {
+            return;
+        }
+        WordCounts headerWords = HEADER_WORDS.get();
+        TextAnalyzer.processHeader(headline, headerWords);
+        headerWords.forEach(this::add);
+        totalWords.add(headerWords.total());
+        headerWords.clear();
+        headlines.increment();
+    }
+    
+    /**
+     * Add words already counted elsewhere, e.g. by HeadlineArchiveAnalyzer
+     */
+    public void addCounts(WordCounts wordCounts, long headlineCount) {
+        wordCounts.forEach(this::add);
+        totalWords.add(wordCounts.total());
+        headlines.add(headlineCount);
+    }
+    
+    /**
+     * Add every count from another analyzer, e.g. one per shard or browser session
+     */
+    public void merge(WordFrequencyAnalyzer other) {
+        other.counts.forEach((word, count) -> counter(word).add(count.sum()));
+        totalWords.add(other.totalWords.sum());
+        headlines.add(other.headlines.sum());
+    }
+    
+    public long count(String word) {
+        LongAdder count = counts.get(word);
+        return count != null ? count.sum() : 0;
+    }
+    
+    @Override
+    public long getTotalWords() {
+        return totalWords.sum();
+    }
+    
+    @Override
+    public long getUniqueWords() {
+        return counts.size();
+    }
+    
+    @Override
+    public long getHeadlineCount() {
+        return headlines.sum();
+    }
+    
+    @Override
+    public long getRepeatedWordCount() {
+        long repeated = 0;
+        for (LongAdder count : counts.values()) {
+            if (count.sum() > REPEATED_THRESHOLD) {
+                repeated++;
+            }
+        }
+        return repeated;
+    }
+    
+    /**
+     * Words seen more than twice, as TextAnalyzer.analyzeRepeatedWords reports them
+     */
+    @Override
+    public Map<String, Integer> repeatedWords() {
+        return query(REPEATED_THRESHOLD, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * The k most frequent words
+     */
+    public Map<String, Integer> topK(int k) {
+        return query(0, k);
+    }
+    
+    /**
+     * Up to limit words counted more than threshold times, best first
+     */
+    public Map<String, Integer> query(long threshold, int limit) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        if (limit <= 0) {
+            return result;
+        }
+        
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(WORST_FIRST);
+        for (Map.Entry<String, LongAdder> entry : counts.entrySet()) {
+            long count = entry.getValue().sum();
+            if (count <= threshold) {
+                continue;
+            }
+            Map.Entry<String, Long> candidate = Map.entry(entry.getKey(), count);
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+        
+        List<Map.Entry<String, Long>> best = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            best.add(heap.poll());
+        }
+        for (int i = best.size() - 1; i >= 0; i--) {
+            result.put(best.get(i).getKey(), (int) Math.min(Integer.MAX_VALUE, best.get(i).getValue()));
+        }
+        return result;
+    }
+    
+    private void add(String word, int count) {
+        counter(word).add(count);
+    }
+    
+    private LongAdder counter(String word) {
+        LongAdder counter = counts.get(word);
+        return counter != null ? counter : counts.computeIfAbsent(word, key -> new LongAdder());
+    }
+}
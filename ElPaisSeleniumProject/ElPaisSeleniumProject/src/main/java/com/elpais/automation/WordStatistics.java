@@ -0,0 +1,53 @@
+package com.elpais.automation;
+
+import java.util.Map;
+
+/**
+ * WordStatistics is the interface for word counters fed one headline at a time
+ * The counter is chosen with analysis.mode: exact keeps every word, approximate keeps
+ * fixed-size sketches whose error is set in config.properties.
+ */
+public interface WordStatistics {
+    
+    /**
+     * Count the words of one headline; safe to call from any thread
+     */
+    void add(String headline);
+    
+    default void addAll(Iterable<String> headlines) {
+        for (String headline : headlines) {
+            add(headline);
+        }
+    }
+    
+    long getHeadlineCount();
+    
+    /**
+     * Number of valid words counted, including repeats
+     */
+    long getTotalWords();
+    
+    long getUniqueWords();
+    
+    /**
+     * Number of distinct words seen more than twice
+     */
+    long getRepeatedWordCount();
+    
+    /**
+     * Words seen more than twice, most frequent first and alphabetical among equals
+     */
+    Map<String, Integer> repeatedWords();
+    
+    /**
+     * Create the counter configured by analysis.mode
+     */
+    static WordStatistics fromConfig() {
+        if ("approximate".equalsIgnoreCase(ConfigManager.getAnalysisMode())) {
+            return new ApproximateWordAnalyzer(ConfigManager.getApproximateEpsilon(),
+                ConfigManager.getApproximateDelta(), ConfigManager.getApproximateUniqueError(),
+                ConfigManager.getApproximateTopWords());
+        }
+        return new WordFrequencyAnalyzer();
+    }
+}
@@ -0,0 +1,116 @@
+package com.elpais.automation;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * ApproximateWordAnalyzerTest measures approximate mode against the exact counter
+ * Both analyzers read the same Zipf-like headline streams of growing size; every bound
+ * is checked against exact mode, not against the sketches' own view of the data.
+ */
+public class ApproximateWordAnalyzerTest {
+    
+    private static final double EPSILON = 0.0001;
+    private static final double DELTA = 0.001;
+    private static final double UNIQUE_ERROR = 0.01;
+    private static final int TOP_WORDS = 100;
+    private static final int[] HEADLINES = {10_000, 100_000, 1_000_000};
+    
+    private final WordFrequencyAnalyzer[] exact = new WordFrequencyAnalyzer[HEADLINES.length];
+    private final ApproximateWordAnalyzer[] approximate = new ApproximateWordAnalyzer[HEADLINES.length];
+    
+    @BeforeClass
+    public void countCorpora() {
+        for (int i = 0; i < HEADLINES.length; i++) {
+            WordFrequencyAnalyzer exactCounts = new WordFrequencyAnalyzer();
+            ApproximateWordAnalyzer sketches = new ApproximateWordAnalyzer(EPSILON, DELTA, UNIQUE_ERROR, TOP_WORDS);
+            ZipfHeadlines.generate(HEADLINES[i], Math.max(1_000, HEADLINES[i] / 5), 42, headline -> {
+                exactCounts.add(headline);
+                sketches.add(headline);
+            });
+            exact[i] = exactCounts;
+            approximate[i] = sketches;
+        }
+    }
+    
+    @DataProvider
+    public Object[][] corpora() {
+        Object[][] corpora = new Object[HEADLINES.length][];
+        for (int i = 0; i < HEADLINES.length; i++) {
+            corpora[i] = new Object[] {HEADLINES[i], i};
+        }
+        return corpora;
+    }
+    
+    @Test(dataProvider = "corpora")
+    public void totalWordsAreExact(int headlines, int corpus) {
+        assertEquals(approximate[corpus].getTotalWords(), exact[corpus].getTotalWords());
+        assertEquals(approximate[corpus].getHeadlineCount(), headlines);
+    }
+    
+    @Test(dataProvider = "corpora")
+    public void uniqueWordsWithinThreeStandardErrors(int headlines, int corpus) {
+        double error = relativeError(approximate[corpus].getUniqueWords(), exact[corpus].getUniqueWords());
+        double bound = 3 * approximate[corpus].getUniqueWordsError();
+        assertTrue(error <= bound, String.format("%d headlines: unique words %d vs exact %d, error %.3f%% over %.3f%%",
+            headlines, approximate[corpus].getUniqueWords(), exact[corpus].getUniqueWords(), error * 100, bound * 100));
+    }
+    
+    @Test(dataProvider = "corpora")
+    public void repeatedWordsWithinThreeStandardErrorsOfExactMode(int headlines, int corpus) {
+        long expected = exact[corpus].getRepeatedWordCount();
+        long actual = approximate[corpus].getRepeatedWordCount();
+        double bound = 3 * approximate[corpus].getRepeatedWordsError();
+        double error = relativeError(actual, expected);
+        assertTrue(error <= bound, String.format("%d headlines: repeated words %d vs exact %d, error %.3f%% over %.3f%%",
+            headlines, actual, expected, error * 100, bound * 100));
+    }
+    
+    @Test(dataProvider = "corpora")
+    public void wordCountsAreNeverLowAndRarelyOverEpsilonTimesTotal(int headlines, int corpus) {
+        // Count-Min never undercounts; overcounts past epsilon x N are allowed for a delta fraction
+        long allowed = (long) (EPSILON * exact[corpus].getTotalWords());
+        Map<String, Integer> words = exact[corpus].query(0, Integer.MAX_VALUE);
+        long overBound = 0;
+        for (Map.Entry<String, Integer> word : words.entrySet()) {
+            long overcount = approximate[corpus].estimate(word.getKey()) - word.getValue();
+            assertTrue(overcount >= 0, word.getKey() + " undercounted by " + -overcount);
+            overBound += overcount > allowed ? 1 : 0;
+        }
+        assertTrue(overBound <= Math.ceil(DELTA * words.size()),
+            overBound + " of " + words.size() + " words overcounted by more than " + allowed);
+    }
+    
+    @Test(dataProvider = "corpora")
+    public void topWordsMatchExactMode(int headlines, int corpus) {
+        // Words tied with the last of the exact top list may swap places, so ties count as found
+        Map<String, Integer> expectedTop = exact[corpus].topK(TOP_WORDS);
+        Map<String, Integer> reportedTop = approximate[corpus].repeatedWords();
+        int lastCount = expectedTop.values().stream().mapToInt(Integer::intValue).min().orElse(0);
+        long found = expectedTop.keySet().stream().filter(reportedTop::containsKey).count();
+        long relevant = reportedTop.keySet().stream().filter(word -> exact[corpus].count(word) >= lastCount).count();
+        
+        assertTrue(found >= 0.9 * expectedTop.size(), "recall " + found + " of " + expectedTop.size());
+        assertTrue(relevant >= 0.9 * reportedTop.size(), "precision " + relevant + " of " + reportedTop.size());
+    }
+    
+    @Test
+    public void memoryDoesNotFollowTheVocabulary() {
+        // From 100k to 1M headlines the vocabulary grows tenfold; the sample is full in both,
+        // so only its fill level (half to fully full) and word lengths can differ
+        long smaller = approximate[1].getMemoryBytes();
+        long larger = approximate[2].getMemoryBytes();
+        assertTrue(exact[2].getUniqueWords() > 5 * exact[1].getUniqueWords());
+        assertTrue(larger < 2 * smaller, "memory grew from " + smaller + " to " + larger + " bytes");
+    }
+    
+    private static double relativeError(long estimate, long actual) {
+        return actual == 0 ? (estimate == 0 ? 0 : 1) : Math.abs(estimate - actual) / (double) actual;
+    }
+}
@@ -0,0 +1,90 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * ArticleBodyFetcherTest fetches article pages from a local fixture site
+ * The long page trickles in over several seconds, so a fetch that stops at
+ * body.max.chars only returns quickly if it aborts the rest of the download.
+ */
+public class ArticleBodyFetcherTest {
+    
+    private static final String SELECTOR = "[data-dtm-region=articulo_cuerpo] p, .a_c p, article p";
+    private static final String LONG_PAGE = "/opinion/2024-03-01/articulo-largo.html";
+    private static final long CHUNK_DELAY_MS = 20;
+    
+    private FixtureSite site;
+    private byte[] longPage;
+    
+    @BeforeClass
+    public void startSite() throws IOException {
+        site = new FixtureSite(3);
+        site.start();
+        
+        StringBuilder page = new StringBuilder("<html><head><meta charset=\"utf-8\"></head><body><article><div class=\"a_c\">");
+        for (int p = 1; p <= 5000; p++) {
+            page.append("<p>").append(FixtureSite.paragraphOf(1, p)).append("</p>");
+        }
+        longPage = page.append("</div></article></body></html>").toString().getBytes(StandardCharsets.UTF_8);
+        site.putSlow(LONG_PAGE, "text/html; charset=utf-8", longPage, CHUNK_DELAY_MS);
+        
+        // Load the HTTP client and parser classes so timings only cover the download
+        HttpArticleScraper.fetchDocument(site.url(FixtureSite.articlePath(3)));
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopSite() {
+        site.stop();
+    }
+    
+    @Test
+    public void collectsTheParagraphsOfAnArticle() throws Exception {
+        ArticleBodyFetcher fetcher = new ArticleBodyFetcher(2, new HostThrottle(2, 0), 20000, SELECTOR);
+        try {
+            String body = fetcher.fetchBody(site.url(FixtureSite.articlePath(2))).toString();
+            
+            String[] paragraphs = body.split("\n");
+            assertEquals(paragraphs.length, 5);
+            assertEquals(paragraphs[0], FixtureSite.paragraphOf(2, 1));
+            assertEquals(paragraphs[4], FixtureSite.paragraphOf(2, 5));
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+    
+    @Test
+    public void abortsTheDownloadOnceMaxCharsIsReached() throws Exception {
+        long fullDownloadMs = (longPage.length / FixtureSite.CHUNK_SIZE) * CHUNK_DELAY_MS;
+        ArticleBodyFetcher fetcher = new ArticleBodyFetcher(2, new HostThrottle(2, 0), 2000, SELECTOR);
+        try {
+            int abandonedBefore = site.abandonedResponses.get();
+            long start = System.nanoTime();
+            CompressedText body = fetcher.fetchBody(site.url(LONG_PAGE));
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            
+            assertEquals(body.length(), 2000);
+            assertTrue(body.toString().startsWith(FixtureSite.paragraphOf(1, 1)));
+            assertTrue(elapsedMs * 4 < fullDownloadMs, elapsedMs + " ms of a " + fullDownloadMs + " ms download");
+            
+            // The server sees the connection drop while it is still writing
+            long waitUntil = System.currentTimeMillis() + fullDownloadMs;
+            while (site.abandonedResponses.get() == abandonedBefore && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(20);
+            }
+            assertEquals(site.abandonedResponses.get(), abandonedBefore + 1);
+            
+            // The pool still hands out working connections afterwards
+            assertTrue(fetcher.fetchBody(site.url(FixtureSite.articlePath(1))).length() > 0);
+        } finally {
+            fetcher.shutdown();
+        }
+    }
+}
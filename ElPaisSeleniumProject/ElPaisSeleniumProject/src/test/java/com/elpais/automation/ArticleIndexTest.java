@@ -0,0 +1,106 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * ArticleIndexTest checks that only real translations are stored and reused
+ * translateAll hands back the Spanish title when a translation fails, and that must
+ * not be restored as the article's translation on the next run.
+ */
+public class ArticleIndexTest {
+    
+    private static final String URL = "https://elpais.com/opinion/2024-03-01/la-vivienda.html";
+    private static final String TITLE = "La vivienda, el gran fracaso";
+    
+    private Path indexDir;
+    
+    @BeforeMethod
+    public void createIndexDir() throws IOException {
+        indexDir = Files.createTempDirectory("article-index-test");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteIndexDir() throws IOException {
+        try (Stream<Path> files = Files.walk(indexDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    public void translationIsRestoredOnTheNextRun() {
+        runWithTranslation("Housing, the great failure");
+        
+        Article next = article();
+        assertEquals(newIndex().classify(next), ArticleIndex.Status.UNCHANGED);
+        assertEquals(next.getTranslatedTitle(), "Housing, the great failure");
+    }
+    
+    @Test
+    public void failedTranslationIsRetriedOnTheNextRun() {
+        // translateAll keeps the source text for items it could not translate
+        runWithTranslation(TITLE);
+        
+        Article next = article();
+        assertEquals(newIndex().classify(next), ArticleIndex.Status.UNCHANGED);
+        assertNull(next.getTranslatedTitle());
+    }
+    
+    @Test
+    public void placeholderIsNotATranslation() {
+        runWithTranslation(TranslationService.NOT_AVAILABLE);
+        
+        Article next = article();
+        newIndex().classify(next);
+        assertNull(next.getTranslatedTitle());
+    }
+    
+    @Test
+    public void incompleteEntryIsRewrittenOnceTheTranslationSucceeds() {
+        runWithTranslation(TITLE);
+        runWithTranslation("Housing, the great failure");
+        
+        Article next = article();
+        newIndex().classify(next);
+        assertEquals(next.getTranslatedTitle(), "Housing, the great failure");
+    }
+    
+    /**
+     * One run: classify, translate if needed, record
+     */
+    private void runWithTranslation(String translation) {
+        ArticleIndex index = newIndex();
+        Article article = article();
+        index.classify(article);
+        if (article.getTranslatedTitle() == null) {
+            article.setTranslatedTitle(translation);
+        }
+        index.record(Collections.singletonList(article));
+    }
+    
+    private ArticleIndex newIndex() {
+        return new ArticleIndex(indexDir.toString(), 1000, 0.01);
+    }
+    
+    private static Article article() {
+        Article article = new Article();
+        article.setTitle(TITLE);
+        article.setContent("Resumen del artículo sobre la vivienda y el alquiler.");
+        article.setUrl(URL);
+        return article;
+    }
+}
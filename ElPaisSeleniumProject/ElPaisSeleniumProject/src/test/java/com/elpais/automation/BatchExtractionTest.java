@@ -0,0 +1,101 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * BatchExtractionTest compares batch and per-element extraction on a local fixture page
+ * Every call through the decorated driver is one WebDriver round trip. Needs a local
+ * Chrome and is skipped where none is installed.
+ */
+public class BatchExtractionTest {
+    
+    private static final int ARTICLES = 30;
+    private static final int ROUNDS = 3;
+    
+    private final AtomicInteger roundTrips = new AtomicInteger();
+    private FixtureSite site;
+    private WebDriver driver;
+    private ElPaisWebScraper scraper;
+    
+    @BeforeClass(groups = "chrome")
+    public void startBrowser() throws IOException {
+        site = new FixtureSite(ARTICLES);
+        site.start();
+        
+        WebDriver chrome = LocalChrome.start();
+        driver = new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void beforeAnyCall(Object target, Method method, Object[] args) {
+                roundTrips.incrementAndGet();
+            }
+        }).decorate(chrome);
+        
+        scraper = new ElPaisWebScraper(site.url(""), "/opinion/", SelectorRegistry.fixed(), null, null);
+        scraper.attachDriver(driver);
+        driver.get(site.url("/opinion/"));
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopBrowser() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (site != null) {
+            site.stop();
+        }
+    }
+    
+    @Test(groups = "chrome")
+    public void batchModeExtractsTheSameArticlesInOneRoundTrip() {
+        // Warm up both paths once
+        scraper.scrapeArticlesBatch(ARTICLES);
+        scraper.scrapeArticlesPerElement(ARTICLES);
+        
+        roundTrips.set(0);
+        long start = System.nanoTime();
+        List<Article> perElement = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            perElement = scraper.scrapeArticlesPerElement(ARTICLES);
+        }
+        long perElementMs = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+        int perElementTrips = roundTrips.get() / ROUNDS;
+        
+        roundTrips.set(0);
+        start = System.nanoTime();
+        List<Article> batch = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            batch = scraper.scrapeArticlesBatch(ARTICLES);
+        }
+        long batchMs = (System.nanoTime() - start) / 1_000_000 / ROUNDS;
+        int batchTrips = roundTrips.get() / ROUNDS;
+        
+        System.out.printf("%-12s %12s %12s%n", "Mode", "Round trips", "Wall ms");
+        System.out.printf("%-12s %12d %12d%n", "per-element", perElementTrips, perElementMs);
+        System.out.printf("%-12s %12d %12d%n", "batch", batchTrips, batchMs);
+        
+        assertEquals(batch.size(), ARTICLES);
+        for (int i = 0; i < ARTICLES; i++) {
+            assertEquals(batch.get(i).getTitle(), perElement.get(i).getTitle());
+            assertEquals(batch.get(i).getContent(), perElement.get(i).getContent());
+            assertEquals(batch.get(i).getImageUrl(), perElement.get(i).getImageUrl());
+            assertEquals(batch.get(i).getUrl(), perElement.get(i).getUrl());
+            assertEquals(batch.get(i).getTitle(), FixtureSite.titleOf(i + 1));
+        }
+        assertEquals(batchTrips, 1);
+        assertTrue(perElementTrips > ARTICLES * 4, perElementTrips + " per-element round trips");
+        assertTrue(batchMs < perElementMs, batchMs + " ms batch vs " + perElementMs + " ms per element");
+    }
+}
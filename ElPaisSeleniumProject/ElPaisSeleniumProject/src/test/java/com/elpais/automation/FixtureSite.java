@@ -0,0 +1,224 @@
+package com.elpais.automation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FixtureSite serves a small El País look-alike over local HTTP
+ * The home page links to /opinion/, which lists the configured number of server-rendered
+ * articles in the markup the selector cascades expect. Each article links to its own page
+ * under /opinion/ and has a cover image under /img/. Tests can add or replace any path
+ * with put() or putSlow(), e.g. heavy scripts and fonts for the network blocking test.
+ */
+class FixtureSite {
+    
+    private static final String[] SUBJECTS = {
+        "La vivienda", "El Gobierno", "Europa", "La reforma fiscal", "El Congreso",
+        "La transición energética", "La sanidad pública", "El empleo joven"
+    };
+    private static final String[] PREDICATES = {
+        "ante su propio espejo", "debe escuchar a los jóvenes", "el gran fracaso de la década",
+        "no puede esperar más", "y la crisis de confianza", "frente a la desigualdad"
+    };
+    
+    final AtomicInteger requests = new AtomicInteger();
+    final AtomicInteger imageRequests = new AtomicInteger();
+    final AtomicInteger articlePageRequests = new AtomicInteger();
+    final AtomicInteger abandonedResponses = new AtomicInteger();
+    
+    static final int CHUNK_SIZE = 8192;
+    
+    private final int articles;
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+    private volatile String extraHead = "";
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    private static class Resource {
+        final String contentType;
+        final byte[] body;
+        final long delayMillis;
+        final long chunkDelayMillis;
+        
+        Resource(String contentType, byte[] body, long delayMillis, long chunkDelayMillis) {
+            this.contentType = contentType;
+            this.body = body;
+            this.delayMillis = delayMillis;
+            this.chunkDelayMillis = chunkDelayMillis;
+        }
+    }
+    
+    FixtureSite(int articles) {
+        this.articles = articles;
+    }
+    
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+    
+    /**
+     * Serve a fixed body at path, after an optional delay
+     */
+    void put(String path, String contentType, byte[] body, long delayMillis) {
+        resources.put(path, new Resource(contentType, body, delayMillis, 0));
+    }
+    
+    /**
+     * Serve a fixed body at path in CHUNK_SIZE pieces, pausing between them like a slow link
+     */
+    void putSlow(String path, String contentType, byte[] body, long chunkDelayMillis) {
+        resources.put(path, new Resource(contentType, body, 0, chunkDelayMillis));
+    }
+    
+    /**
+     * Extra markup for the head of the home and Opinion pages, e.g. script and link tags
+     */
+    void setExtraHead(String extraHead) {
+        this.extraHead = extraHead;
+    }
+    
+    static String titleOf(int article) {
+        return SUBJECTS[(article - 1) % SUBJECTS.length] + " " + PREDICATES[(article - 1) % PREDICATES.length]
+            + " (" + article + ")";
+    }
+    
+    static String summaryOf(int article) {
+        return "Resumen del artículo " + article + ": el debate sigue abierto en el Congreso y en las comunidades.";
+    }
+    
+    static String articlePath(int article) {
+        return "/opinion/2024-03-01/articulo-" + article + ".html";
+    }
+    
+    static String imagePath(int article) {
+        return "/img/portada-" + article + ".jpg";
+    }
+    
+    static String paragraphOf(int article, int paragraph) {
+        return "Párrafo " + paragraph + " del artículo " + article
+            + ". La política de vivienda necesita acuerdos duraderos entre administraciones.";
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getPath();
+            Resource resource = resources.get(path);
+            if (resource == null) {
+                resource = generate(path);
+            }
+            if (resource == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (resource.delayMillis > 0) {
+                Thread.sleep(resource.delayMillis);
+            }
+            
+            exchange.getResponseHeaders().set("Content-Type", resource.contentType);
+            if (!resource.contentType.startsWith("text/html")) {
+                // Static assets are cacheable, as on the real site
+                exchange.getResponseHeaders().set("Cache-Control", "public, max-age=3600");
+            }
+            exchange.sendResponseHeaders(200, resource.body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int offset = 0; offset < resource.body.length; offset += CHUNK_SIZE) {
+                    out.write(resource.body, offset, Math.min(CHUNK_SIZE, resource.body.length - offset));
+                    if (resource.chunkDelayMillis > 0) {
+                        out.flush();
+                        Thread.sleep(resource.chunkDelayMillis);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client hung up before the end, e.g. a body fetch that reached its limit
+            abandonedResponses.incrementAndGet();
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private Resource generate(String path) {
+        if (path.equals("/")) {
+            return html(homePage());
+        }
+        if (path.equals("/opinion/")) {
+            return html(opinionPage());
+        }
+        if (path.startsWith("/img/portada-")) {
+            imageRequests.incrementAndGet();
+            // Enough of a JPEG header for content sniffing
+            byte[] image = new byte[2048];
+            image[0] = (byte) 0xFF;
+            image[1] = (byte) 0xD8;
+            image[2] = (byte) 0xFF;
+            return new Resource("image/jpeg", image, 0, 0);
+        }
+        for (int i = 1; i <= articles; i++) {
+            if (path.equals(articlePath(i))) {
+                articlePageRequests.incrementAndGet();
+                return html(articlePage(i));
+            }
+        }
+        return null;
+    }
+    
+    private static Resource html(String page) {
+        return new Resource("text/html; charset=utf-8", page.getBytes(StandardCharsets.UTF_8), 0, 0);
+    }
+    
+    private String homePage() {
+        return "<!DOCTYPE html><html lang=\"es\"><head><meta charset=\"utf-8\"><title>EL PAÍS: el periódico global</title>"
+            + extraHead + "</head><body><nav><a href=\"/opinion/\">Opinión</a> <a href=\"/espana/\">España</a></nav>"
+            + "<main><p>Noticias de política, economía y España.</p></main></body></html>";
+    }
+    
+    private String opinionPage() {
+        StringBuilder page = new StringBuilder();
+        page.append("<!DOCTYPE html><html lang=\"es\"><head><meta charset=\"utf-8\"><title>Opinión | EL PAÍS</title>")
+            .append(extraHead).append("</head><body><main>");
+        for (int i = 1; i <= articles; i++) {
+            page.append("<article class=\"c\"><header><h2 class=\"c_t\"><a href=\"").append(articlePath(i)).append("\">")
+                .append(titleOf(i)).append("</a></h2></header>")
+                .append("<p class=\"c_d\">").append(summaryOf(i)).append("</p>")
+                .append("<figure><img src=\"").append(imagePath(i)).append("\" alt=\"\"></figure></article>");
+        }
+        return page.append("</main></body></html>").toString();
+    }
+    
+    private static String articlePage(int article) {
+        StringBuilder page = new StringBuilder();
+        page.append("<!DOCTYPE html><html lang=\"es\"><head><meta charset=\"utf-8\"><title>").append(titleOf(article))
+            .append("</title></head><body><article><h1>").append(titleOf(article)).append("</h1><div class=\"a_c\">");
+        for (int p = 1; p <= 5; p++) {
+            page.append("<p>").append(paragraphOf(article, p)).append("</p>");
+        }
+        return page.append("</div></article></body></html>").toString();
+    }
+}
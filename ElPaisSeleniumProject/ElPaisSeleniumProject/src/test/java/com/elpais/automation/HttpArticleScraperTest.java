@@ -0,0 +1,250 @@
+package com.elpais.automation;
+
+import org.jsoup.Jsoup;
+import org.openqa.selenium.WebDriver;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * HttpArticleScraperTest scrapes a local fixture site with the driverless backend
+ * It checks what the selector cascades extract and measures articles/sec and memory.
+ * Where Chrome is installed, the same page is also scraped by ElPaisWebScraper and
+ * the two backends are compared; elsewhere that test is skipped.
+ */
+public class HttpArticleScraperTest {
+    
+    private static final int ARTICLES = 60;
+    private static final int HTTP_ROUNDS = 20;
+    private static final int BROWSER_ROUNDS = 3;
+    
+    private FixtureSite site;
+    
+    /**
+     * Throughput and memory of one backend
+     */
+    private static class Measurement {
+        final double articlesPerSecond;
+        final long bytesPerArticle;
+        
+        Measurement(int articles, long elapsedNanos, long bytes) {
+            this.articlesPerSecond = articles * 1e9 / Math.max(1, elapsedNanos);
+            this.bytesPerArticle = bytes / Math.max(1, articles);
+        }
+    }
+    
+    @BeforeClass
+    public void startSite() throws IOException {
+        site = new FixtureSite(ARTICLES);
+        site.start();
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopSite() {
+        site.stop();
+    }
+    
+    @Test
+    public void extractsEveryArticleFromTheFixturePage() throws IOException {
+        List<Article> articles = newScraper().extractArticles(ARTICLES);
+        
+        assertEquals(articles.size(), ARTICLES);
+        for (int i = 1; i <= ARTICLES; i++) {
+            Article article = articles.get(i - 1);
+            assertEquals(article.getTitle(), FixtureSite.titleOf(i));
+            assertEquals(article.getContent(), FixtureSite.summaryOf(i));
+            assertEquals(article.getImageUrl(), site.url(FixtureSite.imagePath(i)));
+            assertEquals(article.getUrl(), site.url(FixtureSite.articlePath(i)));
+        }
+    }
+    
+    @Test
+    public void stopsAtMaxArticles() throws IOException {
+        assertEquals(newScraper().extractArticles(5).size(), 5);
+    }
+    
+    @Test
+    public void pageWithoutArticleNodesExtractsNothing() {
+        String url = site.url("/opinion/");
+        HttpArticleScraper scraper = new HttpArticleScraper(url,
+            Jsoup.parse("<html><body><div id=\"app\"></div></body></html>", url), SelectorRegistry.fixed(), null, null);
+        
+        // scrapeArticles falls back to a browser on this; extractArticles never does
+        assertTrue(scraper.extractArticles(ARTICLES).isEmpty());
+    }
+    
+    @Test
+    public void articlesAreStreamedToTheSinkInPageOrder() throws IOException {
+        List<Article> streamed = new ArrayList<>();
+        newScraper().scrapeArticles(ARTICLES, streamed::add);
+        
+        assertEquals(streamed.size(), ARTICLES);
+        for (int i = 1; i <= ARTICLES; i++) {
+            assertEquals(streamed.get(i - 1).getTitle(), FixtureSite.titleOf(i));
+        }
+    }
+    
+    @Test
+    public void failingSinkStopsTheScrape() throws IOException {
+        AtomicInteger handed = new AtomicInteger();
+        try {
+            newScraper().scrapeArticles(ARTICLES, article -> {
+                if (handed.incrementAndGet() == 3) {
+                    throw new CancellationException("pipeline stopped");
+                }
+            });
+            fail("the sink's exception was swallowed");
+        } catch (CancellationException e) {
+            assertEquals(handed.get(), 3);
+        }
+    }
+    
+    @Test
+    public void articlesTheFilterRejectsQueueNoImageDownloads() throws IOException {
+        Path downloadDir = Files.createTempDirectory("scraper-filter-test");
+        ImageDownloadPipeline pipeline = new ImageDownloadPipeline(new ImageStore(downloadDir.toString()), 2, 8, 2, 0, 0);
+        try {
+            String url = site.url("/opinion/");
+            HttpArticleScraper scraper = new HttpArticleScraper(url, HttpArticleScraper.fetchDocument(url),
+                SelectorRegistry.fixed(), pipeline, null);
+            int imagesBefore = site.imageRequests.get();
+            
+            List<Article> articles = scraper.extractArticles(10,
+                article -> article.getUrl().endsWith(FixtureSite.articlePath(3)));
+            assertTrue(pipeline.awaitCompletion(10));
+            
+            assertEquals(articles.size(), 1);
+            assertEquals(articles.get(0).getTitle(), FixtureSite.titleOf(3));
+            assertEquals(site.imageRequests.get() - imagesBefore, 1);
+        } finally {
+            pipeline.shutdown();
+            try (Stream<Path> files = Files.walk(downloadDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void httpBackendThroughputAndMemory() throws IOException {
+        Measurement http = measureHttp();
+        System.out.printf("HTTP backend: %.0f articles/sec, %d KB allocated per article%n",
+            http.articlesPerSecond, http.bytesPerArticle / 1024);
+        
+        // A loose floor; a single local page parse takes milliseconds
+        assertTrue(http.articlesPerSecond > 100, http.articlesPerSecond + " articles/sec");
+    }
+    
+    @Test(groups = "chrome")
+    public void browserFallbackScrapesTheSamePage() throws IOException {
+        if (!LocalChrome.isInstalled()) {
+            throw new SkipException("Chrome is not installed; set CHROME_BIN or add it to the PATH");
+        }
+        // Articles only exist once the script has run, so the HTTP parse finds none
+        site.put("/rendered/", "text/html; charset=utf-8", ("<!DOCTYPE html><html lang=\"es\"><head>"
+            + "<meta charset=\"utf-8\"><title>Opinión</title></head><body><main id=\"app\"></main><script>"
+            + "var html = '';"
+            + "for (var i = 1; i <= 3; i++) {"
+            + "  html += '<article><h2><a href=\"/rendered/' + i + '\">Titular renderizado ' + i + '</a></h2>'"
+            + "    + '<p>Un resumen que solo existe despues del script</p></article>';"
+            + "}"
+            + "document.getElementById('app').innerHTML = html;"
+            + "</script></body></html>").getBytes(StandardCharsets.UTF_8), 0);
+        String url = site.url("/rendered/");
+        HttpArticleScraper scraper = new HttpArticleScraper(url, HttpArticleScraper.fetchDocument(url),
+            SelectorRegistry.fixed(), null, null);
+        
+        List<Article> articles = new ArrayList<>();
+        try {
+            scraper.scrapeArticles(3, articles::add);
+        } finally {
+            scraper.close();
+        }
+        
+        assertEquals(articles.size(), 3);
+        assertEquals(articles.get(0).getTitle(), "Titular renderizado 1");
+    }
+    
+    @Test(groups = "chrome")
+    public void httpBackendIsFasterAndLighterThanTheBrowser() throws IOException {
+        WebDriver driver = LocalChrome.start();
+        Measurement browser;
+        try {
+            ElPaisWebScraper scraper = new ElPaisWebScraper(site.url(""), "/opinion/", SelectorRegistry.fixed(), null, null);
+            scraper.attachDriver(driver);
+            
+            int scraped = 0;
+            long allocatedBefore = allocatedBytes();
+            long start = System.nanoTime();
+            for (int round = 0; round < BROWSER_ROUNDS; round++) {
+                driver.get(site.url("/opinion/"));
+                scraped += scraper.scrapeArticles(ARTICLES).size();
+            }
+            long elapsed = System.nanoTime() - start;
+            assertEquals(scraped, ARTICLES * BROWSER_ROUNDS);
+            
+            // The browser's own memory lives in its processes, not in this JVM
+            long bytes = allocatedBytes() - allocatedBefore + LocalChrome.childProcessResidentBytes() * BROWSER_ROUNDS;
+            browser = new Measurement(scraped, elapsed, bytes);
+        } finally {
+            driver.quit();
+        }
+        
+        Measurement http = measureHttp();
+        System.out.printf("%-8s %12s %16s%n", "Backend", "Articles/sec", "KB per article");
+        System.out.printf("%-8s %12.0f %16d%n", "http", http.articlesPerSecond, http.bytesPerArticle / 1024);
+        System.out.printf("%-8s %12.0f %16d%n", "browser", browser.articlesPerSecond, browser.bytesPerArticle / 1024);
+        
+        assertTrue(http.articlesPerSecond > browser.articlesPerSecond);
+        assertTrue(http.bytesPerArticle < browser.bytesPerArticle);
+    }
+    
+    /**
+     * Fetch and extract the Opinion page HTTP_ROUNDS times
+     */
+    private Measurement measureHttp() throws IOException {
+        newScraper().extractArticles(ARTICLES);
+        
+        int scraped = 0;
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int round = 0; round < HTTP_ROUNDS; round++) {
+            scraped += newScraper().extractArticles(ARTICLES).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertEquals(scraped, ARTICLES * HTTP_ROUNDS);
+        return new Measurement(scraped, elapsed, allocatedBytes() - allocatedBefore);
+    }
+    
+    /**
+     * Fetch the fixture Opinion page over the shared client, without downloads or the article index
+     */
+    private HttpArticleScraper newScraper() throws IOException {
+        String url = site.url("/opinion/");
+        return new HttpArticleScraper(url, HttpArticleScraper.fetchDocument(url), SelectorRegistry.fixed(), null, null);
+    }
+    
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,68 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * ImageDownloadPipelineTest downloads images from a local fixture site
+ * The image is held back by the server, so the first wait times out while
+ * the download is still running.
+ */
+public class ImageDownloadPipelineTest {
+    
+    private static final long IMAGE_DELAY_MS = 1500;
+    
+    private FixtureSite site;
+    private Path downloadDir;
+    private ImageDownloadPipeline pipeline;
+    
+    @BeforeMethod
+    public void startSite() throws IOException {
+        site = new FixtureSite(1);
+        site.start();
+        site.put(FixtureSite.imagePath(1), "image/jpeg", new byte[1024], IMAGE_DELAY_MS);
+        
+        downloadDir = Files.createTempDirectory("image-pipeline-test");
+        pipeline = new ImageDownloadPipeline(new ImageStore(downloadDir.toString()), 2, 4, 2, 0, 0);
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopSite() throws IOException {
+        pipeline.shutdown();
+        site.stop();
+        try (Stream<Path> files = Files.walk(downloadDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    public void downloadStillRunningAfterATimeoutIsAwaitedByTheNextCall() {
+        Article article = new Article();
+        pipeline.submit(article, site.url(FixtureSite.imagePath(1)), 1);
+        
+        assertFalse(pipeline.awaitCompletion(0));
+        assertTrue(pipeline.awaitCompletion(10));
+        assertNotNull(article.getImagePath());
+    }
+    
+    @Test(expectedExceptions = RejectedExecutionException.class)
+    public void submitAfterShutdownIsRejected() {
+        pipeline.shutdown();
+        pipeline.submit(new Article(), site.url(FixtureSite.imagePath(1)), 1);
+    }
+}
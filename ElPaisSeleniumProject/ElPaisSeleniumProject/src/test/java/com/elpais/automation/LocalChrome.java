@@ -0,0 +1,81 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.SkipException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * LocalChrome starts a headless local Chrome for tests, or skips the test where none is installed
+ * The binary is looked up on the PATH, or taken from CHROME_BIN.
+ */
+final class LocalChrome {
+    
+    private static final String[] BINARIES = {
+        "google-chrome", "google-chrome-stable", "chromium", "chromium-browser", "chrome"
+    };
+    
+    private LocalChrome() {
+    }
+    
+    /**
+     * Start a driver the same way the app does, or throw SkipException
+     */
+    static WebDriver start() {
+        if (!isInstalled()) {
+            throw new SkipException("Chrome is not installed; set CHROME_BIN or add it to the PATH");
+        }
+        return ElPaisWebScraper.createLocalDriver();
+    }
+    
+    static boolean isInstalled() {
+        String chromeBin = System.getenv("CHROME_BIN");
+        if (chromeBin != null && Files.isExecutable(Paths.get(chromeBin))) {
+            return true;
+        }
+        
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            for (String binary : BINARIES) {
+                if (Files.isExecutable(Paths.get(dir, binary))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Resident memory of the browser and driver processes started by this JVM, in bytes
+     * Reads /proc, so it is 0 on platforms without it.
+     */
+    static long childProcessResidentBytes() {
+        return ProcessHandle.current().descendants()
+            .mapToLong(process -> residentBytes(process.pid()))
+            .sum();
+    }
+    
+    private static long residentBytes(long pid) {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        try {
+            List<String> lines = Files.readAllLines(status);
+            for (String line : lines) {
+                if (line.startsWith("VmRSS:")) {
+                    // "VmRSS:     123456 kB"
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process already exited or /proc is not available
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.elpais.automation;
+
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * NetworkBlockerTest loads a fixture page with a heavy stylesheet and ad script
+ * Both assets are cacheable, so a measurement that reuses the browser cache would
+ * see them only on the first load. Needs a local Chrome and is skipped where none
+ * is installed.
+ */
+public class NetworkBlockerTest {
+    
+    private static final int ASSET_BYTES = 256 * 1024;
+    private static final List<String> PATTERNS = Arrays.asList("*.css", "*anuncios*");
+    
+    private FixtureSite site;
+    private WebDriver driver;
+    
+    @BeforeClass(groups = "chrome")
+    public void startBrowser() throws IOException {
+        site = new FixtureSite(10);
+        site.start();
+        site.put("/static/estilos.css", "text/css", asset("/* estilos */\n"), 0);
+        site.put("/static/anuncios.js", "application/javascript", asset("// anuncios\n"), 0);
+        site.setExtraHead("<link rel=\"stylesheet\" href=\"/static/estilos.css\">"
+            + "<script src=\"/static/anuncios.js\"></script>");
+        
+        driver = LocalChrome.start();
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopBrowser() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (site != null) {
+            site.stop();
+        }
+    }
+    
+    @Test(groups = "chrome")
+    public void everyLoadStartsFromAnEmptyCache() {
+        String url = site.url("/opinion/");
+        NetworkBlocker.PageLoadStats first = NetworkBlocker.measureLoad(driver, url, new ArrayList<>());
+        NetworkBlocker.PageLoadStats second = NetworkBlocker.measureLoad(driver, url, new ArrayList<>());
+        NetworkBlocker.setCacheDisabled(driver, false);
+        
+        System.out.println("First load:  " + first);
+        System.out.println("Second load: " + second);
+        assertTrue(first.bytes >= 2 * ASSET_BYTES, "first load: " + first);
+        assertTrue(second.bytes >= 2 * ASSET_BYTES, "second load: " + second);
+    }
+    
+    @Test(groups = "chrome")
+    public void blockingSavesTheHeavyAssets() {
+        String url = site.url("/opinion/");
+        NetworkBlocker.PageLoadStats unblocked = NetworkBlocker.measureLoad(driver, url, new ArrayList<>());
+        NetworkBlocker.PageLoadStats blocked = NetworkBlocker.measureLoad(driver, url, PATTERNS);
+        NetworkBlocker.setCacheDisabled(driver, false);
+        NetworkBlocker.clear(driver);
+        
+        System.out.println("Without blocking: " + unblocked);
+        System.out.println("With blocking:    " + blocked);
+        assertTrue(unblocked.bytes - blocked.bytes >= 2 * ASSET_BYTES,
+            "saved " + (unblocked.bytes - blocked.bytes) + " bytes");
+    }
+    
+    private static byte[] asset(String line) {
+        StringBuilder text = new StringBuilder(ASSET_BYTES + line.length());
+        while (text.length() < ASSET_BYTES) {
+            text.append(line);
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,127 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * OfflineTranslationTest translates with a small phrase table written for each test
+ * The table is deliberately unsorted and holds a phrase next to its one-word prefix.
+ * The chained provider falls back to an echo stub of the MyMemory API.
+ */
+public class OfflineTranslationTest {
+    
+    private static final String TABLE =
+        "# test table\n"
+        + "gobierno\tgovernment\n"
+        + "cambio climático\tclimate change\n"
+        + "el\tthe\n"
+        + "cambio\tchange\n"
+        + "de\tof\n"
+        + "el gobierno de españa\tthe spanish government\n"
+        + "llega\tarrives\n";
+    
+    private Path tableDir;
+    private PhraseTable table;
+    private StubTranslationApi api;
+    
+    @BeforeMethod
+    public void writeTable() throws IOException {
+        tableDir = Files.createTempDirectory("offline-translation-test");
+        Path file = tableDir.resolve("phrases.tsv");
+        Files.write(file, TABLE.getBytes(StandardCharsets.UTF_8));
+        table = new PhraseTable(file);
+        
+        api = new StubTranslationApi();
+        api.start();
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void deleteTable() throws IOException {
+        api.stop();
+        try (Stream<Path> files = Files.walk(tableDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    public void unsortedTableIsLookedUpByExactKey() {
+        assertEquals(table.size(), 7);
+        assertEquals(table.getMaxPhraseWords(), 4);
+        assertEquals(table.lookup("cambio"), "change");
+        assertEquals(table.lookup("cambio climático"), "climate change");
+        assertNull(table.lookup("cambio clim"));
+        assertNull(table.lookup("# test table"));
+    }
+    
+    @Test
+    public void longestPhraseWinsOverItsPrefix() {
+        OfflineTranslationProvider provider = new OfflineTranslationProvider(table, 0);
+        
+        assertEquals(provider.translate("El cambio climático llega", "es|en"), "The climate change arrives");
+        assertEquals(provider.translate("El cambio llega", "es|en"), "The change arrives");
+        assertEquals(provider.translate("El Gobierno de España, ayer", "es|en"), "The spanish government, ayer");
+    }
+    
+    @Test
+    public void phraseIsNotMatchedAcrossPunctuation() {
+        OfflineTranslationProvider provider = new OfflineTranslationProvider(table, 0);
+        
+        assertEquals(provider.translate("Cambio, climático", "es|en"), "Change, climático");
+    }
+    
+    @Test
+    public void missingWordsAreCopiedOrMissTheLine() {
+        assertEquals(new OfflineTranslationProvider(table, 0).translate("El cambio de Sánchez", "es|en"),
+            "The change of Sánchez");
+        // 3 of 4 words covered
+        assertEquals(new OfflineTranslationProvider(table, 0.75).translate("El cambio de Sánchez", "es|en"),
+            "The change of Sánchez");
+        assertNull(new OfflineTranslationProvider(table, 0.8).translate("El cambio de Sánchez", "es|en"));
+        assertNull(new OfflineTranslationProvider(table, 0).translate("El cambio", "en|es"));
+    }
+    
+    @Test
+    public void chainTriesThePhraseTableFirst() throws Exception {
+        TranslationProvider chain = newChain();
+        
+        assertEquals(chain.translate("El cambio climático llega\nEl gobierno", "es|en"),
+            "The climate change arrives\nThe government");
+        assertEquals(api.requests.get(), 0);
+    }
+    
+    @Test
+    public void chainSendsOnlyMissedLinesToTheApiInOneRequest() throws Exception {
+        AtomicReference<String> sent = new AtomicReference<>();
+        api.translator = text -> {
+            sent.set(text);
+            return StubTranslationApi.echo(text);
+        };
+        TranslationProvider chain = newChain();
+        
+        String translated = chain.translate("El cambio llega\nLa vivienda, el gran fracaso\nEl gobierno\nOtra cosa", "es|en");
+        
+        assertEquals(translated, "The change arrives\nEN La vivienda, el gran fracaso\nThe government\nEN Otra cosa");
+        assertEquals(api.requests.get(), 1);
+        assertEquals(sent.get(), "La vivienda, el gran fracaso\nOtra cosa");
+    }
+    
+    private TranslationProvider newChain() {
+        return new ChainedTranslationProvider(new OfflineTranslationProvider(table, 1.0),
+            new MyMemoryTranslationProvider(api.getUrl(), new TokenBucketRateLimiter(1000, 1000)));
+    }
+}
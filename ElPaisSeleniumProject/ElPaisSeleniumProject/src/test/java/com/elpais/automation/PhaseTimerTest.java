@@ -0,0 +1,43 @@
+package com.elpais.automation;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * PhaseTimerTest checks that readiness waits are not added to the total twice
+ * Waits are recorded with fixed durations far longer than the phases around them.
+ */
+public class PhaseTimerTest {
+    
+    @Test
+    public void waitInsideARunningPhaseIsNotCountedAgain() {
+        PhaseTimer timer = new PhaseTimer();
+        timer.record("Driver init (local)", 300);
+        PhaseTimer.Phase navigation = timer.start("Navigate to home page");
+        timer.recordWait("Home page ready (wait)", 400, 12);
+        navigation.stop();
+        
+        // The navigation itself took well under the 400 ms the wait claims
+        assertTrue(timer.getTotalMillis() < 300 + 400, timer.getTotalMillis() + " ms");
+    }
+    
+    @Test
+    public void waitOutsideAnyPhaseCountsOnItsOwn() {
+        PhaseTimer timer = new PhaseTimer();
+        timer.record("Driver init (local)", 300);
+        timer.recordWait("Opinion page ready (wait)", 400, 12);
+        
+        assertEquals(timer.getTotalMillis(), 700);
+    }
+    
+    @Test
+    public void waitInAPhaseThatNeverStoppedStillCounts() {
+        PhaseTimer timer = new PhaseTimer();
+        timer.start("Navigate to Opinion section");
+        timer.recordWait("Opinion page ready (wait)", 400, 12);
+        
+        assertEquals(timer.getTotalMillis(), 400);
+    }
+}
@@ -0,0 +1,82 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * SectionCrawlerTest crawls sections of a local fixture site that list the same articles
+ * Section /a/ has two pages that overlap, and /b/ repeats articles from /a/, one of them
+ * under a link with a query string, fragment and trailing slash. The crawler gets a fixed
+ * registry and no image pipeline or article index, so nothing is written under cache/.
+ */
+public class SectionCrawlerTest {
+    
+    private FixtureSite site;
+    
+    @BeforeClass
+    public void startSite() throws IOException {
+        site = new FixtureSite(0);
+        site.start();
+        putSection("/a/", "/a/2/", 1, 2, 3, 4, 5);
+        putSection("/a/2/", null, 4, 5, 6, 7, 8);
+        putSection("/b/", null, 1, 9, 10);
+        
+        // Article 2 again, under a link that only differs in ways canonicalUrl ignores
+        site.put("/c/", "text/html; charset=utf-8", page(null,
+            articleMarkup(2, site.url(articlePath(2)) + "/?utm_source=portada#comentarios")), 0);
+    }
+    
+    @AfterClass(alwaysRun = true)
+    public void stopSite() {
+        site.stop();
+    }
+    
+    @Test
+    public void articlesListedTwiceAreEmittedOnce() {
+        List<String> seeds = Arrays.asList(site.url("/a/"), site.url("/b/"), site.url("/c/"));
+        SectionCrawler crawler = new SectionCrawler(seeds, 4, new HostThrottle(4, 0), 2, 20, false,
+            SelectorRegistry.fixed(), null, null);
+        
+        List<Article> articles = crawler.crawl();
+        
+        Set<String> urls = new HashSet<>();
+        for (Article article : articles) {
+            urls.add(ArticleIndex.canonicalUrl(article.getUrl()));
+        }
+        assertEquals(articles.size(), 10);
+        assertEquals(urls.size(), 10);
+    }
+    
+    private void putSection(String path, String nextPath, int... articles) {
+        StringBuilder markup = new StringBuilder();
+        for (int article : articles) {
+            markup.append(articleMarkup(article, articlePath(article)));
+        }
+        site.put(path, "text/html; charset=utf-8", page(nextPath, markup.toString()), 0);
+    }
+    
+    private static byte[] page(String nextPath, String articles) {
+        String next = nextPath == null ? "" : "<a rel=\"next\" href=\"" + nextPath + "\">Siguiente</a>";
+        return ("<!DOCTYPE html><html lang=\"es\"><head><meta charset=\"utf-8\"><title>Sección</title></head><body>"
+            + articles + next + "</body></html>").getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static String articleMarkup(int article, String href) {
+        return "<article><h2><a href=\"" + href + "\">" + FixtureSite.titleOf(article) + "</a></h2>"
+            + "<p>" + FixtureSite.summaryOf(article) + "</p></article>";
+    }
+    
+    private static String articlePath(int article) {
+        return "/articulos/" + article;
+    }
+}
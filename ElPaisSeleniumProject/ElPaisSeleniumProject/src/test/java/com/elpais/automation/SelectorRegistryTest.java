@@ -0,0 +1,109 @@
+package com.elpais.automation;
+
+import org.jsoup.Jsoup;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * SelectorRegistryTest checks that selector ordering follows a layout change
+ * The registries here are never persisted, so the stats file is not touched.
+ */
+public class SelectorRegistryTest {
+    
+    private static final SelectorRegistry.Role ROLE = SelectorRegistry.Role.TITLE;
+    
+    @Test
+    public void untriedSelectorsKeepTheirDefaultOrder() {
+        assertEquals(newRegistry().ordered(ROLE), ArticleSelectors.TITLE);
+    }
+    
+    @Test
+    public void newLeaderTakesOverSoonAfterALayoutChange() {
+        SelectorRegistry registry = newRegistry();
+        String[] defaults = registry.ordered(ROLE);
+        String oldLeader = defaults[2];
+        String newLeader = defaults[5];
+        
+        // A long history of the old layout
+        for (int i = 0; i < 10_000; i++) {
+            registry.recordCascade(ROLE, registry.ordered(ROLE), indexOf(registry.ordered(ROLE), oldLeader));
+        }
+        assertEquals(registry.ordered(ROLE)[0], oldLeader);
+        
+        // The new layout only matches newLeader
+        int cascades = 0;
+        while (!registry.ordered(ROLE)[0].equals(newLeader)) {
+            String[] order = registry.ordered(ROLE);
+            registry.recordCascade(ROLE, order, indexOf(order, newLeader));
+            cascades++;
+            assertTrue(cascades < 50, "still led by " + registry.ordered(ROLE)[0] + " after " + cascades + " cascades");
+        }
+    }
+    
+    @Test
+    public void driftDemotesTheLeaderAtOnce() {
+        SelectorRegistry registry = newRegistry();
+        String leader = ArticleSelectors.TITLE[3];
+        for (int i = 0; i < 1000; i++) {
+            registry.record(ROLE, leader, true, 1000);
+            registry.record(ROLE, ArticleSelectors.TITLE[4], i % 2 == 0, 1000);
+        }
+        assertEquals(registry.ordered(ROLE)[0], leader);
+        
+        registry.reportDrift(ROLE);
+        
+        String[] order = registry.ordered(ROLE);
+        assertNotEquals(order[0], leader);
+        // Last of the specific selectors; the catch-all a[title] always comes after them
+        assertEquals(order[order.length - 2], leader);
+        assertEquals(order[order.length - 1], "a[title]");
+    }
+    
+    @Test
+    public void catchAllLinkNeverOvertakesTheHeadlineLink() {
+        StringBuilder page = new StringBuilder("<html><body>");
+        // Cards without a headline link, where only the catch-all a[href] matches
+        for (int i = 1; i <= 3; i++) {
+            page.append("<article><a href=\"/opinion/\">Opinión</a><h2>Titular ").append(i).append("</h2>")
+                .append("<p>Un resumen lo bastante largo para contar</p></article>");
+        }
+        // Cards whose first anchor is the author, ahead of the headline link
+        for (int i = 4; i <= 8; i++) {
+            page.append("<article><a href=\"/autor/firma-").append(i).append("/\">Firma</a>")
+                .append("<h2><a href=\"/opinion/articulo-").append(i).append(".html\">Titular ").append(i).append("</a></h2>")
+                .append("<p>Un resumen lo bastante largo para contar</p></article>");
+        }
+        String url = "http://127.0.0.1/opinion/";
+        SelectorRegistry registry = newRegistry();
+        HttpArticleScraper scraper = new HttpArticleScraper(url,
+            Jsoup.parse(page.append("</body></html>").toString(), url), registry, null, null);
+        
+        List<Article> articles = scraper.extractArticles(8);
+        
+        assertEquals(articles.size(), 8);
+        for (int i = 4; i <= 8; i++) {
+            assertEquals(articles.get(i - 1).getUrl(), "http://127.0.0.1/opinion/articulo-" + i + ".html");
+        }
+        String[] links = registry.ordered(SelectorRegistry.Role.LINK);
+        assertEquals(links[links.length - 1], "a[href]");
+    }
+    
+    private static SelectorRegistry newRegistry() {
+        return new SelectorRegistry("test", new HashMap<>(), 0.98);
+    }
+    
+    private static int indexOf(String[] selectors, String selector) {
+        for (int i = 0; i < selectors.length; i++) {
+            if (selectors[i].equals(selector)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,366 @@
+package com.elpais.automation;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * SessionSchedulerTest runs SessionScheduler against a fake remote WebDriver endpoint
+ * The local server speaks enough of the W3C WebDriver protocol for RemoteWebDriver to
+ * create a session, navigate, read the title and quit. Each configuration asks the
+ * server for a behaviour (fake:mode): healthy, slow to start, slower to start than the
+ * deadline, failing its first session request, hanging on navigation, or showing the wrong page.
+ */
+public class SessionSchedulerTest {
+    
+    private static final String EXPECTED_TITLE = "El País Opinión";
+    private static final int MAX_SESSIONS = 3;
+    
+    private FakeWebDriverHub hub;
+    private FakeSessionRunner runner;
+    
+    @BeforeMethod
+    public void startHub() throws IOException {
+        hub = new FakeWebDriverHub();
+        hub.start();
+        runner = new FakeSessionRunner(new URL(hub.getUrl()), hub.getUrl());
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopHub() throws InterruptedException {
+        try {
+            // Losing hedged starts and cancelled sessions are quit in the background
+            long waitUntil = System.currentTimeMillis() + 10_000;
+            while (hub.liveSessions.get() > 0 && System.currentTimeMillis() < waitUntil) {
+                Thread.sleep(100);
+            }
+            assertEquals(hub.liveSessions.get(), 0, "sessions left open of " + hub.createdSessions.get() + " created");
+        } finally {
+            hub.stop();
+        }
+    }
+    
+    @Test
+    public void everyConfigurationEndsAsExpectedWithinTheSessionLimit() {
+        // name -> mode, plus the status each should end with
+        Map<String, String> modes = new LinkedHashMap<>();
+        Map<String, SessionScheduler.Status> expected = new LinkedHashMap<>();
+        for (int i = 1; i <= 4; i++) {
+            modes.put("healthy-" + i, "ok");
+            expected.put("healthy-" + i, SessionScheduler.Status.PASSED);
+        }
+        modes.put("slow-start", "slow-start");
+        expected.put("slow-start", SessionScheduler.Status.PASSED);
+        modes.put("flaky-grid", "flaky");
+        expected.put("flaky-grid", SessionScheduler.Status.PASSED);
+        modes.put("hung-page", "hang");
+        expected.put("hung-page", SessionScheduler.Status.TIMED_OUT);
+        modes.put("wrong-page", "wrong-title");
+        expected.put("wrong-page", SessionScheduler.Status.FAILED);
+        
+        Map<String, MutableCapabilities> matrix = new LinkedHashMap<>();
+        for (Map.Entry<String, String> mode : modes.entrySet()) {
+            matrix.put(mode.getKey(), capabilities(mode.getKey(), mode.getValue()));
+        }
+        
+        // 3 s deadline, 1 retry after 200 ms, hedge after 1 s, no build deadline
+        SessionScheduler<RemoteWebDriver> scheduler = new SessionScheduler<>(runner, MAX_SESSIONS, 3000, 1, 200, 1000, 0);
+        List<SessionScheduler.Result> results = scheduler.runAll(matrix);
+        scheduler.printSummary(results);
+        
+        for (SessionScheduler.Result result : results) {
+            assertEquals(result.getStatus(), expected.get(result.getName()), result.getName() + ": " + result.getError());
+        }
+        assertEquals(attemptsOf(results, "flaky-grid"), 2, "flaky-grid is retried once");
+        assertEquals(attemptsOf(results, "wrong-page"), 1, "a failing test is not retried");
+        assertTrue(hub.peakSessions.get() <= MAX_SESSIONS,
+            "endpoint saw " + hub.peakSessions.get() + " sessions at once, limit " + MAX_SESSIONS);
+    }
+    
+    @Test
+    public void slowStartIsHedged() {
+        // Hedging only uses a free slot, so leave room for a second session
+        SessionScheduler<RemoteWebDriver> hedging = new SessionScheduler<>(runner, 2, 5000, 0, 200, 1000, 0);
+        SessionScheduler.Result hedged = hedging.runAll(Map.of("slow-start-hedged",
+            capabilities("slow-start-hedged", "slow-start"))).get(0);
+        
+        assertEquals(hedged.getStatus(), SessionScheduler.Status.PASSED);
+        assertTrue(hedged.isHedged(), "slow start was hedged");
+        assertTrue(hedged.getElapsedMillis() < 2500, "hedged session passed in " + hedged.getElapsedMillis() + " ms");
+    }
+    
+    @Test
+    public void buildDeadlineCancelsRunningSessions() {
+        Map<String, MutableCapabilities> hanging = new LinkedHashMap<>();
+        for (int i = 1; i <= 2; i++) {
+            hanging.put("cancelled-" + i, capabilities("cancelled-" + i, "hang"));
+        }
+        SessionScheduler<RemoteWebDriver> cancelling = new SessionScheduler<>(runner, 2, 60_000, 0, 200, 0, 1500);
+        List<SessionScheduler.Result> cancelled = cancelling.runAll(hanging);
+        
+        for (SessionScheduler.Result result : cancelled) {
+            assertEquals(result.getStatus(), SessionScheduler.Status.CANCELLED, result.getName());
+        }
+    }
+    
+    @Test
+    public void startOutlivingItsDeadlineKeepsTheSlot() {
+        Map<String, MutableCapabilities> matrix = new LinkedHashMap<>();
+        matrix.put("stuck-start", capabilities("stuck-start", "stuck-start"));
+        matrix.put("healthy", capabilities("healthy", "ok"));
+        
+        // One slot, 1 s deadline, no retries or hedging; the stuck start answers after 2 s
+        SessionScheduler<RemoteWebDriver> scheduler = new SessionScheduler<>(runner, 1, 1000, 0, 200, 0, 0);
+        List<SessionScheduler.Result> results = scheduler.runAll(matrix);
+        
+        assertEquals(results.get(0).getStatus(), SessionScheduler.Status.TIMED_OUT);
+        assertEquals(results.get(1).getStatus(), SessionScheduler.Status.PASSED);
+        assertEquals(hub.peakSessions.get(), 1, "sessions open or starting at once");
+    }
+    
+    @Test
+    public void firstStartFinishingAsTheHedgeLaunchesReleasesTheHedgeSlotOnce() throws InterruptedException {
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch firstDone = new CountDownLatch(1);
+        AtomicInteger starts = new AtomicInteger();
+        SessionScheduler.SessionRunner<String> slowFirst = new SessionScheduler.SessionRunner<String>() {
+            @Override
+            public String start(String name, MutableCapabilities capabilities) throws Exception {
+                int start = starts.incrementAndGet();
+                if (start == 1) {
+                    releaseFirst.await();
+                }
+                return name + "-" + start;
+            }
+            
+            @Override
+            public void run(String name, String session) {
+            }
+            
+            @Override
+            public void stop(String name, String session) {
+                if (session.endsWith("-1")) {
+                    firstDone.countDown();
+                }
+            }
+        };
+        
+        // 2 slots, hedge after 200 ms; the first start finishes after the hedge is flagged, before it runs
+        SessionScheduler<String> scheduler = new SessionScheduler<>(slowFirst, 2, 5000, 0, 200, 200, 0);
+        scheduler.beforeHedgedStart = () -> {
+            releaseFirst.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        SessionScheduler.Result result = scheduler.runAll(Map.of("hedged", capabilities("hedged", "ok"))).get(0);
+        assertTrue(firstDone.await(5, TimeUnit.SECONDS), "first session was not stopped");
+        
+        assertEquals(result.getStatus(), SessionScheduler.Status.PASSED, String.valueOf(result.getError()));
+        assertTrue(result.isHedged());
+        long waitUntil = System.currentTimeMillis() + 5000;
+        while (scheduler.getFreeSlots() != 2 && System.currentTimeMillis() < waitUntil) {
+            Thread.sleep(50);
+        }
+        assertEquals(scheduler.getFreeSlots(), 2, "free slots after the build");
+    }
+    
+    private static int attemptsOf(List<SessionScheduler.Result> results, String name) {
+        return results.stream().filter(result -> result.getName().equals(name)).findFirst()
+            .map(SessionScheduler.Result::getAttempts).orElse(0);
+    }
+    
+    private static MutableCapabilities capabilities(String name, String mode) {
+        MutableCapabilities capabilities = new MutableCapabilities();
+        capabilities.setCapability("browserName", "chrome");
+        capabilities.setCapability("fake:name", name);
+        capabilities.setCapability("fake:mode", mode);
+        return capabilities;
+    }
+    
+    /**
+     * Opens a RemoteWebDriver on the fake endpoint and checks the page title
+     */
+    private static class FakeSessionRunner implements SessionScheduler.SessionRunner<RemoteWebDriver> {
+        
+        private final URL hubUrl;
+        private final String pageUrl;
+        
+        FakeSessionRunner(URL hubUrl, String pageUrl) {
+            this.hubUrl = hubUrl;
+            this.pageUrl = pageUrl + "opinion/";
+        }
+        
+        @Override
+        public RemoteWebDriver start(String name, MutableCapabilities capabilities) {
+            return new RemoteWebDriver(hubUrl, capabilities);
+        }
+        
+        @Override
+        public void run(String name, RemoteWebDriver driver) {
+            driver.get(pageUrl);
+            String title = driver.getTitle();
+            if (!EXPECTED_TITLE.equals(title)) {
+                throw new IllegalStateException("Unexpected page title: " + title);
+            }
+        }
+        
+        @Override
+        public void stop(String name, RemoteWebDriver driver) {
+            driver.quit();
+        }
+    }
+    
+    /**
+     * Minimal W3C WebDriver endpoint with scripted misbehaviour
+     * A session counts as open from the moment its creation request arrives until it is
+     * deleted, so the peak includes sessions that are still starting.
+     */
+    static class FakeWebDriverHub {
+        
+        private static final Pattern MODE = Pattern.compile("\"fake:mode\"\\s*:\\s*\"([^\"]+)\"");
+        private static final Pattern NAME = Pattern.compile("\"fake:name\"\\s*:\\s*\"([^\"]+)\"");
+        private static final Pattern SESSION_PATH = Pattern.compile("/session/([^/]+)(/.*)?");
+        
+        final AtomicInteger liveSessions = new AtomicInteger();
+        final AtomicInteger peakSessions = new AtomicInteger();
+        final AtomicInteger createdSessions = new AtomicInteger();
+        
+        private final Map<String, String> sessionModes = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> requestsByName = new ConcurrentHashMap<>();
+        private final ScheduledExecutorService delayed = Executors.newScheduledThreadPool(2);
+        private HttpServer server;
+        
+        void start() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 256);
+            server.createContext("/", this::handle);
+            server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "fake-hub");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+        }
+        
+        String getUrl() {
+            return "http://localhost:" + server.getAddress().getPort() + "/";
+        }
+        
+        void stop() {
+            server.stop(0);
+            delayed.shutdownNow();
+        }
+        
+        private void handle(HttpExchange exchange) throws IOException {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            
+            if (method.equals("POST") && path.equals("/session")) {
+                newSession(exchange, body);
+                return;
+            }
+            
+            Matcher matcher = SESSION_PATH.matcher(path);
+            if (!matcher.matches() || !sessionModes.containsKey(matcher.group(1))) {
+                respond(exchange, 404, "{\"value\":{\"error\":\"invalid session id\",\"message\":\"No such session\",\"stacktrace\":\"\"}}");
+                return;
+            }
+            String sessionId = matcher.group(1);
+            String command = matcher.group(2) == null ? "" : matcher.group(2);
+            String mode = sessionModes.get(sessionId);
+            
+            if (method.equals("DELETE") && command.isEmpty()) {
+                if (sessionModes.remove(sessionId) != null) {
+                    liveSessions.decrementAndGet();
+                }
+                respond(exchange, 200, "{\"value\":null}");
+            } else if (command.equals("/url") && method.equals("POST")) {
+                if (!mode.equals("hang")) {
+                    respond(exchange, 200, "{\"value\":null}");
+                }
+                // "hang" never answers; the scheduler's deadline has to deal with it
+            } else if (command.equals("/title")) {
+                String title = mode.equals("wrong-title") ? "Página no encontrada" : EXPECTED_TITLE;
+                respond(exchange, 200, "{\"value\":\"" + title + "\"}");
+            } else {
+                respond(exchange, 200, "{\"value\":null}");
+            }
+        }
+        
+        private void newSession(HttpExchange exchange, String body) {
+            String mode = group(MODE, body, "ok");
+            String name = group(NAME, body, "unnamed");
+            int request = requestsByName.computeIfAbsent(name, key -> new AtomicInteger()).incrementAndGet();
+            peakSessions.accumulateAndGet(liveSessions.incrementAndGet(), Math::max);
+            
+            if (mode.equals("flaky") && request == 1) {
+                liveSessions.decrementAndGet();
+                respond(exchange, 500, "{\"value\":{\"error\":\"session not created\","
+                    + "\"message\":\"Could not start a new session. No capacity\",\"stacktrace\":\"\"}}");
+                return;
+            }
+            
+            String sessionId = UUID.randomUUID().toString().replace("-", "");
+            Runnable created = () -> {
+                sessionModes.put(sessionId, mode);
+                createdSessions.incrementAndGet();
+                respond(exchange, 200, "{\"value\":{\"sessionId\":\"" + sessionId + "\","
+                    + "\"capabilities\":{\"browserName\":\"chrome\",\"browserVersion\":\"fake\"}}}");
+            };
+            if (mode.equals("slow-start") && request == 1) {
+                // Slower than the hedge delay, so a second session gets started
+                delayed.schedule(created, 2500, TimeUnit.MILLISECONDS);
+            } else if (mode.equals("stuck-start")) {
+                delayed.schedule(created, 2000, TimeUnit.MILLISECONDS);
+            } else {
+                created.run();
+            }
+        }
+        
+        private static String group(Pattern pattern, String text, String fallback) {
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(1) : fallback;
+        }
+        
+        private static void respond(HttpExchange exchange, int status, String json) {
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            try (OutputStream out = exchange.getResponseBody()) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(status, bytes.length);
+                out.write(bytes);
+            } catch (IOException e) {
+                // Client gave up on the request
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+}
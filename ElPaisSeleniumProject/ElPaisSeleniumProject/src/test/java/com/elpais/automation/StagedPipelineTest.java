@@ -0,0 +1,77 @@
+package com.elpais.automation;
+
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * StagedPipelineTest runs synthetic stages that sleep a fixed time per item
+ * Run one after another, stages of 10, 20 and 40 ms over 50 items take 3.5 s. Streamed
+ * through the pipeline, with two workers on the slowest stage, they take about as long
+ * as the slowest stage alone.
+ */
+public class StagedPipelineTest {
+    
+    private static final int ITEMS = 50;
+    private static final long SEQUENTIAL_MS = ITEMS * (10 + 20 + 40);
+    
+    @Test
+    public void endToEndTimeApproachesTheSlowestStage() throws Exception {
+        Set<Integer> done = ConcurrentHashMap.newKeySet();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>()
+            .stage("fast", 1, 4, sleepPerItem(10))
+            .stage("medium", 1, 4, sleepPerItem(20))
+            .stage("slow", 2, 4, batch -> {
+                sleepPerItem(40).handle(batch);
+                done.addAll(batch);
+            });
+        
+        long start = System.currentTimeMillis();
+        pipeline.run(emit -> {
+            for (int i = 0; i < ITEMS; i++) {
+                emit.accept(i);
+            }
+        });
+        long elapsed = System.currentTimeMillis() - start;
+        pipeline.printStatistics();
+        
+        assertEquals(done.size(), ITEMS);
+        // About 1.1 s expected; the bound leaves room for a loaded machine
+        assertTrue(elapsed < SEQUENTIAL_MS / 2, "pipeline took " + elapsed + " ms, sequential " + SEQUENTIAL_MS + " ms");
+    }
+    
+    @Test
+    public void failingStageStopsTheSourceAndIsRethrown() {
+        AtomicInteger emitted = new AtomicInteger();
+        StagedPipeline<Integer> pipeline = new StagedPipeline<Integer>()
+            .stage("check", 1, 2, batch -> {
+                if (batch.get(0) == 5) {
+                    throw new IllegalStateException("bad item");
+                }
+            })
+            .stage("sink", 1, 2, batch -> { });
+        
+        try {
+            pipeline.run(emit -> {
+                for (int i = 0; i < 10_000; i++) {
+                    emit.accept(i);
+                    emitted.incrementAndGet();
+                }
+            });
+            fail("the stage's exception was not rethrown");
+        } catch (Exception e) {
+            assertTrue(e.getMessage().contains("bad item"), e.getMessage());
+        }
+        assertTrue(emitted.get() < 10_000, "source kept producing after the failure");
+    }
+    
+    private static StagedPipeline.Handler<Integer> sleepPerItem(long millis) {
+        return batch -> Thread.sleep(millis * batch.size());
+    }
+}
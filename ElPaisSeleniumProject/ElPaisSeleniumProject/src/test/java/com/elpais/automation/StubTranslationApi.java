@@ -0,0 +1,110 @@
+package com.elpais.automation;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * StubTranslationApi is a local stand-in for the MyMemory /get endpoint
+ * By default it echoes each line of q back prefixed with "EN ", so packed requests
+ * split cleanly. Tests can add latency, change the translator, or make it answer
+ * with an HTTP error or a MyMemory quota warning.
+ */
+class StubTranslationApi {
+    
+    static final String QUOTA_WARNING = "MYMEMORY WARNING: YOU USED ALL AVAILABLE FREE TRANSLATIONS FOR TODAY";
+    
+    final AtomicInteger requests = new AtomicInteger();
+    final AtomicInteger peakInFlight = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    volatile UnaryOperator<String> translator = StubTranslationApi::echo;
+    volatile long delayMillis;
+    volatile int httpStatus = 200;
+    volatile boolean quotaExceeded;
+    
+    private HttpServer server;
+    private ExecutorService executor;
+    
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/get", this::handle);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+    
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+    
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/get";
+    }
+    
+    /**
+     * Prefix every line with "EN ", keeping the line breaks
+     */
+    static String echo(String text) {
+        return "EN " + text.replace("\n", "\nEN ");
+    }
+    
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            
+            JsonObject responseData = new JsonObject();
+            JsonObject response = new JsonObject();
+            if (quotaExceeded) {
+                // MyMemory sends quota errors with HTTP 200 and the message as the translation
+                responseData.addProperty("translatedText", QUOTA_WARNING);
+                response.addProperty("responseStatus", 429);
+                response.addProperty("responseDetails", QUOTA_WARNING);
+            } else {
+                responseData.addProperty("translatedText", translator.apply(queryParameter(exchange, "q")));
+                response.addProperty("responseStatus", 200);
+            }
+            response.add("responseData", responseData);
+            
+            byte[] body = response.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(httpStatus, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+    
+    private static String queryParameter(HttpExchange exchange, String name) throws UnsupportedEncodingException {
+        String query = exchange.getRequestURI().getRawQuery();
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0 && pair.substring(0, equals).equals(name)) {
+                return URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,110 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * TranslationCacheTest runs TranslationService against a stub MyMemory endpoint
+ * A warm run must be answered entirely from the cache, and error responses must
+ * never be cached on either the packed or the single-text path.
+ */
+public class TranslationCacheTest {
+    
+    private static final String LANG_PAIR = "es|en";
+    
+    private static final List<String> HEADLINES = Arrays.asList(
+        "La vivienda, el gran fracaso",
+        "El Gobierno debe escuchar a los jóvenes",
+        "Europa ante su propio espejo",
+        "La vivienda, el gran fracaso",
+        "Una reforma fiscal pendiente",
+        "El  Gobierno debe escuchar a los   jóvenes");
+    
+    private StubTranslationApi api;
+    private Path cacheDir;
+    
+    @BeforeMethod
+    public void startApi() throws IOException {
+        api = new StubTranslationApi();
+        api.start();
+        cacheDir = Files.createTempDirectory("translation-cache-test");
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopApi() throws IOException {
+        api.stop();
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    public void warmRunMakesNoHttpCalls() {
+        List<String> cold = newService(newCache()).translateAll(HEADLINES);
+        int coldRequests = api.requests.get();
+        assertTrue(coldRequests > 0);
+        for (int i = 0; i < HEADLINES.size(); i++) {
+            assertEquals(cold.get(i), StubTranslationApi.echo(HEADLINES.get(i).replaceAll("\\s+", " ")));
+        }
+        
+        // A new cache over the same directory only has the disk tier to go on
+        TranslationService warmService = newService(newCache());
+        assertEquals(warmService.translateAll(HEADLINES), cold);
+        assertEquals(warmService.translateToEnglish(HEADLINES.get(1)), cold.get(1));
+        assertEquals(api.requests.get(), coldRequests, "HTTP calls on a warm run");
+    }
+    
+    @Test
+    public void quotaWarningIsNeverCached() {
+        api.quotaExceeded = true;
+        assertFailuresAreNotCached();
+    }
+    
+    @Test
+    public void httpErrorIsNeverCached() {
+        api.httpStatus = 503;
+        assertFailuresAreNotCached();
+    }
+    
+    private void assertFailuresAreNotCached() {
+        TranslationCache cache = newCache();
+        TranslationService service = newService(cache);
+        
+        // Packed request, then each text re-sent on its own
+        assertEquals(service.translateAll(HEADLINES), HEADLINES);
+        assertEquals(service.translateToEnglish(HEADLINES.get(0)), "Translation not available");
+        for (String headline : HEADLINES) {
+            assertNull(cache.peek(headline, LANG_PAIR), headline);
+        }
+        
+        api.quotaExceeded = false;
+        api.httpStatus = 200;
+        assertEquals(service.translateToEnglish(HEADLINES.get(0)), StubTranslationApi.echo(HEADLINES.get(0)));
+        assertEquals(service.translateAll(HEADLINES).get(2), StubTranslationApi.echo(HEADLINES.get(2)));
+    }
+    
+    private TranslationCache newCache() {
+        return new TranslationCache(cacheDir.toString(), 100, 100, 3600_000L);
+    }
+    
+    private TranslationService newService(TranslationCache cache) {
+        return new TranslationService(
+            new MyMemoryTranslationProvider(api.getUrl(), new TokenBucketRateLimiter(1000, 1000)), cache);
+    }
+}
@@ -0,0 +1,120 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * TranslationConcurrencyTest compares translateAll with a sequential loop over a slow stub API
+ * Each headline is long enough to fill a pack on its own, so the difference comes from
+ * running requests concurrently rather than from packing. The stub gets a limiter far
+ * above its rate, so only the API latency is measured.
+ */
+public class TranslationConcurrencyTest {
+    
+    private static final int HEADLINES = 8;
+    private static final long API_LATENCY_MS = 200;
+    
+    private StubTranslationApi api;
+    private final List<Path> cacheDirs = new ArrayList<>();
+    
+    @BeforeMethod
+    public void startApi() throws IOException {
+        api = new StubTranslationApi();
+        api.delayMillis = API_LATENCY_MS;
+        api.start();
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopApi() throws IOException {
+        api.stop();
+        for (Path cacheDir : cacheDirs) {
+            try (Stream<Path> files = Files.walk(cacheDir)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        cacheDirs.clear();
+    }
+    
+    @Test
+    public void translateAllBeatsTheSequentialLoop() throws IOException {
+        List<String> headlines = longHeadlines();
+        
+        long start = System.nanoTime();
+        TranslationService sequential = newService(120);
+        List<String> expected = new ArrayList<>();
+        for (String headline : headlines) {
+            expected.add(sequential.translateToEnglish(headline));
+        }
+        long sequentialMs = (System.nanoTime() - start) / 1_000_000;
+        assertEquals(api.requests.get(), HEADLINES);
+        
+        api.requests.set(0);
+        api.peakInFlight.set(0);
+        start = System.nanoTime();
+        List<String> concurrent = newService(120).translateAll(headlines);
+        long concurrentMs = (System.nanoTime() - start) / 1_000_000;
+        
+        System.out.println("Sequential: " + sequentialMs + " ms, translateAll: " + concurrentMs + " ms for "
+            + HEADLINES + " headlines at " + API_LATENCY_MS + " ms each, peak " + api.peakInFlight.get() + " in flight");
+        assertEquals(concurrent, expected);
+        assertEquals(api.requests.get(), HEADLINES, "each headline is its own pack");
+        assertTrue(api.peakInFlight.get() > 1, "requests never overlapped");
+        assertTrue(concurrentMs * 2 < sequentialMs, concurrentMs + " ms vs " + sequentialMs + " ms sequential");
+    }
+    
+    @Test
+    public void slowPacksKeepTheirSourceTextAtTheDeadline() throws IOException {
+        api.delayMillis = 3000;
+        List<String> headlines = longHeadlines().subList(0, 2);
+        
+        long start = System.nanoTime();
+        List<String> results = newService(1).translateAll(headlines);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        
+        assertEquals(results, headlines);
+        assertTrue(elapsedMs < 2500, "translateAll waited " + elapsedMs + " ms past a 1 s deadline");
+    }
+    
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void zeroRateLimiterIsRejectedInsteadOfBlockingForever() {
+        new TokenBucketRateLimiter(0, 5);
+    }
+    
+    private TranslationService newService(long batchTimeoutSeconds) throws IOException {
+        Path cacheDir = Files.createTempDirectory("translation-concurrency-test");
+        cacheDirs.add(cacheDir);
+        return new TranslationService(
+            new MyMemoryTranslationProvider(api.getUrl(), new TokenBucketRateLimiter(1000, 1000)),
+            new TranslationCache(cacheDir.toString(), 100, 100, 0),
+            batchTimeoutSeconds);
+    }
+    
+    /**
+     * Headlines over half of translation.pack.max.length, so no two share a pack
+     */
+    private static List<String> longHeadlines() {
+        String filler = " mientras el debate sobre la vivienda, el empleo y los servicios públicos sigue abierto en el Congreso"
+            + " y en las comunidades autónomas, que reclaman más recursos y más competencias para gestionarlos"
+            + " durante los próximos años de legislatura";
+        List<String> headlines = new ArrayList<>();
+        for (int i = 1; i <= HEADLINES; i++) {
+            headlines.add("Titular número " + i + filler + " " + i);
+        }
+        return headlines;
+    }
+}
@@ -0,0 +1,140 @@
+package com.elpais.automation;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * TranslationPackingTest checks request packing against an echo stub of the MyMemory API
+ * A pack that comes back with the wrong number of lines must be re-sent one text at a time.
+ */
+public class TranslationPackingTest {
+    
+    private static final List<String> HEADLINES = Arrays.asList(
+        "La vivienda, el gran fracaso",
+        "El Gobierno debe escuchar a los jóvenes",
+        "Europa ante su propio espejo",
+        "Una reforma fiscal pendiente",
+        "¿Quién paga la transición energética?");
+    
+    private StubTranslationApi api;
+    private Path cacheDir;
+    private TranslationCache cache;
+    private TranslationService service;
+    
+    @BeforeMethod
+    public void startApi() throws IOException {
+        api = new StubTranslationApi();
+        api.start();
+        cacheDir = Files.createTempDirectory("translation-packing-test");
+        cache = new TranslationCache(cacheDir.toString(), 100, 100, 0);
+        service = new TranslationService(
+            new MyMemoryTranslationProvider(api.getUrl(), new TokenBucketRateLimiter(1000, 1000)), cache);
+    }
+    
+    @AfterMethod(alwaysRun = true)
+    public void stopApi() throws IOException {
+        api.stop();
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+    
+    @Test
+    public void packIsSplitBackInInputOrder() {
+        long savedBefore = TranslationService.getRequestsSaved();
+        
+        List<String> results = service.translateAll(HEADLINES);
+        
+        assertEquals(api.requests.get(), 1, "one packed request");
+        assertEquals(results, echoed(HEADLINES));
+        assertEquals(TranslationService.getRequestsSaved() - savedBefore, HEADLINES.size() - 1);
+        for (String headline : HEADLINES) {
+            assertEquals(cache.peek(headline, "es|en"), StubTranslationApi.echo(headline));
+        }
+    }
+    
+    @Test
+    public void splitMismatchIsResentIndividually() {
+        // The API merges the lines of a pack into one sentence
+        api.translator = text -> StubTranslationApi.echo(text.replace("\n", " "));
+        
+        List<String> results = service.translateAll(HEADLINES);
+        
+        assertEquals(api.requests.get(), 1 + HEADLINES.size(), "packed request plus one per headline");
+        assertEquals(results, echoed(HEADLINES));
+    }
+    
+    @Test
+    public void packWithAnEmptyLineIsResentIndividually() {
+        // The API drops the translation of the first line but keeps its line break
+        api.translator = text -> {
+            String[] lines = text.split("\n", -1);
+            if (lines.length > 1) {
+                lines[0] = "";
+            }
+            return String.join("\n", echoed(Arrays.asList(lines)));
+        };
+        
+        List<String> results = service.translateAll(HEADLINES);
+        
+        assertEquals(api.requests.get(), 1 + HEADLINES.size());
+        assertEquals(results, echoed(HEADLINES));
+    }
+    
+    @Test
+    public void failedResendKeepsTheSourceTextAndIsNotCached() {
+        api.translator = text -> text.contains("\n") ? StubTranslationApi.echo(text.replace("\n", " ")) : null;
+        
+        List<String> results = service.translateAll(HEADLINES);
+        
+        assertEquals(results, HEADLINES);
+        for (String headline : HEADLINES) {
+            assertNull(cache.peek(headline, "es|en"), headline);
+        }
+    }
+    
+    @Test
+    public void packsStayWithinTheLengthLimit() {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            texts.add(HEADLINES.get(i % HEADLINES.size()) + " " + i);
+        }
+        
+        List<List<String>> packs = TranslationService.buildPacks(texts, 120);
+        
+        List<String> flattened = new ArrayList<>();
+        for (List<String> pack : packs) {
+            int length = String.join(TranslationService.PACK_DELIMITER, pack).getBytes(StandardCharsets.UTF_8).length;
+            assertTrue(length <= 120 || pack.size() == 1, "pack of " + length + " bytes");
+            flattened.addAll(pack);
+        }
+        assertEquals(flattened, texts);
+        assertTrue(packs.size() < texts.size());
+    }
+    
+    private static List<String> echoed(List<String> texts) {
+        List<String> results = new ArrayList<>();
+        for (String text : texts) {
+            results.add(text.isEmpty() ? "" : StubTranslationApi.echo(text));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,64 @@
+package com.elpais.automation;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * ZipfHeadlines generates synthetic headlines whose word ranks follow roughly 1/rank
+ * Words are ranks spelled as syllables, mixed with English stop words, the way
+ * ArchiveAnalysisBenchmark builds its input file.
+ */
+final class ZipfHeadlines {
+    
+    private static final String[] FILLER = {
+        "the", "of", "in", "and", "to", "a", "for", "with", "on", "is"
+    };
+    
+    private static final String[] SYLLABLES = {
+        "ca", "ta", "lo", "mer", "vin", "so", "tri", "pal", "den", "ro", "quel", "sta", "mi", "bor", "gen", "ñu"
+    };
+    
+    private ZipfHeadlines() {
+    }
+    
+    /**
+     * Hand lines headlines drawn from a vocabulary of this many words to the sink
+     */
+    static void generate(int lines, int vocabulary, long seed, Consumer<String> sink) {
+        Random random = new Random(seed);
+        double logVocabulary = Math.log(vocabulary);
+        StringBuilder headline = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            headline.setLength(0);
+            int words = 6 + random.nextInt(10);
+            for (int w = 0; w < words; w++) {
+                if (w > 0) {
+                    headline.append(' ');
+                }
+                if (random.nextInt(3) == 0) {
+                    headline.append(FILLER[random.nextInt(FILLER.length)]);
+                } else {
+                    int rank = (int) Math.exp(random.nextDouble() * logVocabulary);
+                    appendWord(headline, Math.min(rank, vocabulary - 1), w == 0);
+                }
+            }
+            sink.accept(headline.append(random.nextInt(4) == 0 ? '?' : '.').toString());
+        }
+    }
+    
+    // Rank spelled as syllables, capitalized at the start of a headline
+    private static void appendWord(StringBuilder headline, int rank, boolean capitalize) {
+        int start = headline.length();
+        int value = rank;
+        do {
+            headline.append(SYLLABLES[value & 0xF]);
+            value >>>= 4;
+        } while (value > 0);
+        if (headline.length() - start < 4) {
+            headline.append("ra");
+        }
+        if (capitalize) {
+            headline.setCharAt(start, Character.toUpperCase(headline.charAt(start)));
+        }
+    }
+}